@@ -0,0 +1,25 @@
+plugins {
+    alias(libs.plugins.jmh)
+}
+
+dependencies {
+    jmh(projects.core)
+    jmh(libs.bundles.fastutil)
+}
+
+// A recording made with ChunkRecording; RecordedChunkBenchmark only runs when one is given
+val chunkRecording = providers.gradleProperty("chunkRecording")
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    // Keep local runs short; CI or a developer comparing releases can override these on the command line
+    warmupIterations = 3
+    iterations = 5
+    fork = 1
+    resultFormat = "JSON"
+    if (chunkRecording.isPresent) {
+        jvmArgsAppend.add("-Dgeyser.benchmark.chunk-recording=" + file(chunkRecording.get()).absolutePath)
+    } else {
+        excludes.add("RecordedChunkBenchmark")
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import io.netty.channel.DefaultEventLoop;
+import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.GeyserBootstrap;
+import org.geysermc.geyser.GeyserImpl;
+import org.geysermc.geyser.GeyserLogger;
+import org.geysermc.geyser.api.util.PlatformType;
+import org.geysermc.geyser.command.CommandRegistry;
+import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.configuration.GeyserJacksonConfiguration;
+import org.geysermc.geyser.dump.BootstrapDumpInfo;
+import org.geysermc.geyser.entity.EntityDefinitions;
+import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.ping.IGeyserPingPassthrough;
+import org.geysermc.geyser.registry.BlockRegistries;
+import org.geysermc.geyser.registry.Registries;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.auth.BedrockClientData;
+import org.geysermc.geyser.text.GeyserLocale;
+import org.geysermc.geyser.translator.text.MessageTranslator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A Geyser instance without any networking, for benchmarks that need the real registries or a session.
+ * Registries are loaded the same way as on startup; the config is the default one, in a temporary folder.
+ */
+public final class BenchmarkGeyser implements GeyserBootstrap {
+    private static GeyserImpl geyser;
+
+    private final GeyserConfiguration config = new Configuration();
+    private final GeyserLogger logger = new Logger();
+    private final Path configFolder;
+
+    private BenchmarkGeyser() {
+        try {
+            this.configFolder = Files.createTempDirectory("geyser-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads Geyser and its registries, if that hasn't happened yet in this fork.
+     */
+    public static synchronized GeyserImpl load() {
+        if (geyser == null) {
+            BenchmarkGeyser bootstrap = new BenchmarkGeyser();
+            GeyserLocale.init(bootstrap);
+            geyser = GeyserImpl.load(PlatformType.STANDALONE, bootstrap);
+
+            Registries.init();
+            BlockRegistries.init();
+            EntityDefinitions.init();
+            MessageTranslator.init();
+        }
+        return geyser;
+    }
+
+    /**
+     * @return a session of an English-speaking player on the latest Bedrock version, which isn't connected to anything
+     */
+    public static GeyserSession createSession() {
+        GeyserImpl geyser = load();
+        GeyserSession session = new GeyserSession(geyser, null, new DefaultEventLoop());
+
+        int protocolVersion = GameProtocol.DEFAULT_BEDROCK_CODEC.getProtocolVersion();
+        session.setBlockMappings(BlockRegistries.BLOCKS.forVersion(protocolVersion));
+        session.setItemMappings(Registries.ITEMS.forVersion(protocolVersion));
+        try {
+            session.setClientData(GeyserImpl.JSON_MAPPER.readValue("{\"LanguageCode\":\"en_US\"}", BedrockClientData.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return session;
+    }
+
+    @Override
+    public void onGeyserInitialize() {
+    }
+
+    @Override
+    public void onGeyserEnable() {
+    }
+
+    @Override
+    public void onGeyserDisable() {
+    }
+
+    @Override
+    public void onGeyserShutdown() {
+    }
+
+    @Override
+    public GeyserConfiguration getGeyserConfig() {
+        return config;
+    }
+
+    @Override
+    public GeyserLogger getGeyserLogger() {
+        return logger;
+    }
+
+    @Override
+    public @Nullable CommandRegistry getCommandRegistry() {
+        return null;
+    }
+
+    @Override
+    public @Nullable IGeyserPingPassthrough getGeyserPingPassthrough() {
+        return null;
+    }
+
+    @Override
+    public Path getConfigFolder() {
+        return configFolder;
+    }
+
+    @Override
+    public @Nullable BootstrapDumpInfo getDumpInfo() {
+        return null;
+    }
+
+    @Override
+    public @NonNull String getServerBindAddress() {
+        return "0.0.0.0";
+    }
+
+    @Override
+    public int getServerPort() {
+        return config.getBedrock().port();
+    }
+
+    @Override
+    public boolean testFloodgatePluginPresent() {
+        return false;
+    }
+
+    private static final class Configuration extends GeyserJacksonConfiguration {
+        @Override
+        public Path getFloodgateKeyPath() {
+            return Path.of(getFloodgateKeyFile());
+        }
+    }
+
+    /**
+     * Only warnings and errors are printed, so they aren't lost among the benchmark results.
+     */
+    private static final class Logger implements GeyserLogger {
+        @Override
+        public void severe(String message) {
+            System.err.println("[SEVERE] " + message);
+        }
+
+        @Override
+        public void severe(String message, Throwable error) {
+            severe(message);
+            error.printStackTrace();
+        }
+
+        @Override
+        public void error(String message) {
+            System.err.println("[ERROR] " + message);
+        }
+
+        @Override
+        public void error(String message, Throwable error) {
+            error(message);
+            error.printStackTrace();
+        }
+
+        @Override
+        public void warning(String message) {
+            System.err.println("[WARN] " + message);
+        }
+
+        @Override
+        public void info(String message) {
+        }
+
+        @Override
+        public void debug(String message) {
+        }
+
+        @Override
+        public void setDebug(boolean debug) {
+        }
+
+        @Override
+        public boolean isDebug() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import org.geysermc.geyser.level.chunk.BlockStorage;
+import org.geysermc.geyser.level.chunk.bitarray.BitArray;
+import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
+import org.geysermc.geyser.util.ChunkUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full pass over a chunk section's worth of entries for the power of two ({@code V1}, {@code V2},
+ * {@code V4}, {@code V8}, {@code V16}) and padded ({@code V3}, {@code V5}, {@code V6}) bit arrays.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BitArrayBenchmark {
+    @Param({"V1", "V2", "V3", "V4", "V5", "V6", "V8", "V16"})
+    public BitArrayVersion version;
+
+    private BitArray array;
+    private int[] values;
+
+    @Setup
+    public void setup() {
+        array = version.createArray(BlockStorage.SIZE);
+        values = new int[BlockStorage.SIZE];
+        Random random = new Random(version.ordinal());
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(version.getMaxEntryValue() + 1);
+            array.set(i, values[i]);
+        }
+    }
+
+    @Benchmark
+    public BitArray set() {
+        for (int i = 0; i < BlockStorage.SIZE; i++) {
+            array.set(i, values[i]);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public int get() {
+        int sum = 0;
+        for (int i = 0; i < BlockStorage.SIZE; i++) {
+            sum += array.get(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Converting a section from YZX to XZY order one entry at a time, as done before the bulk path existed
+     */
+    @Benchmark
+    public BitArray setReordered() {
+        for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+            array.set(ChunkUtils.indexYZXtoXZY(yzx), values[yzx]);
+        }
+        return array;
+    }
+
+    @Benchmark
+    public BitArray setAllYZX() {
+        array.setAllYZX(values);
+        return array;
+    }
+
+    @Benchmark
+    public BitArray copy() {
+        return array.copy();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.cloudburstmc.nbt.NbtMap;
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.geyser.registry.type.GeyserBedrockBlock;
+import org.geysermc.mcprotocollib.protocol.codec.MinecraftCodec;
+import org.geysermc.mcprotocollib.protocol.codec.MinecraftCodecHelper;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.ChunkSection;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.PaletteType;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.SingletonPalette;
+
+/**
+ * Java chunk sections laid out like the ones a vanilla server sends, serialized in the same format as
+ * the chunk data of a level chunk packet. The sections are built from fixed shapes (ore veins, a cave,
+ * kelp, fence lines) so neighbouring blocks are as alike as they are in real terrain, and every run
+ * sees the same blocks.
+ * <p>
+ * Block state IDs are synthetic; {@link #blockMappings()} maps them to Bedrock the way the real block
+ * mappings would, so the benchmarks don't need the registries to be loaded.
+ */
+public enum ChunkFixtures {
+    /**
+     * Solid stone, as found deep underground.
+     */
+    SINGLETON,
+    /**
+     * Stone with ore veins, dirt and gravel pockets and a cave running through it.
+     */
+    PALETTED,
+    /**
+     * An ocean floor, where kelp, seagrass and a sunken staircase are waterlogged.
+     */
+    WATERLOGGED,
+    /**
+     * A grass field with fences and a wall on top, which need extended collision boxes on Bedrock.
+     */
+    EXTENDED_COLLISION,
+    /**
+     * A build with more distinct block states than fit in a section palette.
+     */
+    GLOBAL;
+
+    public static final int STATES = 1024;
+    public static final int AIR = 0;
+    public static final int STONE = 1;
+    public static final int WATER = 2;
+
+    private static final int[] ORES = {10, 11, 12, 13, 14, 15, 16, 17};
+    private static final int DIRT = 20;
+    private static final int GRAVEL = 21;
+    private static final int GRASS = 22;
+    private static final int SAND = 23;
+    private static final int KELP = 30;
+    private static final int SEAGRASS = 31;
+    private static final int WATERLOGGED_STAIRS = 32;
+    private static final int FENCE = 40;
+    private static final int WALL = 50;
+    private static final int FIRST_BUILD_STATE = 100;
+    private static final int EXTENDED_COLLISION_BOX = STATES - 1;
+
+    /**
+     * Ore veins and pockets in the {@link #PALETTED} section: block, center x, y and z, and radius.
+     */
+    private static final int[][] BLOBS = {
+            {ORES[0], 3, 2, 4, 2}, {ORES[1], 12, 3, 11, 1}, {ORES[2], 6, 12, 13, 1}, {ORES[3], 13, 13, 3, 1},
+            {ORES[4], 1, 8, 12, 1}, {ORES[5], 9, 1, 1, 1}, {ORES[6], 14, 7, 8, 1}, {ORES[7], 4, 14, 2, 1},
+            {DIRT, 10, 11, 6, 3}, {GRAVEL, 2, 5, 9, 2}, {GRAVEL, 11, 2, 14, 2}
+    };
+
+    private static final MinecraftCodecHelper HELPER = MinecraftCodec.CODEC.getHelperFactory().get();
+
+    /**
+     * @return the Bedrock runtime ID of a fixture block state; like the real ones, they are nowhere near the Java IDs
+     */
+    public static int bedrockId(int javaId) {
+        return (javaId * 0x9E3779B1) >>> 12;
+    }
+
+    /**
+     * @return block mappings for the fixture block states
+     */
+    public static BlockMappings blockMappings() {
+        long[] javaBlockData = new long[STATES];
+        for (int i = 0; i < STATES; i++) {
+            javaBlockData[i] = bedrockId(i) & 0xFFFFFFFFL;
+        }
+        javaBlockData[KELP] |= BlockMappings.WATERLOGGED_FLAG;
+        javaBlockData[SEAGRASS] |= BlockMappings.WATERLOGGED_FLAG;
+        javaBlockData[WATERLOGGED_STAIRS] |= BlockMappings.WATERLOGGED_FLAG;
+
+        GeyserBedrockBlock collisionBox = new GeyserBedrockBlock(NbtMap.EMPTY, bedrockId(EXTENDED_COLLISION_BOX));
+        Int2ObjectMap<GeyserBedrockBlock> extendedCollisionBoxes = new Int2ObjectOpenHashMap<>();
+        for (int javaId : new int[] {FENCE, WALL}) {
+            javaBlockData[javaId] |= BlockMappings.EXTENDED_COLLISION_FLAG;
+            extendedCollisionBoxes.put(javaId, collisionBox);
+        }
+
+        return BlockMappings.builder()
+                .bedrockAir(new GeyserBedrockBlock(NbtMap.EMPTY, bedrockId(AIR)))
+                .bedrockWater(new GeyserBedrockBlock(NbtMap.EMPTY, bedrockId(WATER)))
+                .extendedCollisionBoxes(extendedCollisionBoxes)
+                .javaBlockData(javaBlockData)
+                .build();
+    }
+
+    public ChunkSection createSection() {
+        if (this == SINGLETON) {
+            return new ChunkSection(4096, new DataPalette(new SingletonPalette(STONE), null, PaletteType.CHUNK), DataPalette.createForBiome());
+        }
+
+        ChunkSection section = new ChunkSection();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    section.setBlock(x, y, z, stateAt(x, y, z));
+                }
+            }
+        }
+        return section;
+    }
+
+    private int stateAt(int x, int y, int z) {
+        return switch (this) {
+            case SINGLETON -> STONE;
+            case PALETTED -> {
+                // A cave winding through the section from west to east
+                double caveY = 8 + 3 * Math.sin(x / 3.0);
+                double caveZ = 5 + x / 2.0;
+                if (square(y - caveY) + square(z - caveZ) < 6.25) {
+                    yield AIR;
+                }
+                for (int[] blob : BLOBS) {
+                    if (square(x - blob[1]) + square(y - blob[2]) + square(z - blob[3]) <= square(blob[4])) {
+                        yield blob[0];
+                    }
+                }
+                yield STONE;
+            }
+            case WATERLOGGED -> {
+                if (y < 3) {
+                    yield square(x - 11) + square(z - 4) <= 9 ? GRAVEL : SAND;
+                }
+                if (y == 3) {
+                    if (z == 13 && x >= 2 && x < 9) {
+                        // The staircase of a sunken ruin
+                        yield WATERLOGGED_STAIRS;
+                    }
+                    if ((x * 7 + z * 3) % 5 == 0) {
+                        yield SEAGRASS;
+                    }
+                }
+                // Kelp grows in columns of different heights
+                if (x % 4 == 1 && z % 5 == 2 && y < 3 + ((x + z) % 9) + 4) {
+                    yield KELP;
+                }
+                yield WATER;
+            }
+            case EXTENDED_COLLISION -> {
+                if (y < 3) {
+                    yield DIRT;
+                } else if (y == 3) {
+                    yield GRASS;
+                } else if (y == 4) {
+                    if (x == 2 || z == 2 || (x == 9 && z > 2)) {
+                        yield FENCE;
+                    } else if (x == 13) {
+                        yield WALL;
+                    }
+                }
+                yield AIR;
+            }
+            // Every 2x2x2 tile of the build uses a different block state
+            case GLOBAL -> FIRST_BUILD_STATE + (x >> 1) + ((z >> 1) << 3) + ((y >> 1) << 6);
+        };
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+
+    /**
+     * @return the section as it would be found in the chunk data of a level chunk packet
+     */
+    public byte[] createPacketData() {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            HELPER.writeChunkSection(buf, createSection());
+            return ByteBufUtil.getBytes(buf);
+        } finally {
+            buf.release();
+        }
+    }
+
+    public static MinecraftCodecHelper helper() {
+        return HELPER;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import org.geysermc.mcprotocollib.network.Session;
+import org.geysermc.mcprotocollib.network.event.session.DisconnectedEvent;
+import org.geysermc.mcprotocollib.network.event.session.SessionAdapter;
+import org.geysermc.mcprotocollib.network.packet.Packet;
+import org.geysermc.mcprotocollib.network.tcp.TcpClientSession;
+import org.geysermc.mcprotocollib.protocol.ClientListener;
+import org.geysermc.mcprotocollib.protocol.MinecraftProtocol;
+import org.geysermc.mcprotocollib.protocol.data.ProtocolState;
+import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundLevelChunkWithLightPacket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Chunk data recorded from the level chunk packets of a real server, for {@link RecordedChunkBenchmark}.
+ * <p>
+ * To record, join an offline mode server with a bot, which stays until it has received the given number of chunks:
+ * <pre>
+ * java -cp benchmarks/build/libs/benchmarks-jmh.jar org.geysermc.geyser.benchmark.ChunkRecording localhost 25565 400 chunks.bin
+ * </pre>
+ * The server has to run the Java version Geyser supports, so the block state IDs match its registries.
+ * Then benchmark the recording with {@code ./gradlew :benchmarks:jmh -PchunkRecording=chunks.bin}.
+ */
+public final class ChunkRecording {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 4) {
+            System.err.println("Usage: ChunkRecording <host> <port> <chunks> <output file>");
+            System.exit(1);
+        }
+        String host = args[0];
+        int port = Integer.parseInt(args[1]);
+        int chunks = Integer.parseInt(args[2]);
+        Path output = Path.of(args[3]);
+
+        CountDownLatch done = new CountDownLatch(1);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(output)))) {
+            TcpClientSession client = new TcpClientSession(host, port, new MinecraftProtocol("ChunkRecorder"));
+            client.addListener(new ClientListener(ProtocolState.LOGIN, false));
+            client.addListener(new SessionAdapter() {
+                private int recorded;
+
+                @Override
+                public void packetReceived(Session session, Packet packet) {
+                    if (!(packet instanceof ClientboundLevelChunkWithLightPacket chunk) || recorded >= chunks) {
+                        return;
+                    }
+                    try {
+                        out.writeInt(chunk.getX());
+                        out.writeInt(chunk.getZ());
+                        out.writeInt(chunk.getChunkData().length);
+                        out.write(chunk.getChunkData());
+                    } catch (IOException e) {
+                        session.disconnect("Unable to write the recording", e);
+                        return;
+                    }
+                    if (++recorded == chunks) {
+                        session.disconnect("Recorded " + chunks + " chunks");
+                    }
+                }
+
+                @Override
+                public void disconnected(DisconnectedEvent event) {
+                    System.out.println("Disconnected: " + event.getReason());
+                    if (event.getCause() != null) {
+                        event.getCause().printStackTrace();
+                    }
+                    done.countDown();
+                }
+            });
+            client.connect(true, false);
+            done.await();
+        }
+    }
+
+    /**
+     * @return the chunk data of each recorded level chunk packet, in the order they were received
+     */
+    public static List<byte[]> read(Path recording) throws IOException {
+        List<byte[]> chunks = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(recording)))) {
+            while (true) {
+                try {
+                    in.readInt(); // Chunk X
+                } catch (EOFException e) {
+                    return chunks;
+                }
+                in.readInt(); // Chunk Z
+                byte[] chunkData = new byte[in.readInt()];
+                in.readFully(chunkData);
+                chunks.add(chunkData);
+            }
+        }
+    }
+
+    private ChunkRecording() {
+    }
+}
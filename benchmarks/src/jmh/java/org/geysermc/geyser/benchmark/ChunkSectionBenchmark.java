@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.geysermc.geyser.level.chunk.GeyserChunkSection;
+import org.geysermc.geyser.level.chunk.PackedChunkSection;
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.geyser.translator.protocol.java.level.JavaLevelChunkWithLightTranslator;
+import org.geysermc.geyser.translator.protocol.java.level.JavaLevelChunkWithLightTranslator.ExtendedCollisionsStorage;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.ChunkSection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-section work of {@link JavaLevelChunkWithLightTranslator}: reading the Java section from the
+ * packet, converting it to Bedrock block storages in XZY order and writing it to the network.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkSectionBenchmark {
+    @Param({"SINGLETON", "PALETTED", "WATERLOGGED", "EXTENDED_COLLISION", "GLOBAL"})
+    public ChunkFixtures fixture;
+
+    private BlockMappings blockMappings;
+    private ExtendedCollisionsStorage extendedCollisions;
+    private byte[] packetData;
+    private ChunkSection javaSection;
+    private ByteBuf out;
+
+    @Setup
+    public void setup() {
+        blockMappings = ChunkFixtures.blockMappings();
+        // The vanilla block mappings have no extended collision boxes; only custom blocks add them
+        extendedCollisions = fixture == ChunkFixtures.EXTENDED_COLLISION ? new ExtendedCollisionsStorage() : null;
+        packetData = fixture.createPacketData();
+        javaSection = readSection();
+        out = Unpooled.buffer(16384);
+    }
+
+    @TearDown
+    public void tearDown() {
+        out.release();
+    }
+
+    @Benchmark
+    public ChunkSection readSection() {
+        return ChunkFixtures.helper().readChunkSection(Unpooled.wrappedBuffer(packetData));
+    }
+
+    @Benchmark
+    public GeyserChunkSection translateSection() {
+        return translate(javaSection);
+    }
+
+    @Benchmark
+    public int translateAndWriteSection() {
+        out.clear();
+        translate(readSection()).writeToNetwork(out);
+        return out.writerIndex();
+    }
+
+    @Benchmark
+    public PackedChunkSection packSection() {
+        return PackedChunkSection.from(javaSection.getChunkData());
+    }
+
+    private GeyserChunkSection translate(ChunkSection javaSection) {
+        return JavaLevelChunkWithLightTranslator.translateSection(blockMappings, javaSection.getChunkData(), 0, 0,
+                extendedCollisions, yzx -> {
+                });
+    }
+}
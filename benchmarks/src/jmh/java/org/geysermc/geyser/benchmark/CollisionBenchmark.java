@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import org.cloudburstmc.math.vector.Vector3d;
+import org.geysermc.geyser.level.block.Blocks;
+import org.geysermc.geyser.level.block.type.Block;
+import org.geysermc.geyser.level.physics.BoundingBox;
+import org.geysermc.geyser.level.physics.CollisionManager;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.ChunkCache;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.ChunkSection;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CollisionManager#correctMovement}, which runs for every movement packet of a Bedrock player,
+ * against blocks in the session's chunk cache. The world is a grass field with a fence, a wall, a row of
+ * stairs and a few slabs; each scenario moves a player-sized box into a different one of them.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CollisionBenchmark {
+    private static final double PLAYER_STEP_UP = 0.6;
+    private static final int GROUND_Y = 5;
+
+    @Param({"WALKING", "INTO_FENCE", "STEP_UP_STAIRS", "FALLING"})
+    public Scenario scenario;
+
+    private CollisionManager collisionManager;
+    private BoundingBox boundingBox;
+
+    @Setup
+    public void setup() {
+        GeyserSession session = BenchmarkGeyser.createSession();
+        createWorld(session.getChunkCache());
+        collisionManager = session.getCollisionManager();
+        boundingBox = new BoundingBox(scenario.x, scenario.feetY + 0.9, scenario.z, 0.6, 1.8, 0.6);
+    }
+
+    @Benchmark
+    public Vector3d correctMovement() {
+        // The bounding box is moved back after each correction
+        return collisionManager.correctMovement(scenario.movement, boundingBox, scenario.onGround, PLAYER_STEP_UP, true);
+    }
+
+    private static void createWorld(ChunkCache chunkCache) {
+        chunkCache.setMinY(0);
+        chunkCache.setHeightY(32);
+        for (int chunkX = -1; chunkX <= 1; chunkX++) {
+            for (int chunkZ = -1; chunkZ <= 1; chunkZ++) {
+                DataPalette[] sections = new DataPalette[2];
+                for (int sectionY = 0; sectionY < sections.length; sectionY++) {
+                    ChunkSection section = new ChunkSection();
+                    for (int y = 0; y < 16; y++) {
+                        for (int z = 0; z < 16; z++) {
+                            for (int x = 0; x < 16; x++) {
+                                section.setBlock(x, y, z, stateAt((chunkX << 4) + x, (sectionY << 4) + y, (chunkZ << 4) + z));
+                            }
+                        }
+                    }
+                    sections[sectionY] = section.getChunkData();
+                }
+                chunkCache.addToCache(chunkX, chunkZ, sections);
+            }
+        }
+    }
+
+    private static int stateAt(int x, int y, int z) {
+        if (y < GROUND_Y - 1) {
+            return Blocks.STONE.defaultBlockState().javaId();
+        } else if (y == GROUND_Y - 1) {
+            return Blocks.GRASS_BLOCK.defaultBlockState().javaId();
+        } else if (y > GROUND_Y) {
+            return Block.JAVA_AIR_ID;
+        }
+
+        if (x == 5 && z >= -8 && z <= 8) {
+            return Blocks.OAK_FENCE.defaultBlockState().javaId();
+        } else if (x == -6 && z >= -8 && z <= 8) {
+            return Blocks.COBBLESTONE_WALL.defaultBlockState().javaId();
+        } else if (z == 5 && x >= -5 && x <= 0) {
+            return Blocks.OAK_STAIRS.defaultBlockState().javaId();
+        } else if (x >= 2 && x <= 3 && z >= -7 && z <= -6) {
+            return Blocks.OAK_SLAB.defaultBlockState().javaId();
+        }
+        return Block.JAVA_AIR_ID;
+    }
+
+    public enum Scenario {
+        /**
+         * Walking across open ground, only colliding with the floor.
+         */
+        WALKING(0.5, GROUND_Y, -4.5, Vector3d.from(0.2, -0.0784, 0.1), true),
+        /**
+         * Walking into a fence post.
+         */
+        INTO_FENCE(4.9, GROUND_Y, -2.5, Vector3d.from(0.3, -0.0784, 0), true),
+        /**
+         * Walking onto a stair, which the player has to step up on.
+         */
+        STEP_UP_STAIRS(-2.5, GROUND_Y, 4.5, Vector3d.from(0, -0.0784, 0.3), true),
+        /**
+         * Falling onto a slab.
+         */
+        FALLING(2.5, GROUND_Y + 1, -6.5, Vector3d.from(0, -0.8, 0), false);
+
+        private final double x;
+        private final double feetY;
+        private final double z;
+        private final Vector3d movement;
+        private final boolean onGround;
+
+        Scenario(double x, double feetY, double z, Vector3d movement, boolean onGround) {
+            this.x = x;
+            this.feetY = feetY;
+            this.z = z;
+            this.movement = movement;
+            this.onGround = onGround;
+        }
+    }
+}
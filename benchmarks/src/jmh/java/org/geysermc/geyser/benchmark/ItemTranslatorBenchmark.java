@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
+import org.geysermc.geyser.item.Items;
+import org.geysermc.geyser.item.type.Item;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.translator.item.ItemTranslator;
+import org.geysermc.mcprotocollib.protocol.data.game.item.ItemStack;
+import org.geysermc.mcprotocollib.protocol.data.game.item.component.DataComponentType;
+import org.geysermc.mcprotocollib.protocol.data.game.item.component.DataComponents;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ItemTranslator#translateToBedrock}, both the full translation of an item stack and the lookup in
+ * the session's item cache that inventory and equipment updates go through.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ItemTranslatorBenchmark {
+    @Param({"PLAIN", "NAMED_SWORD", "MENU_ICON", "FIREWORK_ROCKET"})
+    public ItemFixture fixture;
+
+    private GeyserSession session;
+    private ItemStack stack;
+
+    @Setup
+    public void setup() {
+        session = BenchmarkGeyser.createSession();
+        stack = fixture.createStack();
+    }
+
+    @Benchmark
+    public ItemData translate() {
+        return ItemTranslator.translateToBedrock(session, stack.getId(), stack.getAmount(), stack.getDataComponents()).build();
+    }
+
+    @Benchmark
+    public ItemData translateCached() {
+        return ItemTranslator.translateToBedrock(session, stack);
+    }
+
+    public enum ItemFixture {
+        /**
+         * A block item without any components, as found in most inventories.
+         */
+        PLAIN(Items.STONE, 64),
+        /**
+         * A worn tool with a custom name and lore, like a quest reward.
+         */
+        NAMED_SWORD(Items.DIAMOND_SWORD, 1),
+        /**
+         * A button of a server menu, with a colored name and several lines of lore.
+         */
+        MENU_ICON(Items.GRAY_STAINED_GLASS_PANE, 1),
+        /**
+         * An item that always needs NBT on Bedrock.
+         */
+        FIREWORK_ROCKET(Items.FIREWORK_ROCKET, 16);
+
+        private final Item item;
+        private final int count;
+
+        ItemFixture(Item item, int count) {
+            this.item = item;
+            this.count = count;
+        }
+
+        ItemStack createStack() {
+            return new ItemStack(item.javaId(), count, createComponents());
+        }
+
+        private @Nullable DataComponents createComponents() {
+            DataComponents components = new DataComponents(new HashMap<>());
+            switch (this) {
+                case NAMED_SWORD -> {
+                    components.put(DataComponentType.CUSTOM_NAME, Component.text("Blade of the Fallen King", NamedTextColor.GOLD));
+                    components.put(DataComponentType.LORE, List.of(
+                            Component.text("Recovered from the throne room.", NamedTextColor.GRAY),
+                            Component.text("Soulbound", NamedTextColor.DARK_PURPLE).decorate(TextDecoration.ITALIC)));
+                    components.put(DataComponentType.DAMAGE, 312);
+                    components.put(DataComponentType.REPAIR_COST, 3);
+                    components.put(DataComponentType.ENCHANTMENT_GLINT_OVERRIDE, true);
+                }
+                case MENU_ICON -> {
+                    components.put(DataComponentType.CUSTOM_NAME, Component.text()
+                            .append(Component.text("» ", NamedTextColor.DARK_GRAY))
+                            .append(Component.text("SkyBlock", NamedTextColor.AQUA, TextDecoration.BOLD))
+                            .build());
+                    components.put(DataComponentType.LORE, List.of(
+                            Component.text("Build your island in the sky.", NamedTextColor.GRAY),
+                            Component.empty(),
+                            Component.text()
+                                    .append(Component.text("Players: ", NamedTextColor.GRAY))
+                                    .append(Component.text("1,204", NamedTextColor.GREEN))
+                                    .build(),
+                            Component.text()
+                                    .append(Component.text("Version: ", NamedTextColor.GRAY))
+                                    .append(Component.text("1.21", NamedTextColor.YELLOW))
+                                    .build(),
+                            Component.empty(),
+                            Component.text("Click to join!", NamedTextColor.YELLOW)));
+                }
+                default -> {
+                    return null;
+                }
+            }
+            return components;
+        }
+    }
+}
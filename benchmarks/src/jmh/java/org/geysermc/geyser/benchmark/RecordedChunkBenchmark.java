@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.registry.BlockRegistries;
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.geyser.translator.protocol.java.level.JavaLevelChunkWithLightTranslator;
+import org.geysermc.geyser.translator.protocol.java.level.JavaLevelChunkWithLightTranslator.ExtendedCollisionsStorage;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.ChunkSection;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the translation of chunks recorded from a real server with {@link ChunkRecording}, using the vanilla block
+ * mappings. Each invocation reads, translates and writes every section of the next recorded chunk.
+ * <p>
+ * The recording is passed with {@code -PchunkRecording=<file>}; without one, this benchmark is left out.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RecordedChunkBenchmark {
+    public static final String RECORDING_PROPERTY = "geyser.benchmark.chunk-recording";
+
+    private BlockMappings blockMappings;
+    private boolean hasExtendedCollisions;
+    private List<byte[]> chunks;
+    private int nextChunk;
+    private ByteBuf out;
+
+    @Setup
+    public void setup() throws IOException {
+        String recording = System.getProperty(RECORDING_PROPERTY);
+        if (recording == null) {
+            throw new IllegalStateException("No chunk recording given; set " + RECORDING_PROPERTY);
+        }
+        chunks = ChunkRecording.read(Path.of(recording));
+        if (chunks.isEmpty()) {
+            throw new IllegalStateException("The chunk recording is empty");
+        }
+
+        BenchmarkGeyser.load();
+        blockMappings = BlockRegistries.BLOCKS.forVersion(GameProtocol.DEFAULT_BEDROCK_CODEC.getProtocolVersion());
+        hasExtendedCollisions = !blockMappings.getExtendedCollisionBoxes().isEmpty();
+        out = Unpooled.buffer(65536);
+    }
+
+    @TearDown
+    public void tearDown() {
+        out.release();
+    }
+
+    @Benchmark
+    public int translateChunk() {
+        byte[] chunkData = chunks.get(nextChunk);
+        nextChunk = (nextChunk + 1) % chunks.size();
+
+        // Nothing is carried over between chunks, as the translator clears its storage before each one
+        ExtendedCollisionsStorage extendedCollisions = hasExtendedCollisions ? new ExtendedCollisionsStorage() : null;
+        out.clear();
+        ByteBuf in = Unpooled.wrappedBuffer(chunkData);
+        for (int sectionY = 0; in.isReadable(); sectionY++) {
+            ChunkSection javaSection = ChunkFixtures.helper().readChunkSection(in);
+            if (javaSection.isBlockCountEmpty()) {
+                continue;
+            }
+            JavaLevelChunkWithLightTranslator.translateSection(blockMappings, javaSection.getChunkData(), sectionY, sectionY,
+                    extendedCollisions, yzx -> {
+                    }).writeToNetwork(out);
+        }
+        return out.writerIndex();
+    }
+}
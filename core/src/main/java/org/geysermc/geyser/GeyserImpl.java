@@ -78,12 +78,14 @@ import org.geysermc.geyser.event.GeyserEventBus;
 import org.geysermc.geyser.extension.GeyserExtensionManager;
 import org.geysermc.geyser.impl.MinecraftVersionImpl;
 import org.geysermc.geyser.level.WorldManager;
+import org.geysermc.geyser.level.chunk.ChunkSectionCache;
+import org.geysermc.geyser.level.chunk.SharedChunkStore;
 import org.geysermc.geyser.network.GameProtocol;
 import org.geysermc.geyser.network.netty.GeyserServer;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
+import org.geysermc.geyser.registry.populator.PopulationStages;
 import org.geysermc.geyser.registry.provider.ProviderSupplier;
-import org.geysermc.geyser.scoreboard.ScoreboardUpdater;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.PendingMicrosoftAuthentication;
 import org.geysermc.geyser.session.SessionManager;
@@ -124,6 +126,7 @@ import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.function.Consumer;
@@ -171,6 +174,21 @@ public class GeyserImpl implements GeyserApi, EventRegistrar {
 
     private UnixSocketClientListener erosionUnixListener;
 
+    /**
+     * Translated chunk sections shared between sessions, or null if disabled in the config
+     */
+    private ChunkSectionCache chunkSectionCache;
+
+    /**
+     * Executor for translating chunks off of session event loops, or null if chunks are translated on the event loop
+     */
+    private ExecutorService chunkTranslationExecutor;
+
+    /**
+     * Chunk sections shared between the chunk caches of sessions, or null if disabled in the config
+     */
+    private SharedChunkStore sharedChunkStore;
+
     @Setter
     private volatile boolean shuttingDown = false;
 
@@ -243,6 +261,7 @@ public class GeyserImpl implements GeyserApi, EventRegistrar {
         /* Initialize registries */
         Registries.init();
         BlockRegistries.init();
+        PopulationStages.logTimings(logger);
 
         RegistryCache.init();
 
@@ -302,7 +321,14 @@ public class GeyserImpl implements GeyserApi, EventRegistrar {
         GeyserLogger logger = bootstrap.getGeyserLogger();
         GeyserConfiguration config = bootstrap.getGeyserConfig();
 
-        ScoreboardUpdater.init();
+        int chunkSectionCacheSize = config.getChunkSectionCacheSize();
+        this.chunkSectionCache = chunkSectionCacheSize > 0 ? new ChunkSectionCache(chunkSectionCacheSize * 1024L * 1024L) : null;
+
+        int chunkTranslationThreads = config.getChunkTranslationThreads();
+        this.chunkTranslationExecutor = chunkTranslationThreads > 0 ?
+                Executors.newFixedThreadPool(chunkTranslationThreads, new DefaultThreadFactory("Geyser Chunk Translation Thread", true)) : null;
+
+        this.sharedChunkStore = config.isShareChunkCache() ? new SharedChunkStore() : null;
 
         SkinProvider.registerCacheImageTask(this);
 
@@ -720,6 +746,7 @@ public class GeyserImpl implements GeyserApi, EventRegistrar {
         }
 
         runIfNonNull(scheduledThread, ScheduledExecutorService::shutdown);
+        runIfNonNull(chunkTranslationExecutor, ExecutorService::shutdown);
         runIfNonNull(geyserServer, GeyserServer::shutdown);
         runIfNonNull(skinUploader, FloodgateSkinUploader::close);
         runIfNonNull(newsHandler, NewsHandler::shutdown);
@@ -170,6 +170,24 @@ public interface GeyserConfiguration {
 
     int getScoreboardPacketThreshold();
 
+    int getChunkSectionCacheSize();
+
+    int getChunkTranslationThreads();
+
+    boolean isShareChunkCache();
+
+    boolean isSubChunkRequests();
+
+    boolean isClientBlobCache();
+
+    boolean isCoalesceEntityMovement();
+
+    int getEntityMovementThrottleDistance();
+
+    boolean isErosionBlockMirror();
+
+    int getViewDistanceBudget();
+
     // if u have offline mode enabled pls be safe
     boolean isEnableProxyConnections();
 
@@ -326,6 +326,33 @@ public abstract class GeyserJacksonConfiguration implements GeyserConfiguration
     @JsonProperty("scoreboard-packet-threshold")
     private int scoreboardPacketThreshold = 10;
 
+    @JsonProperty("chunk-section-cache-size")
+    private int chunkSectionCacheSize = 0;
+
+    @JsonProperty("chunk-translation-threads")
+    private int chunkTranslationThreads = 0;
+
+    @JsonProperty("share-chunk-cache")
+    private boolean shareChunkCache = false;
+
+    @JsonProperty("sub-chunk-requests")
+    private boolean subChunkRequests = false;
+
+    @JsonProperty("client-blob-cache")
+    private boolean clientBlobCache = false;
+
+    @JsonProperty("coalesce-entity-movement")
+    private boolean coalesceEntityMovement = false;
+
+    @JsonProperty("entity-movement-throttle-distance")
+    private int entityMovementThrottleDistance = 0;
+
+    @JsonProperty("erosion-block-mirror")
+    private boolean erosionBlockMirror = false;
+
+    @JsonProperty("view-distance-budget")
+    private int viewDistanceBudget = 0;
+
     @JsonProperty("enable-proxy-connections")
     private boolean enableProxyConnections = false;
 
@@ -40,12 +40,23 @@ import org.geysermc.floodgate.util.FloodgateInfoHolder;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.GeyserApi;
 import org.geysermc.geyser.api.extension.Extension;
+import org.geysermc.geyser.api.pack.ResourcePack;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
+import org.geysermc.geyser.inventory.updater.InventoryUpdater;
+import org.geysermc.geyser.level.GeyserWorldManager;
+import org.geysermc.geyser.level.chunk.ChunkSectionCache;
+import org.geysermc.geyser.level.chunk.SharedChunkStore;
 import org.geysermc.geyser.network.GameProtocol;
+import org.geysermc.geyser.network.GeyserBedrockPeer;
+import org.geysermc.geyser.pack.path.GeyserPathPackCodec;
+import org.geysermc.geyser.registry.Registries;
+import org.geysermc.geyser.scoreboard.Scoreboard;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.skin.SkinStore;
 import org.geysermc.geyser.text.AsteriskSerializer;
 import org.geysermc.geyser.util.CpuUtils;
 import org.geysermc.geyser.util.FileUtils;
+import org.geysermc.geyser.util.LatencyHistogram;
 import org.geysermc.geyser.util.WebUtils;
 
 import java.io.File;
@@ -80,6 +91,7 @@ public class DumpInfo {
     private final BootstrapDumpInfo bootstrapInfo;
     private final FlagsInfo flagsInfo;
     private final List<ExtensionInfo> extensionInfo;
+    private final PerformanceInfo performanceInfo;
 
     public DumpInfo(boolean addLog) {
         this.versionInfo = new VersionInfo();
@@ -135,6 +147,8 @@ public class DumpInfo {
         for (Extension extension : GeyserApi.api().extensionManager().extensions()) {
             this.extensionInfo.add(new ExtensionInfo(extension.isEnabled(), extension.name(), extension.description().version(), extension.description().apiVersion(), extension.description().main(), extension.description().authors()));
         }
+
+        this.performanceInfo = new PerformanceInfo();
     }
 
     @Getter
@@ -256,6 +270,110 @@ public class DumpInfo {
         }
     }
 
+    @Getter
+    public static class PerformanceInfo {
+        private final ChunkSectionCache.Stats chunkSectionCache;
+        /**
+         * Estimated heap usage of each session's chunk cache in bytes, largest first
+         */
+        private final List<Long> chunkCacheSizes;
+        private final SharedChunkStore.Stats sharedChunkStore;
+        /**
+         * Chunk blobs that clients already had stored, and ones that had to be sent, over all current sessions
+         */
+        private long clientBlobCacheHits;
+        private long clientBlobCacheMisses;
+        /**
+         * Item stacks that were already translated, and ones that had to be translated, over all current sessions
+         */
+        private long itemDataCacheHits;
+        private long itemDataCacheMisses;
+        /**
+         * Container slots that weren't sent to Bedrock clients because they didn't change
+         */
+        private final long skippedInventorySlots;
+        /**
+         * The average amount of packets in each batch sent to Bedrock clients, over all current sessions
+         */
+        private final double upstreamPacketsPerBatch;
+        /**
+         * Entity movement updates merged into a later update in the same tick, and ones delayed because the entity
+         * was far away, over all current sessions
+         */
+        private long coalescedEntityMovements;
+        private long throttledEntityMovements;
+        /**
+         * Round trips of block lookups sent to the backend server through Erosion, if it is used
+         */
+        private final LatencyHistogram.Snapshot erosionLookupLatency;
+        /**
+         * The average amount of scores added or removed per scoreboard update, for each session
+         */
+        private final List<Double> scoreboardChangesPerUpdate;
+        private final SkinStore.Stats skinStore;
+        /**
+         * The view distance of each session whose view distance is currently lowered, and how often view distances
+         * were lowered over all current sessions
+         */
+        private final List<Integer> limitedViewDistances;
+        private long viewDistanceReductions;
+        /**
+         * Bytes of each resource pack sent to clients, by pack name
+         */
+        private final Map<String, Long> resourcePackBytesServed;
+
+        PerformanceInfo() {
+            ChunkSectionCache sectionCache = GeyserImpl.getInstance().getChunkSectionCache();
+            this.chunkSectionCache = sectionCache == null ? null : sectionCache.stats();
+
+            this.chunkCacheSizes = new ArrayList<>();
+            this.scoreboardChangesPerUpdate = new ArrayList<>();
+            this.limitedViewDistances = new ArrayList<>();
+            long batches = 0;
+            long packets = 0;
+            for (GeyserSession session : GeyserImpl.getInstance().getSessionManager().getAllSessions()) {
+                chunkCacheSizes.add(session.getChunkCache().getEstimatedHeapSize());
+                clientBlobCacheHits += session.getChunkBlobCache().getHits();
+                clientBlobCacheMisses += session.getChunkBlobCache().getMisses();
+                itemDataCacheHits += session.getItemDataCache().getHits();
+                itemDataCacheMisses += session.getItemDataCache().getMisses();
+                coalescedEntityMovements += session.getEntityCache().getCoalescedMovements();
+                throttledEntityMovements += session.getEntityCache().getThrottledMovements();
+                viewDistanceReductions += session.getViewDistanceGovernor().getReductions();
+                if (session.getViewDistanceGovernor().getLimit() != -1) {
+                    limitedViewDistances.add(session.getViewDistanceGovernor().getLimit());
+                }
+
+                Scoreboard scoreboard = session.getWorldCache().getScoreboard();
+                if (scoreboard.getUpdates() > 0) {
+                    scoreboardChangesPerUpdate.add((double) scoreboard.getTotalScoreChanges() / scoreboard.getUpdates());
+                }
+
+                GeyserBedrockPeer peer = (GeyserBedrockPeer) session.getUpstream().getSession().getPeer();
+                batches += peer.getBatchesSent();
+                packets += peer.getPacketsSent();
+            }
+            chunkCacheSizes.sort(Comparator.reverseOrder());
+            scoreboardChangesPerUpdate.sort(Comparator.reverseOrder());
+            this.upstreamPacketsPerBatch = batches == 0 ? 0 : (double) packets / batches;
+            this.skippedInventorySlots = InventoryUpdater.getSkippedSlots();
+
+            this.erosionLookupLatency = GeyserImpl.getInstance().getWorldManager() instanceof GeyserWorldManager worldManager
+                    ? worldManager.getErosionLookupLatency().snapshot() : null;
+            this.skinStore = SkinStore.get().stats();
+
+            this.resourcePackBytesServed = new HashMap<>();
+            for (ResourcePack pack : Registries.RESOURCE_PACKS.get().values()) {
+                if (pack.codec() instanceof GeyserPathPackCodec codec) {
+                    resourcePackBytesServed.put(pack.manifest().header().name(), codec.bytesServed());
+                }
+            }
+
+            SharedChunkStore sharedStore = GeyserImpl.getInstance().getSharedChunkStore();
+            this.sharedChunkStore = sharedStore == null ? null : sharedStore.stats();
+        }
+    }
+
     public record HashInfo(String md5Hash, String sha256Hash) {
     }
 
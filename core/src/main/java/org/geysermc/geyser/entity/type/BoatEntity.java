@@ -81,6 +81,7 @@ public class BoatEntity extends Entity implements Leashable, Tickable {
 
     @Override
     public void moveAbsolute(Vector3f position, float yaw, float pitch, float headYaw, boolean isOnGround, boolean teleported) {
+        flushPendingMovement();
         // We don't include the rotation (y) as it causes the boat to appear sideways
         setPosition(position.add(0d, this.definition.offset(), 0d));
         setYaw(yaw + 90);
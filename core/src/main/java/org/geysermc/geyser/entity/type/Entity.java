@@ -224,39 +224,63 @@ public class Entity implements GeyserEntity {
     }
 
     public void moveRelative(double relX, double relY, double relZ, float yaw, float pitch, float headYaw, boolean isOnGround) {
+        Vector3f lastPosition = position;
+        float lastYaw = this.yaw;
+        float lastPitch = this.pitch;
+        float lastHeadYaw = this.headYaw;
+        // Let the entity cache combine this with other movement of this entity in the same tick
+        boolean deferred = session.getEntityCache().deferMovement(this);
+
         position = Vector3f.from(position.getX() + relX, position.getY() + relY, position.getZ() + relZ);
+        this.yaw = yaw;
+        this.pitch = pitch;
+        this.headYaw = headYaw;
+        setOnGround(isOnGround);
+
+        if (!deferred) {
+            sendMovementDelta(lastPosition, lastYaw, lastPitch, lastHeadYaw);
+        }
+    }
 
+    /**
+     * Sends the relative movement of this entity that the entity cache is still holding back. Must be called before
+     * anything else about this entity is sent, like absolute movement or metadata, so the client receives it in order.
+     */
+    protected void flushPendingMovement() {
+        session.getEntityCache().flushMovement(this);
+    }
+
+    /**
+     * Sends the movement of this entity since the given position and rotation to the client.
+     */
+    public void sendMovementDelta(Vector3f lastPosition, float lastYaw, float lastPitch, float lastHeadYaw) {
         MoveEntityDeltaPacket moveEntityPacket = new MoveEntityDeltaPacket();
         moveEntityPacket.setRuntimeEntityId(geyserId);
-        if (relX != 0.0) {
+        if (position.getX() != lastPosition.getX()) {
             moveEntityPacket.setX(position.getX());
             moveEntityPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_X);
         }
-        if (relY != 0.0) {
+        if (position.getY() != lastPosition.getY()) {
             moveEntityPacket.setY(position.getY());
             moveEntityPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_Y);
         }
-        if (relZ != 0.0) {
+        if (position.getZ() != lastPosition.getZ()) {
             moveEntityPacket.setZ(position.getZ());
             moveEntityPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_Z);
         }
-        if (pitch != this.pitch) {
-            this.pitch = pitch;
+        if (pitch != lastPitch) {
             moveEntityPacket.setPitch(pitch);
             moveEntityPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_PITCH);
         }
-        if (yaw != this.yaw) {
-            this.yaw = yaw;
+        if (yaw != lastYaw) {
             moveEntityPacket.setYaw(yaw);
             moveEntityPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_YAW);
         }
-        if (headYaw != this.headYaw) {
-            this.headYaw = headYaw;
+        if (headYaw != lastHeadYaw) {
             moveEntityPacket.setHeadYaw(headYaw);
             moveEntityPacket.getFlags().add(MoveEntityDeltaPacket.Flag.HAS_HEAD_YAW);
         }
-        setOnGround(isOnGround);
-        if (isOnGround) {
+        if (onGround) {
             moveEntityPacket.getFlags().add(MoveEntityDeltaPacket.Flag.ON_GROUND);
         }
         session.sendUpstreamPacket(moveEntityPacket);
@@ -267,6 +291,7 @@ public class Entity implements GeyserEntity {
     }
 
     public void moveAbsolute(Vector3f position, float yaw, float pitch, float headYaw, boolean isOnGround, boolean teleported) {
+        flushPendingMovement();
         setPosition(position);
         // Setters are intentional so it can be overridden in places like AbstractArrowEntity
         setYaw(yaw);
@@ -347,6 +372,7 @@ public class Entity implements GeyserEntity {
         }
 
         if (dirtyMetadata.hasEntries() || flagsDirty) {
+            flushPendingMovement();
             SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
             entityDataPacket.setRuntimeEntityId(geyserId);
             if (flagsDirty) {
@@ -367,6 +393,7 @@ public class Entity implements GeyserEntity {
         }
 
         if (propertyManager != null && propertyManager.hasProperties()) {
+            flushPendingMovement();
             SetEntityDataPacket entityDataPacket = new SetEntityDataPacket();
             entityDataPacket.setRuntimeEntityId(geyserId);
             propertyManager.applyIntProperties(entityDataPacket.getProperties().getIntProperties());
@@ -41,12 +41,14 @@ import org.geysermc.mcprotocollib.protocol.data.game.entity.metadata.EntityMetad
 import org.geysermc.mcprotocollib.protocol.data.game.item.ItemStack;
 
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 public class ItemEntity extends ThrowableEntity {
     protected ItemData item;
 
-    private CompletableFuture<Integer> waterLevel = CompletableFuture.completedFuture(-1);
+    /**
+     * The water level at the item's position, updated whenever the block lookup for its latest position completes
+     */
+    private volatile int waterLevel = -1;
 
     public ItemEntity(GeyserSession session, int entityId, long geyserId, UUID uuid, GeyserEntityDefinition<?> definition, Vector3f position, Vector3f motion, float yaw, float pitch, float headYaw) {
         super(session, entityId, geyserId, uuid, definition, position, motion, yaw, pitch, headYaw);
@@ -113,15 +115,15 @@ public class ItemEntity extends ThrowableEntity {
     @Override
     protected void moveAbsoluteImmediate(Vector3f position, float yaw, float pitch, float headYaw, boolean isOnGround, boolean teleported) {
         float offset = definition.offset();
-        if (waterLevel.join() == 0) { // Item is in a full block of water
+        if (waterLevel == 0) { // Item is in a full block of water
             // Move the item entity down so it doesn't float above the water
             offset = -definition.offset();
         }
         super.moveAbsoluteImmediate(position.add(0, offset, 0), 0, 0, 0, isOnGround, teleported);
         this.position = position;
 
-        waterLevel = session.getGeyser().getWorldManager().getBlockAtAsync(session, position.getFloorX(), position.getFloorY(), position.getFloorZ())
-                .thenApply(BlockStateValues::getWaterLevel);
+        session.getGeyser().getWorldManager().getBlockAtAsync(session, position.getFloorX(), position.getFloorY(), position.getFloorZ())
+                .thenAccept(blockId -> waterLevel = BlockStateValues.getWaterLevel(blockId));
     }
 
     @Override
@@ -146,6 +148,6 @@ public class ItemEntity extends ThrowableEntity {
 
     @Override
     protected boolean isInWater() {
-        return waterLevel.join() != -1;
+        return waterLevel != -1;
     }
 }
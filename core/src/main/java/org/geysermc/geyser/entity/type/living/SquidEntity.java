@@ -34,13 +34,15 @@ import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.session.GeyserSession;
 
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 public class SquidEntity extends WaterEntity implements Tickable {
     private float targetPitch;
     private float targetYaw;
 
-    private CompletableFuture<Boolean> inWater = CompletableFuture.completedFuture(Boolean.FALSE);
+    /**
+     * Updated whenever the block lookup for the squid's latest position completes
+     */
+    private volatile boolean inWater;
 
     public SquidEntity(GeyserSession session, int entityId, long geyserId, UUID uuid, GeyserEntityDefinition<?> definition, Vector3f position, Vector3f motion, float yaw, float pitch, float headYaw) {
         super(session, entityId, geyserId, uuid, definition, position, motion, yaw, pitch, headYaw);
@@ -51,7 +53,7 @@ public class SquidEntity extends WaterEntity implements Tickable {
         boolean pitchChanged;
         boolean yawChanged;
         float oldPitch = pitch;
-        if (inWater.join()) {
+        if (inWater) {
             float oldYaw = yaw;
             pitch += (targetPitch - pitch) * 0.1f;
             yaw += (targetYaw - yaw) * 0.1f;
@@ -94,7 +96,7 @@ public class SquidEntity extends WaterEntity implements Tickable {
     @Override
     public void setYaw(float yaw) {
         // Let the Java server control yaw when the squid is out of water
-        if (!inWater.join()) {
+        if (!inWater) {
             this.yaw = yaw;
         }
     }
@@ -128,10 +130,10 @@ public class SquidEntity extends WaterEntity implements Tickable {
 
     private void checkInWater() {
         if (getFlag(EntityFlag.RIDING)) {
-            inWater = CompletableFuture.completedFuture(false);
+            inWater = false;
         } else {
-            inWater = session.getGeyser().getWorldManager().getBlockAtAsync(session, position.toInt())
-                    .thenApply(block -> BlockStateValues.getWaterLevel(block) != -1);
+            session.getGeyser().getWorldManager().getBlockAtAsync(session, position.toInt())
+                    .thenAccept(block -> inWater = BlockStateValues.getWaterLevel(block) != -1);
         }
     }
 }
@@ -119,6 +119,7 @@ public class VillagerEntity extends AbstractMerchantEntity {
             return;
         }
         
+        flushPendingMovement();
         // The bed block
         BlockState state = session.getGeyser().getWorldManager().blockAt(session, bedPosition);
 
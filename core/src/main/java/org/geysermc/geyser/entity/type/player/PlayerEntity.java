@@ -211,6 +211,7 @@ public class PlayerEntity extends LivingEntity implements GeyserPlayerEntity {
 
     @Override
     public void moveAbsolute(Vector3f position, float yaw, float pitch, float headYaw, boolean isOnGround, boolean teleported) {
+        flushPendingMovement();
         setPosition(position);
         setYaw(yaw);
         setPitch(pitch);
@@ -246,6 +247,7 @@ public class PlayerEntity extends LivingEntity implements GeyserPlayerEntity {
 
     @Override
     public void moveRelative(double relX, double relY, double relZ, float yaw, float pitch, float headYaw, boolean isOnGround) {
+        flushPendingMovement();
         setYaw(yaw);
         setPitch(pitch);
         setHeadYaw(headYaw);
@@ -28,21 +28,21 @@ package org.geysermc.geyser.erosion;
 import io.netty.channel.Channel;
 import it.unimi.dsi.fastutil.Pair;
 import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
-import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
-import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectArrayMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
-import lombok.Getter;
-import lombok.Setter;
 import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.nbt.NbtMap;
 import org.cloudburstmc.protocol.bedrock.data.SoundEvent;
 import org.cloudburstmc.protocol.bedrock.packet.LevelSoundEventPacket;
 import org.geysermc.erosion.packet.ErosionPacketHandler;
 import org.geysermc.erosion.packet.ErosionPacketSender;
+import org.geysermc.erosion.packet.backendbound.BackendboundBatchBlockRequestPacket;
+import org.geysermc.erosion.packet.backendbound.BackendboundBlockRequestPacket;
 import org.geysermc.erosion.packet.backendbound.BackendboundInitializePacket;
 import org.geysermc.erosion.packet.backendbound.BackendboundPacket;
+import org.geysermc.erosion.packet.backendbound.BackendboundPickBlockPacket;
 import org.geysermc.erosion.packet.geyserbound.*;
+import org.geysermc.erosion.util.BlockPositionIterator;
 import org.geysermc.geyser.level.block.BlockStateValues;
 import org.geysermc.geyser.level.block.property.Properties;
 import org.geysermc.geyser.level.block.type.Block;
@@ -55,21 +55,19 @@ import org.geysermc.geyser.translator.level.block.entity.PistonBlockEntity;
 import org.geysermc.geyser.util.BlockEntityUtils;
 import org.geysermc.mcprotocollib.protocol.data.game.level.block.value.PistonValueType;
 
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacketHandler {
     private final ErosionPacketSender<BackendboundPacket> packetSender;
-    @Setter
-    private CompletableFuture<Integer> pendingLookup = null;
-    @Getter
-    private final Int2ObjectMap<CompletableFuture<Integer>> asyncPendingLookups = Int2ObjectMaps.synchronize(new Int2ObjectOpenHashMap<>(4));
-    @Setter
-    private CompletableFuture<int[]> pendingBatchLookup = null;
-    @Setter
-    private CompletableFuture<Int2ObjectMap<byte[]>> pickBlockLookup = null;
-
-    private final AtomicInteger nextTransactionId = new AtomicInteger(1);
+    private final TransactionTable<CompletableFuture<Integer>> pendingLookups = new TransactionTable<>();
+    /**
+     * Batch and pick block responses carry no transaction ID; the backend answers them in the order they were sent.
+     */
+    private final Queue<CompletableFuture<int[]>> pendingBatchLookups = new ConcurrentLinkedQueue<>();
+    private final Queue<CompletableFuture<Int2ObjectMap<byte[]>>> pickBlockLookups = new ConcurrentLinkedQueue<>();
+    private final InFlightBlockLookups inFlightLookups = new InFlightBlockLookups(this::lookupBlock);
 
     public GeyserboundPacketHandlerImpl(GeyserSession session, ErosionPacketSender<BackendboundPacket> packetSender) {
         super(session);
@@ -78,8 +76,9 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
 
     @Override
     public void handleBatchBlockId(GeyserboundBatchBlockIdPacket packet) {
-        if (this.pendingBatchLookup != null) {
-            this.pendingBatchLookup.complete(packet.getBlocks());
+        CompletableFuture<int[]> future = this.pendingBatchLookups.poll();
+        if (future != null) {
+            future.complete(packet.getBlocks());
         } else {
             session.getGeyser().getLogger().warning("Batch block ID packet received with no future to complete.");
         }
@@ -93,13 +92,7 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
 
     @Override
     public void handleBlockId(GeyserboundBlockIdPacket packet) {
-        if (packet.getTransactionId() == 0) {
-            if (this.pendingLookup != null) {
-                this.pendingLookup.complete(packet.getBlockId());
-                return;
-            }
-        }
-        CompletableFuture<Integer> future = this.asyncPendingLookups.remove(packet.getTransactionId());
+        CompletableFuture<Integer> future = this.pendingLookups.remove(packet.getTransactionId());
         if (future != null) {
             future.complete(packet.getBlockId());
             return;
@@ -110,18 +103,14 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
     @Override
     public void handleBlockLookupFail(GeyserboundBlockLookupFailPacket packet) {
         if (packet.getTransactionId() == 0) {
-            if (this.pendingBatchLookup != null) {
-                this.pendingBatchLookup.complete(null);
+            CompletableFuture<int[]> batchFuture = this.pendingBatchLookups.poll();
+            if (batchFuture != null) {
+                batchFuture.complete(null);
                 return;
             }
         }
-        int transactionId = packet.getTransactionId() - 1;
-        if (transactionId == 0) {
-            if (this.pendingLookup != null) {
-                this.pendingLookup.complete(0);
-            }
-        }
-        CompletableFuture<Integer> future = this.asyncPendingLookups.remove(transactionId);
+        int transactionId = TransactionTable.fromFailedTransactionId(packet.getTransactionId());
+        CompletableFuture<Integer> future = this.pendingLookups.remove(transactionId);
         if (future != null) {
             future.complete(Block.JAVA_AIR_ID);
         }
@@ -142,8 +131,9 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
 
     @Override
     public void handlePickBlock(GeyserboundPickBlockPacket packet) {
-        if (this.pickBlockLookup != null) {
-            this.pickBlockLookup.complete(packet.getComponents());
+        CompletableFuture<Int2ObjectMap<byte[]>> future = this.pickBlockLookups.poll();
+        if (future != null) {
+            future.complete(packet.getComponents());
         }
     }
 
@@ -192,6 +182,39 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
         sendPacket(new BackendboundInitializePacket(session.getPlayerEntity().getUuid(), GameProtocol.getJavaProtocolVersion()));
     }
 
+    /**
+     * Sends a lookup for a single block right away. Any number of these can be in flight at once.
+     */
+    public CompletableFuture<Integer> lookupBlock(Vector3i position) {
+        CompletableFuture<Integer> future = new CompletableFuture<>(); // Boxes
+        int transactionId = getNextTransactionId();
+        this.pendingLookups.put(transactionId, future);
+        sendPacket(new BackendboundBlockRequestPacket(transactionId, position));
+        return future;
+    }
+
+    /**
+     * Looks up a block, sharing the answer with any lookup for the same block that is still in flight.
+     * The lookup is sent right away, so the returned future can be waited on from the session's event loop.
+     */
+    public CompletableFuture<Integer> queueBlockLookup(Vector3i position) {
+        return this.inFlightLookups.lookup(position);
+    }
+
+    public CompletableFuture<int[]> lookupBlocks(BlockPositionIterator iter) {
+        CompletableFuture<int[]> future = new CompletableFuture<>();
+        this.pendingBatchLookups.add(future);
+        sendPacket(new BackendboundBatchBlockRequestPacket(iter));
+        return future;
+    }
+
+    public CompletableFuture<Int2ObjectMap<byte[]>> lookupPickBlock(Vector3i position) {
+        CompletableFuture<Int2ObjectMap<byte[]>> future = new CompletableFuture<>();
+        this.pickBlockLookups.add(future);
+        sendPacket(new BackendboundPickBlockPacket(position));
+        return future;
+    }
+
     public void sendPacket(BackendboundPacket packet) {
         this.packetSender.sendPacket(packet);
     }
@@ -201,7 +224,7 @@ public final class GeyserboundPacketHandlerImpl extends AbstractGeyserboundPacke
     }
 
     public int getNextTransactionId() {
-        return nextTransactionId.getAndIncrement();
+        return this.pendingLookups.nextTransactionId();
     }
 
     @Override
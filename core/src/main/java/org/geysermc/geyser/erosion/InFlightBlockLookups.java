@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.erosion;
+
+import org.cloudburstmc.math.vector.Vector3i;
+import org.geysermc.geyser.level.block.type.Block;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Sends block lookups to the backend right away, but shares the result between lookups for a block that is
+ * already on its way. Lookups are never held back, so any caller can safely wait on the returned future.
+ */
+final class InFlightBlockLookups {
+    private final Map<Vector3i, CompletableFuture<Integer>> lookups = new ConcurrentHashMap<>();
+    private final Function<Vector3i, CompletableFuture<Integer>> sender;
+
+    InFlightBlockLookups(Function<Vector3i, CompletableFuture<Integer>> sender) {
+        this.sender = sender;
+    }
+
+    CompletableFuture<Integer> lookup(Vector3i position) {
+        CompletableFuture<Integer> existing = this.lookups.get(position);
+        if (existing != null) {
+            return existing;
+        }
+        CompletableFuture<Integer> future = new CompletableFuture<>(); // Boxes
+        existing = this.lookups.putIfAbsent(position, future);
+        if (existing != null) {
+            return existing;
+        }
+        this.sender.apply(position).whenComplete((blockId, throwable) -> {
+            this.lookups.remove(position, future);
+            future.complete(throwable == null ? blockId : Block.JAVA_AIR_ID);
+        });
+        return future;
+    }
+
+    int size() {
+        return this.lookups.size();
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.erosion;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Maps in-flight Erosion transaction IDs to whatever is waiting on them. Transaction IDs are handed out in order,
+ * so each one gets its own slot in a ring until more than {@link #SLOTS} are in flight; only then do entries
+ * spill over into a map.
+ */
+final class TransactionTable<T> {
+    static final int SLOTS = 1024;
+    private static final int MASK = SLOTS - 1;
+
+    private final AtomicReferenceArray<Entry<T>> slots = new AtomicReferenceArray<>(SLOTS);
+    private final Map<Integer, T> overflow = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTransactionId;
+
+    TransactionTable() {
+        this(1);
+    }
+
+    TransactionTable(int firstTransactionId) {
+        this.nextTransactionId = new AtomicInteger(firstTransactionId);
+    }
+
+    /**
+     * Transaction IDs are kept positive, as the backend reports a failed lookup with its transaction ID plus one
+     * and uses zero for a failed batch lookup.
+     */
+    int nextTransactionId() {
+        return nextTransactionId.getAndUpdate(id -> id == Integer.MAX_VALUE ? 1 : id + 1);
+    }
+
+    void put(int transactionId, T value) {
+        if (!slots.compareAndSet(transactionId & MASK, null, new Entry<>(transactionId, value))) {
+            overflow.put(transactionId, value);
+        }
+    }
+
+    @Nullable
+    T remove(int transactionId) {
+        int slot = transactionId & MASK;
+        Entry<T> entry = slots.get(slot);
+        if (entry != null && entry.transactionId == transactionId && slots.compareAndSet(slot, entry, null)) {
+            return entry.value;
+        }
+        return overflow.isEmpty() ? null : overflow.remove(transactionId);
+    }
+
+    /**
+     * @param failedTransactionId the transaction ID of a {@code GeyserboundBlockLookupFailPacket}
+     * @return the transaction ID of the lookup that failed
+     */
+    static int fromFailedTransactionId(int failedTransactionId) {
+        return failedTransactionId - 1;
+    }
+
+    private record Entry<T>(int transactionId, T value) {
+    }
+}
@@ -29,8 +29,10 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.ToString;
 import org.checkerframework.checker.nullness.qual.NonNull;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.protocol.bedrock.data.definitions.ItemDefinition;
+import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.item.Items;
 import org.geysermc.geyser.session.GeyserSession;
@@ -93,6 +95,15 @@ public abstract class Inventory {
     @Setter
     private boolean displayed = false;
 
+    /**
+     * The items last sent to the Bedrock container of this inventory by slot, or null if the contents of the Bedrock
+     * container are not known. See {@link org.geysermc.geyser.inventory.updater.InventoryUpdater#sendContainerContents}.
+     */
+    @Getter
+    @Setter
+    @ToString.Exclude
+    private ItemData @Nullable [] lastSentItems;
+
     protected Inventory(int id, int size, ContainerType containerType) {
         this("Inventory", id, size, containerType);
     }
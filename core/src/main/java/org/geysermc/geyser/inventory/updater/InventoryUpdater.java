@@ -25,6 +25,9 @@
 
 package org.geysermc.geyser.inventory.updater;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.protocol.bedrock.data.inventory.ContainerId;
 import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
 import org.cloudburstmc.protocol.bedrock.packet.InventoryContentPacket;
@@ -34,8 +37,17 @@ import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.translator.inventory.InventoryTranslator;
 
 import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
 
 public class InventoryUpdater {
+    /**
+     * If more container slots than this changed, the whole container is sent again instead of each slot
+     */
+    private static final int MAX_SLOT_UPDATES = 9;
+
+    private static final LongAdder SKIPPED_SLOTS = new LongAdder();
+
     public void updateInventory(InventoryTranslator translator, GeyserSession session, Inventory inventory) {
         ItemData[] bedrockItems = new ItemData[36];
         for (int i = 0; i < 36; i++) {
@@ -59,4 +71,81 @@ public class InventoryUpdater {
         }
         return false;
     }
+
+    /**
+     * Sends the contents of the Bedrock container of this inventory. If the client already has the container contents
+     * from an earlier update, only the slots that changed since then are sent, unless there are too many of them.
+     */
+    protected static void sendContainerContents(GeyserSession session, Inventory inventory, ItemData[] bedrockItems) {
+        IntList changedSlots = changedSlots(inventory.getLastSentItems(), bedrockItems);
+        if (changedSlots != null) {
+            ItemData[] lastSentItems = inventory.getLastSentItems();
+            for (int i = 0; i < changedSlots.size(); i++) {
+                int slot = changedSlots.getInt(i);
+                InventorySlotPacket slotPacket = new InventorySlotPacket();
+                slotPacket.setContainerId(inventory.getBedrockId());
+                slotPacket.setSlot(slot);
+                slotPacket.setItem(bedrockItems[slot]);
+                session.sendUpstreamPacket(slotPacket);
+                lastSentItems[slot] = bedrockItems[slot];
+            }
+            SKIPPED_SLOTS.add(bedrockItems.length - changedSlots.size());
+            return;
+        }
+
+        InventoryContentPacket contentPacket = new InventoryContentPacket();
+        contentPacket.setContainerId(inventory.getBedrockId());
+        contentPacket.setContents(Arrays.asList(bedrockItems));
+        session.sendUpstreamPacket(contentPacket);
+        // Until the inventory is displayed, the client may not have the container open to receive its contents
+        inventory.setLastSentItems(inventory.isDisplayed() ? bedrockItems.clone() : null);
+    }
+
+    /**
+     * @return the container slots that differ from what was last sent, or null if the whole container has to be sent
+     */
+    static @Nullable IntList changedSlots(ItemData @Nullable [] lastSentItems, ItemData[] bedrockItems) {
+        if (lastSentItems == null || lastSentItems.length != bedrockItems.length) {
+            return null;
+        }
+
+        IntList changedSlots = new IntArrayList();
+        for (int i = 0; i < bedrockItems.length; i++) {
+            if (!isSameItem(lastSentItems[i], bedrockItems[i])) {
+                if (changedSlots.size() == MAX_SLOT_UPDATES) {
+                    return null;
+                }
+                changedSlots.add(i);
+            }
+        }
+        return changedSlots;
+    }
+
+    /**
+     * Remembers an item sent to a single slot of the Bedrock container of this inventory. A null item marks the slot
+     * as unknown, so it is sent again on the next update.
+     */
+    public static void setLastSentItem(Inventory inventory, int bedrockSlot, ItemData item) {
+        ItemData[] lastSentItems = inventory.getLastSentItems();
+        if (lastSentItems != null && bedrockSlot >= 0 && bedrockSlot < lastSentItems.length) {
+            lastSentItems[bedrockSlot] = item;
+        }
+    }
+
+    /**
+     * @return the amount of container slots that were not sent because they didn't change
+     */
+    public static long getSkippedSlots() {
+        return SKIPPED_SLOTS.sum();
+    }
+
+    private static boolean isSameItem(@Nullable ItemData previous, ItemData item) {
+        if (previous == item) {
+            return true;
+        }
+        // Net IDs are used by the client to refer to items in item stack requests, so they need to match too
+        return previous != null && previous.getNetId() == item.getNetId()
+                && Objects.equals(previous.getBlockDefinition(), item.getBlockDefinition())
+                && previous.equals(item, true, true, true);
+    }
 }
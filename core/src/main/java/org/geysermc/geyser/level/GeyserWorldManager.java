@@ -25,17 +25,16 @@
 
 package org.geysermc.geyser.level;
 
-import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import lombok.Getter;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.math.vector.Vector3i;
-import org.geysermc.erosion.packet.backendbound.BackendboundBatchBlockRequestPacket;
-import org.geysermc.erosion.packet.backendbound.BackendboundBlockRequestPacket;
-import org.geysermc.erosion.packet.backendbound.BackendboundPickBlockPacket;
 import org.geysermc.erosion.util.BlockPositionIterator;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.ChunkCache;
+import org.geysermc.geyser.util.LatencyHistogram;
 import org.geysermc.mcprotocollib.protocol.data.game.entity.player.GameMode;
 import org.geysermc.mcprotocollib.protocol.data.game.item.component.DataComponents;
 
@@ -43,17 +42,22 @@ import java.util.concurrent.CompletableFuture;
 
 public class GeyserWorldManager extends WorldManager {
     private final Object2ObjectMap<String, String> gameruleCache = new Object2ObjectOpenHashMap<>();
+    /**
+     * Round trips of block lookups that had to go to the backend server through Erosion
+     */
+    @Getter
+    private final LatencyHistogram erosionLookupLatency = new LatencyHistogram();
 
     @Override
     public int getBlockAt(GeyserSession session, int x, int y, int z) {
         var erosionHandler = session.getErosionHandler().getAsActive();
-        if (erosionHandler == null) {
+        if (erosionHandler == null || isMirrored(session, x, z) || !canWaitForBackend(session)) {
             return session.getChunkCache().getBlockAt(x, y, z);
         }
-        CompletableFuture<Integer> future = new CompletableFuture<>(); // Boxes
-        erosionHandler.setPendingLookup(future);
-        erosionHandler.sendPacket(new BackendboundBlockRequestPacket(0, Vector3i.from(x, y, z)));
-        return future.join();
+        long start = System.nanoTime();
+        int blockId = erosionHandler.lookupBlock(Vector3i.from(x, y, z)).join();
+        erosionLookupLatency.recordSince(start);
+        return blockId;
     }
 
     @Override
@@ -62,11 +66,11 @@ public class GeyserWorldManager extends WorldManager {
         if (erosionHandler == null) {
             return super.getBlockAtAsync(session, x, y, z);
         }
-        CompletableFuture<Integer> future = new CompletableFuture<>(); // Boxes
-        int transactionId = erosionHandler.getNextTransactionId();
-        erosionHandler.getAsyncPendingLookups().put(transactionId, future);
-        erosionHandler.sendPacket(new BackendboundBlockRequestPacket(transactionId, Vector3i.from(x, y, z)));
-        return future;
+        if (isMirrored(session, x, z)) {
+            return CompletableFuture.completedFuture(session.getChunkCache().getBlockAt(x, y, z));
+        }
+        long start = System.nanoTime();
+        return erosionHandler.queueBlockLookup(Vector3i.from(x, y, z)).whenComplete((blockId, throwable) -> erosionLookupLatency.recordSince(start));
     }
 
     @Override
@@ -75,10 +79,52 @@ public class GeyserWorldManager extends WorldManager {
         if (erosionHandler == null) {
             return super.getBlocksAt(session, iter);
         }
-        CompletableFuture<int[]> future = new CompletableFuture<>();
-        erosionHandler.setPendingBatchLookup(future);
-        erosionHandler.sendPacket(new BackendboundBatchBlockRequestPacket(iter));
-        return future.join();
+        if (session.getGeyser().getConfig().isErosionBlockMirror()) {
+            int[] blocks = getMirroredBlocksAt(session.getChunkCache(), iter);
+            if (blocks != null) {
+                return blocks;
+            }
+            iter.reset();
+            if (!canWaitForBackend(session)) {
+                // Answered block by block from the chunk cache
+                return super.getBlocksAt(session, iter);
+            }
+        }
+        long start = System.nanoTime();
+        int[] blocks = erosionHandler.lookupBlocks(iter).join();
+        erosionLookupLatency.recordSince(start);
+        return blocks;
+    }
+
+    /**
+     * With the Erosion block mirror enabled, blocks are looked up in the session's chunk cache, which the backend
+     * server keeps up to date through the regular chunk and block update packets. Only lookups in chunks that
+     * aren't cached (yet) have to go to the backend.
+     */
+    public static boolean isMirrored(GeyserSession session, int x, int z) {
+        return session.getGeyser().getConfig().isErosionBlockMirror() && session.getChunkCache().isChunkLoaded(x >> 4, z >> 4);
+    }
+
+    /**
+     * With the Erosion block mirror enabled, the session's event loop never waits for a round trip to the backend
+     * server. Blocks in chunks that aren't cached are then treated as air, as they would be without Erosion.
+     */
+    private static boolean canWaitForBackend(GeyserSession session) {
+        return !session.getGeyser().getConfig().isErosionBlockMirror() || !session.getEventLoop().inEventLoop();
+    }
+
+    /**
+     * @return the blocks of the iterator from the chunk cache, or null if any of them are in a chunk that isn't cached
+     */
+    static int @Nullable [] getMirroredBlocksAt(ChunkCache chunkCache, BlockPositionIterator iter) {
+        int[] blocks = new int[iter.getMaxIterations()];
+        for (; iter.hasNext(); iter.next()) {
+            if (!chunkCache.isChunkLoaded(iter.getX() >> 4, iter.getZ() >> 4)) {
+                return null;
+            }
+            blocks[iter.getIteration()] = chunkCache.getBlockAt(iter.getX(), iter.getY(), iter.getZ());
+        }
+        return blocks;
     }
 
     @Override
@@ -125,9 +171,6 @@ public class GeyserWorldManager extends WorldManager {
         if (erosionHandler == null) {
             return super.getPickItemComponents(session, x, y, z, addNbtData);
         }
-        CompletableFuture<Int2ObjectMap<byte[]>> future = new CompletableFuture<>();
-        erosionHandler.setPickBlockLookup(future);
-        erosionHandler.sendPacket(new BackendboundPickBlockPacket(Vector3i.from(x, y, z)));
-        return future.thenApply(RAW_TRANSFORMER);
+        return erosionHandler.lookupPickBlock(Vector3i.from(x, y, z)).thenApply(RAW_TRANSFORMER);
     }
 }
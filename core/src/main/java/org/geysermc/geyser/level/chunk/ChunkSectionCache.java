@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.BitStorage;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.GlobalPalette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.Palette;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A cache of encoded Bedrock chunk sections shared between all sessions. Sections are keyed by a hash of the Java
+ * palette and block storage, the sub chunk index and the {@link BlockMappings} instance they were translated with,
+ * so identical sections (for example, spawn chunks seen by every player on a hub) are only translated once.
+ * <p>
+ * The cache is bounded by the amount of bytes held; least recently used sections are evicted first.
+ */
+public final class ChunkSectionCache {
+    /**
+     * Rough overhead of a single cache entry - the key, hash code and array header.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final Cache<Key, byte[]> cache;
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    public ChunkSectionCache(long maxBytes) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((Key key, byte[] value) -> value.length + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Creates a cache key for this Java chunk section.
+     *
+     * @param mappings the block mappings of the session that will use this section
+     * @param javaData the Java block data of the section
+     * @param subChunkIndex the sub chunk index of the section, as it is encoded in the Bedrock section header
+     */
+    public Key createKey(BlockMappings mappings, DataPalette javaData, int subChunkIndex) {
+        Palette palette = javaData.getPalette();
+        BitStorage storage = javaData.getStorage();
+
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        if (palette instanceof GlobalPalette) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(palette.size());
+            for (int i = 0; i < palette.size(); i++) {
+                hasher.putInt(palette.idToState(i));
+            }
+        }
+        hasher.putInt(storage.getBitsPerEntry());
+        for (long word : storage.getData()) {
+            hasher.putLong(word);
+        }
+        return new Key(hasher.hash(), subChunkIndex, mappings);
+    }
+
+    /**
+     * @return the encoded Bedrock section, or null if it has not been translated yet
+     */
+    public byte @Nullable [] get(Key key) {
+        byte[] section = this.cache.getIfPresent(key);
+        if (section != null) {
+            this.bytesSaved.addAndGet(section.length);
+        }
+        return section;
+    }
+
+    /**
+     * Encodes this section and stores it in the cache.
+     *
+     * @return the encoded section, ready to be written into a chunk payload
+     */
+    public byte[] put(Key key, GeyserChunkSection section) {
+        ByteBuf buffer = Unpooled.buffer(section.estimateNetworkSize());
+        try {
+            section.writeToNetwork(buffer);
+            byte[] bytes = new byte[buffer.readableBytes()];
+            buffer.readBytes(bytes);
+            this.cache.put(key, bytes);
+            return bytes;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    public Stats stats() {
+        CacheStats stats = this.cache.stats();
+        return new Stats(this.cache.size(), stats.hitCount(), stats.missCount(), stats.hitRate(), this.bytesSaved.get());
+    }
+
+    public void clear() {
+        this.cache.invalidateAll();
+    }
+
+    public static final class Key {
+        private final HashCode hash;
+        private final int subChunkIndex;
+        private final BlockMappings mappings;
+
+        private Key(HashCode hash, int subChunkIndex, BlockMappings mappings) {
+            this.hash = hash;
+            this.subChunkIndex = subChunkIndex;
+            this.mappings = mappings;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            // Block mappings are compared by identity; they're shared between all sessions of the same Bedrock version
+            return subChunkIndex == other.subChunkIndex && mappings == other.mappings && hash.equals(other.hash);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash.asInt() * 31 + subChunkIndex;
+        }
+    }
+
+    public record Stats(long entries, long hits, long misses, double hitRate, long bytesSaved) {
+    }
+}
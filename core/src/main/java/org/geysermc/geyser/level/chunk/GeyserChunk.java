@@ -29,10 +29,33 @@ import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
 
 /**
  * Acts as a lightweight chunk class that doesn't store biomes, heightmaps or block entities.
+ * Empty sections are null.
  */
-public record GeyserChunk(DataPalette[] sections) {
+public record GeyserChunk(PackedChunkSection[] sections) {
 
     public static GeyserChunk from(DataPalette[] sections) {
-        return new GeyserChunk(sections);
+        PackedChunkSection[] packedSections = new PackedChunkSection[sections.length];
+        for (int i = 0; i < sections.length; i++) {
+            if (sections[i] != null) {
+                PackedChunkSection section = PackedChunkSection.from(sections[i]);
+                if (!section.isEmpty()) {
+                    packedSections[i] = section;
+                }
+            }
+        }
+        return new GeyserChunk(packedSections);
+    }
+
+    /**
+     * @return the approximate amount of heap memory taken by this chunk, in bytes, excluding shared sections
+     */
+    public long estimateHeapSize() {
+        long size = 16 + 16 + 4L * sections.length; // Record, array header and references
+        for (PackedChunkSection section : sections) {
+            if (section != null && !section.isShared()) {
+                size += section.estimateHeapSize();
+            }
+        }
+        return size;
     }
 }
@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import org.geysermc.geyser.level.block.type.Block;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.BitStorage;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.GlobalPalette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.Palette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.SingletonPalette;
+
+import java.util.Arrays;
+
+/**
+ * A compact store of the Java block states of a 16x16x16 chunk section, used by the chunk cache.
+ * <p>
+ * Block states are packed into longs the same way Java Edition sends them, in YZX order, without entries spanning
+ * two longs. Sections with only one block state are collapsed into a single int, and sections using the global
+ * palette don't store a palette at all. Empty sections are represented as null by the chunk cache.
+ */
+public final class PackedChunkSection {
+    private static final int SIZE = 4096;
+    private static final int MIN_BITS = 4;
+
+    /**
+     * Java block state IDs of this section, or null if the global palette is used.
+     * If {@link #data} is null, this is a singleton section and the first entry is the only state.
+     */
+    private int[] palette;
+    private int paletteSize;
+    private long[] data;
+    private int bitsPerEntry;
+
+    /**
+     * Set while this section is held by the {@link SharedChunkStore}. Shared sections must never be modified.
+     * Read by the sessions holding this section, so it is volatile.
+     */
+    volatile SharedChunkStore.Key sharedKey;
+    /**
+     * The amount of sessions referencing this section; only modified by the shared chunk store while it holds the lock
+     * of the section's key
+     */
+    volatile int references;
+
+    private PackedChunkSection(int[] palette, int paletteSize, long[] data, int bitsPerEntry) {
+        this.palette = palette;
+        this.paletteSize = paletteSize;
+        this.data = data;
+        this.bitsPerEntry = bitsPerEntry;
+    }
+
+    public static PackedChunkSection singleton(int state) {
+        return new PackedChunkSection(new int[] {state}, 1, null, 0);
+    }
+
+    /**
+     * Converts an MCProtocolLib section. The storage of the section is reused, so it must not be modified afterwards.
+     */
+    public static PackedChunkSection from(DataPalette section) {
+        Palette javaPalette = section.getPalette();
+        if (javaPalette instanceof SingletonPalette) {
+            return singleton(javaPalette.idToState(0));
+        }
+
+        BitStorage storage = section.getStorage();
+        if (javaPalette instanceof GlobalPalette) {
+            return new PackedChunkSection(null, 0, storage.getData(), storage.getBitsPerEntry());
+        }
+
+        int[] palette = new int[javaPalette.size()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = javaPalette.idToState(i);
+        }
+        return new PackedChunkSection(palette, palette.length, storage.getData(), storage.getBitsPerEntry());
+    }
+
+    public PackedChunkSection copy() {
+        return new PackedChunkSection(palette == null ? null : palette.clone(), paletteSize, data == null ? null : data.clone(), bitsPerEntry);
+    }
+
+    /**
+     * @return true if this section is shared between sessions and must be copied before being modified
+     */
+    public boolean isShared() {
+        return sharedKey != null;
+    }
+
+    /**
+     * @return true if both sections store the same block states in the same format
+     */
+    public boolean contentEquals(PackedChunkSection other) {
+        if (bitsPerEntry != other.bitsPerEntry || paletteSize != other.paletteSize || (palette == null) != (other.palette == null)) {
+            return false;
+        }
+        if (palette != null && !Arrays.equals(palette, 0, paletteSize, other.palette, 0, paletteSize)) {
+            return false;
+        }
+        return Arrays.equals(data, other.data);
+    }
+
+    public int get(int x, int y, int z) {
+        if (data == null) {
+            return palette[0];
+        }
+        int value = getRaw(index(x, y, z));
+        return palette == null ? value : palette[value];
+    }
+
+    public void set(int x, int y, int z, int state) {
+        if (isShared()) {
+            throw new IllegalStateException("Shared chunk sections cannot be modified");
+        }
+        if (data == null) {
+            if (palette[0] == state) {
+                return;
+            }
+            // Expand this singleton section so it can hold more than one state
+            int[] newPalette = new int[1 << MIN_BITS];
+            newPalette[0] = palette[0];
+            this.palette = newPalette;
+            this.bitsPerEntry = MIN_BITS;
+            this.data = new long[dataLength(MIN_BITS)];
+        }
+
+        int value = state;
+        if (palette != null) {
+            value = paletteIndex(state);
+        } else if (value > maxValue(bitsPerEntry)) {
+            // Registries grew past what the server's global palette size accounted for; very unlikely
+            resize(32 - Integer.numberOfLeadingZeros(value));
+        }
+        setRaw(index(x, y, z), value);
+    }
+
+    /**
+     * @return true if this section only consists of air
+     */
+    public boolean isEmpty() {
+        return data == null && palette[0] == Block.JAVA_AIR_ID;
+    }
+
+    /**
+     * @return the approximate amount of heap memory taken by this section, in bytes
+     */
+    public long estimateHeapSize() {
+        long size = 32; // Object header and fields
+        if (palette != null) {
+            size += 16 + 4L * palette.length;
+        }
+        if (data != null) {
+            size += 16 + 8L * data.length;
+        }
+        return size;
+    }
+
+    private int paletteIndex(int state) {
+        for (int i = 0; i < paletteSize; i++) {
+            if (palette[i] == state) {
+                return i;
+            }
+        }
+
+        int index = paletteSize;
+        if (index > maxValue(bitsPerEntry)) {
+            resize(bitsPerEntry + 1);
+        }
+        if (index >= palette.length) {
+            int[] newPalette = new int[Math.max(palette.length * 2, 1 << bitsPerEntry)];
+            System.arraycopy(palette, 0, newPalette, 0, paletteSize);
+            this.palette = newPalette;
+        }
+        palette[index] = state;
+        paletteSize++;
+        return index;
+    }
+
+    private void resize(int newBits) {
+        int oldBits = this.bitsPerEntry;
+        long[] oldData = this.data;
+        this.bitsPerEntry = newBits;
+        this.data = new long[dataLength(newBits)];
+        for (int i = 0; i < SIZE; i++) {
+            setRaw(i, getRaw(oldData, oldBits, i));
+        }
+    }
+
+    private int getRaw(int index) {
+        return getRaw(data, bitsPerEntry, index);
+    }
+
+    private void setRaw(int index, int value) {
+        int valuesPerLong = 64 / bitsPerEntry;
+        int cellIndex = index / valuesPerLong;
+        int bitIndex = (index - cellIndex * valuesPerLong) * bitsPerEntry;
+        long mask = maxValue(bitsPerEntry);
+        data[cellIndex] = data[cellIndex] & ~(mask << bitIndex) | ((long) value & mask) << bitIndex;
+    }
+
+    private static int getRaw(long[] data, int bitsPerEntry, int index) {
+        int valuesPerLong = 64 / bitsPerEntry;
+        int cellIndex = index / valuesPerLong;
+        int bitIndex = (index - cellIndex * valuesPerLong) * bitsPerEntry;
+        return (int) (data[cellIndex] >>> bitIndex & maxValue(bitsPerEntry));
+    }
+
+    private static int dataLength(int bitsPerEntry) {
+        int valuesPerLong = 64 / bitsPerEntry;
+        return (SIZE + valuesPerLong - 1) / valuesPerLong;
+    }
+
+    private static int maxValue(int bitsPerEntry) {
+        return (1 << bitsPerEntry) - 1;
+    }
+
+    private static int index(int x, int y, int z) {
+        return y << 8 | z << 4 | x;
+    }
+}
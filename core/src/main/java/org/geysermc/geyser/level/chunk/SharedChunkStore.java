@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Stores chunk sections that are shared between the chunk caches of all sessions on the same world, so that memory
+ * scales with the size of the world instead of the amount of players in it. Mostly useful behind proxies, where
+ * most players are often in the same lobby.
+ * <p>
+ * Sections are keyed by the world as the downstream server describes it and by position, and are only shared if their
+ * content is identical. Shared sections are copy-on-write: a session that receives a block update for one takes a private copy.
+ */
+public final class SharedChunkStore {
+    private final Map<Key, PackedChunkSection> sections = new ConcurrentHashMap<>();
+
+    /**
+     * Offers a section received by a session to the store.
+     *
+     * @return the shared section if one with identical content exists or if this section is now shared,
+     * or the given section if another section is already being shared at this position
+     */
+    public PackedChunkSection acquire(String world, long chunkPosition, int sectionY, PackedChunkSection section) {
+        Key key = new Key(world, chunkPosition, sectionY);
+        PackedChunkSection shared = sections.compute(key, (k, existing) -> {
+            if (existing == null) {
+                section.sharedKey = k;
+                section.references = 1;
+                return section;
+            }
+            if (existing.contentEquals(section)) {
+                existing.references++;
+            }
+            return existing;
+        });
+        return shared == section || shared.contentEquals(section) ? shared : section;
+    }
+
+    /**
+     * Releases a session's reference to this section. Does nothing if the section is not shared.
+     */
+    public void release(PackedChunkSection section) {
+        if (!section.isShared()) {
+            return;
+        }
+        sections.computeIfPresent(section.sharedKey, (k, existing) -> {
+            if (existing != section) {
+                return existing;
+            }
+            if (--existing.references <= 0) {
+                // No session holds the section anymore
+                existing.sharedKey = null;
+                return null;
+            }
+            return existing;
+        });
+    }
+
+    /**
+     * Identifies a world by what the downstream server sends about it. Behind a proxy the address Geyser connects to is
+     * the proxy's, so the backend is told apart by the hashed seed of its world instead.
+     */
+    public static String worldKey(long hashedSeed, String worldName) {
+        return Long.toHexString(hashedSeed) + "/" + worldName;
+    }
+
+    public Stats stats() {
+        long bytes = 0;
+        long references = 0;
+        for (PackedChunkSection section : sections.values()) {
+            bytes += section.estimateHeapSize();
+            references += section.references;
+        }
+        return new Stats(sections.size(), references, bytes);
+    }
+
+    /**
+     * @param world identifies the world on the downstream server; see {@link #worldKey(long, String)}
+     */
+    public record Key(String world, long chunkPosition, int sectionY) {
+    }
+
+    /**
+     * @param sections the amount of sections currently shared
+     * @param references the amount of references to these sections across all sessions
+     * @param bytes the approximate heap usage of the shared sections
+     */
+    public record Stats(int sections, long references, long bytes) {
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.math.vector.Vector3i;
+import org.cloudburstmc.nbt.NBTInputStream;
+import org.cloudburstmc.nbt.NBTOutputStream;
+import org.cloudburstmc.nbt.NbtMap;
+import org.cloudburstmc.nbt.NbtUtils;
+import org.geysermc.geyser.util.ChunkUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A translated chunk column waiting to be requested one sub-chunk at a time by the Bedrock client.
+ * Only the encoded sections and block entities are kept, ready to be written into a sub-chunk response.
+ */
+public final class SubChunkColumn {
+    /**
+     * The Bedrock sub-chunk index of the lowest section
+     */
+    private final int minSectionY;
+    private final byte[][] encodedSections;
+    /**
+     * The block entities of each section, in network NBT format
+     */
+    private final byte[][] encodedBlockEntities;
+    /**
+     * Blocks, as section indices, that were changed after this column was translated and that the client has not
+     * been sent yet
+     */
+    private final IntSet[] changedBlocks;
+
+    @SuppressWarnings("unchecked")
+    public SubChunkColumn(int minSectionY, GeyserChunkSection[] sections, byte @Nullable [][] encodedSections, List<NbtMap> blockEntities) {
+        this.minSectionY = minSectionY;
+        this.encodedSections = new byte[sections.length][];
+        this.encodedBlockEntities = new byte[sections.length][];
+        this.changedBlocks = new IntSet[sections.length];
+
+        for (int i = 0; i < sections.length; i++) {
+            if (encodedSections != null && encodedSections[i] != null) {
+                this.encodedSections[i] = encodedSections[i];
+            } else if (sections[i] != null) {
+                this.encodedSections[i] = encode(sections[i]);
+            }
+        }
+
+        List<NbtMap>[] sectionBlockEntities = new List[sections.length];
+        for (NbtMap blockEntity : blockEntities) {
+            int index = (blockEntity.getInt("y") >> 4) - minSectionY;
+            if (index >= 0 && index < sections.length) {
+                if (sectionBlockEntities[index] == null) {
+                    sectionBlockEntities[index] = new ArrayList<>();
+                }
+                sectionBlockEntities[index].add(blockEntity);
+            }
+        }
+        for (int i = 0; i < sections.length; i++) {
+            if (sectionBlockEntities[i] != null) {
+                this.encodedBlockEntities[i] = encodeBlockEntities(sectionBlockEntities[i]);
+            }
+        }
+    }
+
+    /**
+     * @return the Bedrock sub-chunk index of the lowest section
+     */
+    public int minSectionY() {
+        return minSectionY;
+    }
+
+    public boolean hasSection(int sectionY) {
+        int index = sectionY - minSectionY;
+        return index >= 0 && index < encodedSections.length;
+    }
+
+    /**
+     * @return true if the section has no blocks and no block entities
+     */
+    public boolean isEmpty(int sectionY) {
+        int index = sectionY - minSectionY;
+        return encodedSections[index] == null && encodedBlockEntities[index] == null;
+    }
+
+    /**
+     * Writes the section and its block entities in the format of a sub-chunk response.
+     */
+    public void write(int sectionY, ByteBuf buffer) {
+        int index = sectionY - minSectionY;
+        if (encodedSections[index] != null) {
+            buffer.writeBytes(encodedSections[index]);
+        } else {
+            new GeyserChunkSection(ChunkUtils.EMPTY_BLOCK_STORAGE, sectionY).writeToNetwork(buffer);
+        }
+
+        if (encodedBlockEntities[index] != null) {
+            buffer.writeBytes(encodedBlockEntities[index]);
+        }
+    }
+
+    /**
+     * Records that a block has changed since the column was translated, so it can be sent again after the section is.
+     */
+    public void markChanged(int x, int y, int z) {
+        int index = (y >> 4) - minSectionY;
+        if (index < 0 || index >= changedBlocks.length) {
+            return;
+        }
+        if (changedBlocks[index] == null) {
+            changedBlocks[index] = new IntOpenHashSet();
+        }
+        changedBlocks[index].add(((y & 0xF) << 8) | ((z & 0xF) << 4) | (x & 0xF));
+    }
+
+    /**
+     * Should be called once the section has been sent to the client; blocks changed afterwards are sent to the client
+     * as they change.
+     *
+     * @return the positions of blocks changed in this section since the column was translated or the section was last sent
+     */
+    public List<Vector3i> pollChangedBlocks(int chunkX, int sectionY, int chunkZ) {
+        int index = sectionY - minSectionY;
+        IntSet changed = changedBlocks[index];
+        if (changed == null) {
+            return List.of();
+        }
+        changedBlocks[index] = null;
+        List<Vector3i> positions = new ArrayList<>(changed.size());
+        changed.forEach(yzx -> positions.add(Vector3i.from((chunkX << 4) + (yzx & 0xF), (sectionY << 4) + (yzx >> 8), (chunkZ << 4) + ((yzx >> 4) & 0xF))));
+        return positions;
+    }
+
+    /**
+     * Replaces the block entity at the given position, so the section is sent with its latest data.
+     */
+    public void updateBlockEntity(Vector3i position, NbtMap blockEntity) {
+        int index = (position.getY() >> 4) - minSectionY;
+        if (index < 0 || index >= encodedBlockEntities.length) {
+            return;
+        }
+        List<NbtMap> sectionBlockEntities = encodedBlockEntities[index] == null ? new ArrayList<>() : decodeBlockEntities(encodedBlockEntities[index]);
+        boolean replaced = false;
+        for (int i = 0; i < sectionBlockEntities.size(); i++) {
+            NbtMap existing = sectionBlockEntities.get(i);
+            if (existing.getInt("x") == position.getX() && existing.getInt("y") == position.getY() && existing.getInt("z") == position.getZ()) {
+                sectionBlockEntities.set(i, blockEntity);
+                replaced = true;
+                break;
+            }
+        }
+        if (!replaced) {
+            sectionBlockEntities.add(blockEntity);
+        }
+        encodedBlockEntities[index] = encodeBlockEntities(sectionBlockEntities);
+    }
+
+    private static byte[] encode(GeyserChunkSection section) {
+        ByteBuf buffer = Unpooled.buffer(section.estimateNetworkSize());
+        try {
+            section.writeToNetwork(buffer);
+            return ByteBufUtil.getBytes(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    private static byte[] encodeBlockEntities(List<NbtMap> blockEntities) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (NBTOutputStream nbtStream = NbtUtils.createNetworkWriter(output)) {
+            for (NbtMap blockEntity : blockEntities) {
+                nbtStream.writeTag(blockEntity);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toByteArray();
+    }
+
+    private static List<NbtMap> decodeBlockEntities(byte[] encoded) {
+        List<NbtMap> blockEntities = new ArrayList<>();
+        ByteArrayInputStream input = new ByteArrayInputStream(encoded);
+        try (NBTInputStream nbtStream = NbtUtils.createNetworkReader(input)) {
+            while (input.available() > 0) {
+                blockEntities.add((NbtMap) nbtStream.readTag());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return blockEntities;
+    }
+}
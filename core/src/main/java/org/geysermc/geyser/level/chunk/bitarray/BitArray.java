@@ -27,6 +27,7 @@ package org.geysermc.geyser.level.chunk.bitarray;
 
 import io.netty.buffer.ByteBuf;
 import org.cloudburstmc.protocol.common.util.VarInts;
+import org.geysermc.geyser.util.ChunkUtils;
 
 public interface BitArray {
 
@@ -34,6 +35,17 @@ public interface BitArray {
 
     int get(int index);
 
+    /**
+     * Sets every entry of a chunk section sized array, converting from YZX to XZY order.
+     *
+     * @param yzxValues the 4096 values of the section in YZX order, as returned by {@link BitArrayTranscoder#unpack}
+     */
+    default void setAllYZX(int[] yzxValues) {
+        for (int yzx = 0; yzx < yzxValues.length; yzx++) {
+            set(ChunkUtils.indexYZXtoXZY(yzx), yzxValues[yzx]);
+        }
+    }
+
     int size();
 
     /**
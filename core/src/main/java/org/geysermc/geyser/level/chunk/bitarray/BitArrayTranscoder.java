@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk.bitarray;
+
+import org.geysermc.geyser.level.chunk.BlockStorage;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.BitStorage;
+
+import static org.geysermc.geyser.util.ChunkUtils.indexYZXtoXZY;
+
+/**
+ * Bulk conversion of Java Edition's long-packed chunk storage into Bedrock bit arrays.
+ * <p>
+ * Reading and writing entries one at a time costs a division and a read-modify-write of the backing word per block.
+ * Instead, Java storage is unpacked into a flat array in a single sequential pass, and Bedrock words are then built
+ * whole in XZY order through a precomputed reorder table.
+ */
+public final class BitArrayTranscoder {
+    /**
+     * The YZX index of every XZY index in a chunk section
+     */
+    private static final int[] XZY_TO_YZX = new int[BlockStorage.SIZE];
+
+    private static final ThreadLocal<int[]> UNPACKED = ThreadLocal.withInitial(() -> new int[BlockStorage.SIZE]);
+
+    static {
+        for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+            XZY_TO_YZX[indexYZXtoXZY(yzx)] = yzx;
+        }
+    }
+
+    private BitArrayTranscoder() {
+    }
+
+    /**
+     * Unpacks every entry of a Java chunk section's storage.
+     *
+     * @return the entries in YZX order. The array is reused by the calling thread, so it is only valid until the next call.
+     */
+    public static int[] unpack(BitStorage storage) {
+        int[] unpacked = UNPACKED.get();
+        long[] data = storage.getData();
+        int bits = storage.getBitsPerEntry();
+        int valuesPerLong = Long.SIZE / bits;
+        long mask = (1L << bits) - 1;
+
+        int index = 0;
+        for (long word : data) {
+            int count = Math.min(valuesPerLong, BlockStorage.SIZE - index);
+            for (int i = 0; i < count; i++) {
+                unpacked[index++] = (int) (word & mask);
+                word >>>= bits;
+            }
+            if (index == BlockStorage.SIZE) {
+                break;
+            }
+        }
+        return unpacked;
+    }
+
+    /**
+     * Packs a chunk section of entries in YZX order into Bedrock words in XZY order.
+     * Works for both padded and power of two versions, as the latter are simply arrays without padding.
+     */
+    static void pack(int[] yzxValues, int[] words, BitArrayVersion version) {
+        int bits = version.bits;
+        int entriesPerWord = version.entriesPerWord;
+
+        int all = 0;
+        int xzy = 0;
+        for (int i = 0; i < words.length; i++) {
+            int word = 0;
+            int count = Math.min(entriesPerWord, BlockStorage.SIZE - xzy);
+            for (int j = 0; j < count; j++) {
+                int value = yzxValues[XZY_TO_YZX[xzy++]];
+                all |= value;
+                word |= value << (j * bits);
+            }
+            words[i] = word;
+        }
+
+        if ((all & ~version.maxEntryValue) != 0) {
+            // A value has overflowed into the next entry; only possible if the palette was sized incorrectly
+            throw new IllegalArgumentException("Value does not fit in a " + version + " bit array");
+        }
+    }
+}
@@ -26,6 +26,7 @@
 package org.geysermc.geyser.level.chunk.bitarray;
 
 import org.cloudburstmc.protocol.common.util.Preconditions;
+import org.geysermc.geyser.level.chunk.BlockStorage;
 import org.geysermc.geyser.util.MathUtils;
 
 import java.util.Arrays;
@@ -77,6 +78,15 @@ public class PaddedBitArray implements BitArray {
         return (this.words[arrayIndex] >>> offset) & this.version.maxEntryValue;
     }
 
+    @Override
+    public void setAllYZX(int[] yzxValues) {
+        if (this.size != BlockStorage.SIZE) {
+            BitArray.super.setAllYZX(yzxValues);
+            return;
+        }
+        BitArrayTranscoder.pack(yzxValues, this.words, this.version);
+    }
+
     @Override
     public int size() {
         return this.size;
@@ -26,6 +26,7 @@
 package org.geysermc.geyser.level.chunk.bitarray;
 
 import org.cloudburstmc.protocol.common.util.Preconditions;
+import org.geysermc.geyser.level.chunk.BlockStorage;
 import org.geysermc.geyser.util.MathUtils;
 
 import java.util.Arrays;
@@ -81,6 +82,15 @@ public class Pow2BitArray implements BitArray {
         return this.words[arrayIndex] >>> wordOffset & this.version.maxEntryValue;
     }
 
+    @Override
+    public void setAllYZX(int[] yzxValues) {
+        if (this.size != BlockStorage.SIZE) {
+            BitArray.super.setAllYZX(yzxValues);
+            return;
+        }
+        BitArrayTranscoder.pack(yzxValues, this.words, this.version);
+    }
+
     /**
      * Gets the long array that is used to store the data in this BitArray. This is useful for sending packet data.
      */
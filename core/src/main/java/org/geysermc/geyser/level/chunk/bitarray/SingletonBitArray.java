@@ -38,6 +38,10 @@ public class SingletonBitArray implements BitArray {
     public void set(int index, int value) {
     }
 
+    @Override
+    public void setAllYZX(int[] yzxValues) {
+    }
+
     @Override
     public int get(int index) {
         return 0;
@@ -26,6 +26,7 @@
 package org.geysermc.geyser.network;
 
 import io.netty.channel.Channel;
+import lombok.Getter;
 import org.cloudburstmc.protocol.bedrock.BedrockPeer;
 import org.cloudburstmc.protocol.bedrock.BedrockSessionFactory;
 
@@ -34,6 +35,15 @@ import java.net.SocketAddress;
 public class GeyserBedrockPeer extends BedrockPeer {
     private SocketAddress proxiedAddress;
 
+    /**
+     * The amount of compressed batches sent to the client, and the amount of packets in them.
+     * Only modified on the channel's event loop.
+     */
+    @Getter
+    private volatile long batchesSent;
+    @Getter
+    private volatile long packetsSent;
+
     public GeyserBedrockPeer(Channel channel, BedrockSessionFactory sessionFactory) {
         super(channel, sessionFactory);
     }
@@ -46,4 +56,35 @@ public class GeyserBedrockPeer extends BedrockPeer {
     public void setProxiedAddress(SocketAddress proxiedAddress) {
         this.proxiedAddress = proxiedAddress;
     }
+
+    /**
+     * @return the amount of packets waiting to be sent in the next batch
+     */
+    public int getQueuedPackets() {
+        return this.packetQueue.size();
+    }
+
+    // Queued packets are sent as one batch every tick, or right away when a packet has to be sent immediately
+
+    @Override
+    protected void onTick() {
+        recordBatch();
+        super.onTick();
+    }
+
+    @Override
+    public void flush() {
+        if (this.getChannel().eventLoop().inEventLoop()) {
+            recordBatch();
+        }
+        super.flush();
+    }
+
+    private void recordBatch() {
+        int packets = this.packetQueue.size();
+        if (packets > 0) {
+            batchesSent++;
+            packetsSent += packets;
+        }
+    }
 }
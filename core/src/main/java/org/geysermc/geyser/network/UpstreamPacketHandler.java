@@ -25,7 +25,9 @@
 
 package org.geysermc.geyser.network;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.protocol.bedrock.BedrockDisconnectReasons;
 import org.cloudburstmc.protocol.bedrock.codec.BedrockCodec;
 import org.cloudburstmc.protocol.bedrock.codec.compat.BedrockCompat;
@@ -37,6 +39,7 @@ import org.cloudburstmc.protocol.bedrock.netty.codec.compression.CompressionStra
 import org.cloudburstmc.protocol.bedrock.netty.codec.compression.SimpleCompressionStrategy;
 import org.cloudburstmc.protocol.bedrock.netty.codec.compression.ZlibCompression;
 import org.cloudburstmc.protocol.bedrock.packet.BedrockPacket;
+import org.cloudburstmc.protocol.bedrock.packet.ClientCacheStatusPacket;
 import org.cloudburstmc.protocol.bedrock.packet.LoginPacket;
 import org.cloudburstmc.protocol.bedrock.packet.ModalFormResponsePacket;
 import org.cloudburstmc.protocol.bedrock.packet.MovePlayerPacket;
@@ -61,13 +64,13 @@ import org.geysermc.geyser.api.pack.ResourcePack;
 import org.geysermc.geyser.api.pack.ResourcePackManifest;
 import org.geysermc.geyser.event.type.SessionLoadResourcePacksEventImpl;
 import org.geysermc.geyser.pack.GeyserResourcePack;
+import org.geysermc.geyser.pack.path.GeyserPathPackCodec;
 import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.session.PendingMicrosoftAuthentication;
 import org.geysermc.geyser.text.GeyserLocale;
 import org.geysermc.geyser.util.LoginEncryptionUtils;
-import org.geysermc.geyser.util.MathUtils;
 import org.geysermc.geyser.util.VersionCheckUtils;
 
 import java.io.IOException;
@@ -76,6 +79,7 @@ import java.nio.channels.SeekableByteChannel;
 import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.OptionalInt;
 
 public class UpstreamPacketHandler extends LoggingPacketHandler {
@@ -289,6 +293,12 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         return false;
     }
 
+    @Override
+    public PacketSignal handle(ClientCacheStatusPacket packet) {
+        session.getChunkBlobCache().setClientSupport(packet.isSupported());
+        return PacketSignal.HANDLED;
+    }
+
     @Override
     public PacketSignal handle(MovePlayerPacket packet) {
         if (session.isLoggingIn()) {
@@ -308,27 +318,44 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
 
     @Override
     public PacketSignal handle(ResourcePackChunkRequestPacket packet) {
-        ResourcePackChunkDataPacket data = new ResourcePackChunkDataPacket();
-        ResourcePack pack = this.resourcePackLoadEvent.getPacks().get(packet.getPackId().toString());
+        ResourcePack pack = findPack(this.resourcePackLoadEvent.getPacks(), packet.getPackId().toString(), packet.getPackVersion());
+        if (pack == null) {
+            session.getGeyser().getLogger().debug("Client requested a chunk of unknown resource pack " + packet.getPackId()
+                    + " version " + packet.getPackVersion());
+            return PacketSignal.HANDLED;
+        }
         PackCodec codec = pack.codec();
 
+        int length = chunkLength(codec.size(), packet.getChunkIndex());
+        if (length == 0) {
+            session.getGeyser().getLogger().debug("Client requested chunk " + packet.getChunkIndex() + " of resource pack "
+                    + packet.getPackId() + ", which is out of range");
+            return PacketSignal.HANDLED;
+        }
+        long offset = (long) packet.getChunkIndex() * GeyserResourcePack.CHUNK_SIZE;
+        long remainingSize = codec.size() - offset;
+
+        ResourcePackChunkDataPacket data = new ResourcePackChunkDataPacket();
         data.setChunkIndex(packet.getChunkIndex());
-        data.setProgress((long) packet.getChunkIndex() * GeyserResourcePack.CHUNK_SIZE);
+        data.setProgress(offset);
         data.setPackVersion(packet.getPackVersion());
         data.setPackId(packet.getPackId());
 
-        int offset = packet.getChunkIndex() * GeyserResourcePack.CHUNK_SIZE;
-        long remainingSize = codec.size() - offset;
-        byte[] packData = new byte[(int) MathUtils.constrain(remainingSize, 0, GeyserResourcePack.CHUNK_SIZE)];
+        // Packs loaded from disk are mapped into memory once and sliced for every chunk request
+        ByteBuf chunk = codec instanceof GeyserPathPackCodec pathCodec ? pathCodec.chunk(offset, length) : null;
+        if (chunk == null) {
+            byte[] packData = new byte[length];
 
-        try (SeekableByteChannel channel = codec.serialize(pack)) {
-            channel.position(offset);
-            channel.read(ByteBuffer.wrap(packData, 0, packData.length));
-        } catch (IOException e) {
-            e.printStackTrace();
+            try (SeekableByteChannel channel = codec.serialize(pack)) {
+                channel.position(offset);
+                channel.read(ByteBuffer.wrap(packData, 0, packData.length));
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            chunk = Unpooled.wrappedBuffer(packData);
         }
 
-        data.setData(Unpooled.wrappedBuffer(packData));
+        data.setData(chunk);
 
         session.sendUpstreamPacket(data);
 
@@ -341,9 +368,18 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
     }
 
     private void sendPackDataInfo(String id) {
-        ResourcePackDataInfoPacket data = new ResourcePackDataInfoPacket();
+        // Packs are requested as their UUID and version, joined by an underscore
         String[] packID = id.split("_");
-        ResourcePack pack = this.resourcePackLoadEvent.getPacks().get(packID[0]);
+        ResourcePack pack = findPack(this.resourcePackLoadEvent.getPacks(), packID[0], packID.length > 1 ? packID[1] : null);
+        if (pack == null) {
+            session.getGeyser().getLogger().debug("Client requested unknown resource pack " + id);
+            if (!packsToSent.isEmpty()) {
+                sendPackDataInfo(packsToSent.pop());
+            }
+            return;
+        }
+
+        ResourcePackDataInfoPacket data = new ResourcePackDataInfoPacket();
         PackCodec codec = pack.codec();
         ResourcePackManifest.Header header = pack.manifest().header();
 
@@ -353,10 +389,33 @@ public class UpstreamPacketHandler extends LoggingPacketHandler {
         data.setCompressedPackSize(codec.size());
         data.setMaxChunkSize(GeyserResourcePack.CHUNK_SIZE);
         data.setHash(codec.sha256());
-        data.setPackVersion(packID[1]);
+        data.setPackVersion(header.version().toString());
         data.setPremium(false);
         data.setType(ResourcePackType.RESOURCES);
 
         session.sendUpstreamPacket(data);
     }
+
+    /**
+     * @param version the version the client asked for, or null if it didn't ask for a specific one
+     * @return the pack with this UUID, or null if there is none or it has another version
+     */
+    static @Nullable ResourcePack findPack(Map<String, ResourcePack> packs, String uuid, @Nullable String version) {
+        ResourcePack pack = packs.get(uuid);
+        if (pack == null || (version != null && !version.equals(pack.manifest().header().version().toString()))) {
+            return null;
+        }
+        return pack;
+    }
+
+    /**
+     * @return the length of this chunk of a pack of the given size, or 0 if the chunk is not within the pack
+     */
+    static int chunkLength(long packSize, int chunkIndex) {
+        if (chunkIndex < 0) {
+            return 0;
+        }
+        long remainingSize = packSize - (long) chunkIndex * GeyserResourcePack.CHUNK_SIZE;
+        return (int) Math.max(0, Math.min(remainingSize, GeyserResourcePack.CHUNK_SIZE));
+    }
 }
@@ -25,6 +25,8 @@
 
 package org.geysermc.geyser.pack.path;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import lombok.RequiredArgsConstructor;
 import org.checkerframework.checker.nullness.qual.NonNull;
 import org.geysermc.geyser.GeyserImpl;
@@ -34,11 +36,14 @@ import org.geysermc.geyser.registry.loader.ResourcePackLoader;
 import org.geysermc.geyser.util.FileUtils;
 
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.SeekableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.concurrent.atomic.AtomicLong;
 
 @RequiredArgsConstructor
 public class GeyserPathPackCodec extends PathPackCodec {
@@ -48,6 +53,23 @@ public class GeyserPathPackCodec extends PathPackCodec {
     private byte[] sha256;
     private long size = -1;
 
+    /**
+     * The pack mapped into memory, shared by every session downloading it. It can't be released; the mapping is
+     * unmapped once the buffer and all slices of it are garbage collected.
+     */
+    private volatile ByteBuf content;
+    private final AtomicLong bytesServed = new AtomicLong();
+
+    /**
+     * Creates a codec for a pack that has already been hashed, such as one found in the resource pack index.
+     */
+    public GeyserPathPackCodec(Path path, byte[] sha256, long size, FileTime lastModified) {
+        this.path = path;
+        this.sha256 = sha256;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
     @Override
     public @NonNull Path path() {
         this.checkLastModified();
@@ -61,7 +83,18 @@ public class GeyserPathPackCodec extends PathPackCodec {
             return this.sha256;
         }
 
-        return this.sha256 = FileUtils.calculateSHA256(this.path);
+        ByteBuf content = this.content();
+        if (content == null) {
+            return this.sha256 = FileUtils.calculateSHA256(this.path);
+        }
+
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(content.nioBuffer());
+            return this.sha256 = digest.digest();
+        } catch (Exception e) {
+            throw new RuntimeException("Could not calculate pack hash", e);
+        }
     }
 
     @Override
@@ -83,6 +116,60 @@ public class GeyserPathPackCodec extends PathPackCodec {
         return FileChannel.open(this.path);
     }
 
+    /**
+     * Returns a chunk of this pack without copying it.
+     *
+     * @param offset the position of the chunk in the pack
+     * @param length the length of the chunk; cut short if the pack ends before it
+     * @return a read-only slice of the pack, which is empty if the offset is not within the pack, or null if the pack
+     * could not be mapped into memory
+     */
+    public ByteBuf chunk(long offset, int length) {
+        ByteBuf content = this.content();
+        if (content == null) {
+            return null;
+        }
+        int capacity = content.capacity();
+        if (offset < 0 || offset >= capacity || length <= 0) {
+            return Unpooled.EMPTY_BUFFER;
+        }
+        length = (int) Math.min(length, capacity - offset);
+        this.bytesServed.addAndGet(length);
+        return content.slice((int) offset, length);
+    }
+
+    /**
+     * @return the amount of bytes of this pack sent to clients
+     */
+    public long bytesServed() {
+        return this.bytesServed.get();
+    }
+
+    private ByteBuf content() {
+        this.checkLastModified();
+        ByteBuf content = this.content;
+        if (content != null) {
+            return content;
+        }
+
+        synchronized (this) {
+            if (this.content == null) {
+                long size = this.size();
+                if (size > Integer.MAX_VALUE) {
+                    return null;
+                }
+                try (FileChannel channel = FileChannel.open(this.path)) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    this.content = Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(buffer));
+                } catch (IOException e) {
+                    GeyserImpl.getInstance().getLogger().error("Could not map resource pack " + this.path + " into memory", e);
+                    return null;
+                }
+            }
+            return this.content;
+        }
+    }
+
     @Override
     protected @NonNull ResourcePack create() {
         return ResourcePackLoader.readPack(this.path);
@@ -101,6 +188,8 @@ public class GeyserPathPackCodec extends PathPackCodec {
                 this.lastModified = lastModified;
                 this.sha256 = null;
                 this.size = -1;
+                // Slices already handed out keep the old mapping alive until they're written
+                this.content = null;
             }
         } catch (IOException e) {
             throw new RuntimeException(e);
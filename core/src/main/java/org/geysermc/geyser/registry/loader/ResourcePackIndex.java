@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.registry.loader;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.GeyserImpl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the manifest and hash of every resource pack that was loaded, keyed by its path, size and modification
+ * time, so packs that did not change since the last start or reload don't have to be opened and hashed again.
+ */
+final class ResourcePackIndex {
+    private static final TypeReference<Map<String, Entry>> TYPE = new TypeReference<>() { };
+
+    private final Path file;
+    private final Map<String, Entry> entries;
+    /**
+     * The packs that were loaded this time; packs that are gone are dropped from the index when it's saved
+     */
+    private final Map<String, Entry> used = new ConcurrentHashMap<>();
+
+    private ResourcePackIndex(Path file, Map<String, Entry> entries) {
+        this.file = file;
+        this.entries = entries;
+    }
+
+    static ResourcePackIndex load(Path file) {
+        Map<String, Entry> entries = Map.of();
+        if (Files.exists(file)) {
+            try {
+                entries = GeyserImpl.JSON_MAPPER.readValue(file.toFile(), TYPE);
+            } catch (IOException e) {
+                GeyserImpl.getInstance().getLogger().debug("Discarding unreadable resource pack index " + file + ": " + e.getMessage());
+            }
+        }
+        return new ResourcePackIndex(file, entries);
+    }
+
+    /**
+     * @return the indexed information of this pack, or null if the pack was not indexed or has changed since
+     */
+    @Nullable Entry get(Path path, BasicFileAttributes attributes) {
+        String key = key(path);
+        Entry entry = entries.get(key);
+        if (entry == null || entry.size() != attributes.size() || entry.lastModified() != attributes.lastModifiedTime().toMillis()) {
+            return null;
+        }
+        used.put(key, entry);
+        return entry;
+    }
+
+    void put(Path path, BasicFileAttributes attributes, String manifest, byte[] sha256) {
+        used.put(key(path), new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), manifest, sha256));
+    }
+
+    void save() {
+        if (used.equals(entries)) {
+            return;
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            GeyserImpl.JSON_MAPPER.writerFor(TYPE).writeValue(temp.toFile(), used);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().error("Could not save resource pack index " + file, e);
+        }
+    }
+
+    private static String key(Path path) {
+        return path.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * @param manifest the pack manifest, as it is stored in the pack
+     */
+    record Entry(long size, long lastModified, String manifest, byte[] sha256) {
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || o instanceof Entry other && size == other.size && lastModified == other.lastModified
+                    && manifest.equals(other.manifest) && Arrays.equals(sha256, other.sha256);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(size) * 31 + Long.hashCode(lastModified);
+        }
+    }
+}
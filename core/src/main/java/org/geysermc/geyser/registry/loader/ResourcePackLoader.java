@@ -25,6 +25,7 @@
 
 package org.geysermc.geyser.registry.loader;
 
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.api.event.lifecycle.GeyserLoadResourcePacksEvent;
 import org.geysermc.geyser.api.pack.ResourcePack;
@@ -33,18 +34,20 @@ import org.geysermc.geyser.pack.GeyserResourcePackManifest;
 import org.geysermc.geyser.pack.SkullResourcePackManager;
 import org.geysermc.geyser.pack.path.GeyserPathPackCodec;
 import org.geysermc.geyser.text.GeyserLocale;
-import org.geysermc.geyser.util.FileUtils;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -97,13 +100,24 @@ public class ResourcePackLoader implements RegistryLoader<Path, Map<String, Reso
         GeyserLoadResourcePacksEvent event = new GeyserLoadResourcePacksEvent(resourcePacks);
         GeyserImpl.getInstance().eventBus().fire(event);
 
-        for (Path path : event.resourcePacks()) {
-            try {
-                GeyserResourcePack pack = readPack(path);
-                packMap.put(pack.manifest().header().uuid().toString(), pack);
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
+        // Packs are read and hashed in parallel; unchanged packs are taken from the index without opening them
+        ResourcePackIndex index = ResourcePackIndex.load(GeyserImpl.getInstance().getBootstrap().getConfigFolder()
+                .resolve("cache").resolve("packs.json"));
+        List<GeyserResourcePack> packs = event.resourcePacks().parallelStream()
+                .map(path -> {
+                    try {
+                        return readPack(path, index);
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        return null;
+                    }
+                })
+                .filter(Objects::nonNull)
+                .toList();
+        index.save();
+
+        for (GeyserResourcePack pack : packs) {
+            packMap.put(pack.manifest().header().uuid().toString(), pack);
         }
         return packMap;
     }
@@ -117,11 +131,51 @@ public class ResourcePackLoader implements RegistryLoader<Path, Map<String, Reso
      * @throws IllegalArgumentException if the pack manifest was invalid or there was any processing exception
      */
     public static GeyserResourcePack readPack(Path path) throws IllegalArgumentException {
+        return readPack(path, null);
+    }
+
+    static GeyserResourcePack readPack(Path path, @Nullable ResourcePackIndex index) throws IllegalArgumentException {
         if (!path.getFileName().toString().endsWith(".mcpack") && !path.getFileName().toString().endsWith(".zip")) {
             throw new IllegalArgumentException("Resource pack " + path.getFileName() + " must be a .zip or .mcpack file!");
         }
 
-        AtomicReference<GeyserResourcePackManifest> manifestReference = new AtomicReference<>();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            ResourcePackIndex.Entry indexed = index == null ? null : index.get(path, attributes);
+
+            String manifestJson = indexed != null ? indexed.manifest() : readManifest(path);
+            if (manifestJson == null) {
+                throw new IllegalArgumentException(path.getFileName() + " does not contain a valid pack_manifest.json or manifest.json");
+            }
+            GeyserResourcePackManifest manifest = GeyserImpl.JSON_MAPPER.readValue(manifestJson, GeyserResourcePackManifest.class);
+
+            // Check if a file exists with the same name as the resource pack suffixed by .key,
+            // and set this as content key. (e.g. test.zip, key file would be test.zip.key)
+            Path keyFile = path.resolveSibling(path.getFileName().toString() + ".key");
+            String contentKey = Files.exists(keyFile) ? Files.readString(keyFile, StandardCharsets.UTF_8) : "";
+
+            GeyserPathPackCodec codec;
+            if (indexed != null) {
+                codec = new GeyserPathPackCodec(path, indexed.sha256(), attributes.size(), attributes.lastModifiedTime());
+            } else {
+                codec = new GeyserPathPackCodec(path);
+                // Map the pack and hash it now rather than when the first client asks for it
+                byte[] sha256 = codec.sha256();
+                if (index != null) {
+                    index.put(path, attributes, manifestJson, sha256);
+                }
+            }
+            return new GeyserResourcePack(codec, manifest, contentKey);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(GeyserLocale.getLocaleStringLog("geyser.resource_pack.broken", path.getFileName()), e);
+        }
+    }
+
+    /**
+     * @return the contents of the manifest in this pack, or null if it does not have a valid manifest
+     */
+    private static @Nullable String readManifest(Path path) throws IOException {
+        AtomicReference<String> manifestReference = new AtomicReference<>();
 
         try (ZipFile zip = new ZipFile(path.toFile());
              Stream<? extends ZipEntry> stream = zip.stream()) {
@@ -134,30 +188,18 @@ public class ResourcePackLoader implements RegistryLoader<Path, Map<String, Reso
                             " Please rename it to be shorter, or reduce the amount of folders needed to get to the file.");
                 }
                 if (name.contains("manifest.json")) {
-                    try {
-                        GeyserResourcePackManifest manifest = FileUtils.loadJson(zip.getInputStream(x), GeyserResourcePackManifest.class);
+                    try (InputStream input = zip.getInputStream(x)) {
+                        String json = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                        GeyserResourcePackManifest manifest = GeyserImpl.JSON_MAPPER.readValue(json, GeyserResourcePackManifest.class);
                         if (manifest.header().uuid() != null) {
-                            manifestReference.set(manifest);
+                            manifestReference.set(json);
                         }
                     } catch (IOException e) {
                         e.printStackTrace();
                     }
                 }
             });
-
-            GeyserResourcePackManifest manifest = manifestReference.get();
-            if (manifest == null) {
-                throw new IllegalArgumentException(path.getFileName() + " does not contain a valid pack_manifest.json or manifest.json");
-            }
-
-            // Check if a file exists with the same name as the resource pack suffixed by .key,
-            // and set this as content key. (e.g. test.zip, key file would be test.zip.key)
-            Path keyFile = path.resolveSibling(path.getFileName().toString() + ".key");
-            String contentKey = Files.exists(keyFile) ? Files.readString(keyFile, StandardCharsets.UTF_8) : "";
-
-            return new GeyserResourcePack(new GeyserPathPackCodec(path), manifest, contentKey);
-        } catch (Exception e) {
-            throw new IllegalArgumentException(GeyserLocale.getLocaleStringLog("geyser.resource_pack.broken", path.getFileName()), e);
         }
+        return manifestReference.get();
     }
 }
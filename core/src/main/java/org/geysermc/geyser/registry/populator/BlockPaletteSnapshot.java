@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.registry.populator;
+
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.nbt.NbtMap;
+import org.cloudburstmc.nbt.NbtMapBuilder;
+import org.geysermc.geyser.GeyserImpl;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of the work done to map the vanilla Java block states to a Bedrock block palette: the Bedrock block
+ * states as Geyser uses them, their runtime IDs, and the index of the Bedrock state of every Java block state.
+ * <p>
+ * The snapshot is written on the first start, and is used on later starts as long as the bundled mappings it was built
+ * from have not changed. Snapshots are not used when there are custom blocks, as those change the palette.
+ * <p>
+ * The file is a flat layout that is read straight from memory: a header, the two int arrays, a table of every string
+ * the block states use, and then each block state as indices into that table.
+ */
+record BlockPaletteSnapshot(List<NbtMap> blockStates, int[] runtimeIds, int[] javaToBedrock) {
+    private static final int MAGIC = 0x47425032; // GBP2
+    private static final int HASH_LENGTH = 32;
+    /**
+     * The types of block state property values; Bedrock only uses these three
+     */
+    private static final byte TYPE_BYTE = 0;
+    private static final byte TYPE_INT = 1;
+    private static final byte TYPE_STRING = 2;
+
+    /**
+     * @return the snapshot for this palette, or null if there is none or it is out of date
+     */
+    static @Nullable BlockPaletteSnapshot read(String paletteKey, int javaBlockCount) {
+        Path file = file(paletteKey);
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(file)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            byte[] hash = new byte[HASH_LENGTH];
+            buffer.get(hash);
+            if (!MessageDigest.isEqual(hash, inputHash(paletteKey))) {
+                GeyserImpl.getInstance().getLogger().debug("Block palette snapshot " + file + " is out of date");
+                return null;
+            }
+
+            int stateCount = buffer.getInt();
+            if (buffer.getInt() != javaBlockCount) {
+                return null;
+            }
+            int[] runtimeIds = readInts(buffer, stateCount);
+            int[] javaToBedrock = readInts(buffer, javaBlockCount);
+
+            String[] strings = new String[buffer.getInt()];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            List<NbtMap> blockStates = new ArrayList<>(stateCount);
+            for (int i = 0; i < stateCount; i++) {
+                String name = strings[buffer.getInt()];
+                NbtMapBuilder states = NbtMap.builder();
+                int propertyCount = buffer.get() & 0xFF;
+                for (int j = 0; j < propertyCount; j++) {
+                    String key = strings[buffer.getInt()];
+                    byte type = buffer.get();
+                    int value = buffer.getInt();
+                    if (type == TYPE_BYTE) {
+                        states.putByte(key, (byte) value);
+                    } else if (type == TYPE_INT) {
+                        states.putInt(key, value);
+                    } else if (type == TYPE_STRING) {
+                        states.putString(key, strings[value]);
+                    } else {
+                        return null;
+                    }
+                }
+                blockStates.add(NbtMap.builder()
+                        .putString("name", name)
+                        .putCompound("states", states.build())
+                        .build());
+            }
+            return new BlockPaletteSnapshot(blockStates, runtimeIds, javaToBedrock);
+        } catch (Exception e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not read block palette snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    void write(String paletteKey) {
+        Path file = file(paletteKey);
+        try {
+            // Every name, property key and string value, in the order they are first used
+            Object2IntMap<String> stringIndices = new Object2IntOpenHashMap<>();
+            stringIndices.defaultReturnValue(-1);
+            List<String> strings = new ArrayList<>();
+            for (NbtMap blockState : blockStates) {
+                addString(stringIndices, strings, blockState.getString("name"));
+                for (Map.Entry<String, Object> property : blockState.getCompound("states").entrySet()) {
+                    addString(stringIndices, strings, property.getKey());
+                    if (property.getValue() instanceof String value) {
+                        addString(stringIndices, strings, value);
+                    }
+                }
+            }
+
+            Files.createDirectories(file.getParent());
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                output.writeInt(MAGIC);
+                output.write(inputHash(paletteKey));
+                output.writeInt(blockStates.size());
+                output.writeInt(javaToBedrock.length);
+                writeInts(output, runtimeIds);
+                writeInts(output, javaToBedrock);
+
+                output.writeInt(strings.size());
+                for (String string : strings) {
+                    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                    output.writeShort(bytes.length);
+                    output.write(bytes);
+                }
+
+                for (NbtMap blockState : blockStates) {
+                    NbtMap states = blockState.getCompound("states");
+                    output.writeInt(stringIndices.getInt(blockState.getString("name")));
+                    output.writeByte(states.size());
+                    for (Map.Entry<String, Object> property : states.entrySet()) {
+                        output.writeInt(stringIndices.getInt(property.getKey()));
+                        Object value = property.getValue();
+                        if (value instanceof Byte b) {
+                            output.writeByte(TYPE_BYTE);
+                            output.writeInt(b);
+                        } else if (value instanceof Integer i) {
+                            output.writeByte(TYPE_INT);
+                            output.writeInt(i);
+                        } else if (value instanceof String string) {
+                            output.writeByte(TYPE_STRING);
+                            output.writeInt(stringIndices.getInt(string));
+                        } else {
+                            throw new IOException("Unsupported value for block state property " + property.getKey() + ": " + value);
+                        }
+                    }
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Could not write block palette snapshot " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static int[] readInts(ByteBuffer buffer, int length) {
+        int[] ints = new int[length];
+        buffer.asIntBuffer().get(ints);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return ints;
+    }
+
+    private static void writeInts(DataOutputStream output, int[] ints) throws IOException {
+        for (int i : ints) {
+            output.writeInt(i);
+        }
+    }
+
+    private static void addString(Object2IntMap<String> stringIndices, List<String> strings, String string) {
+        if (stringIndices.putIfAbsent(string, strings.size()) == -1) {
+            strings.add(string);
+        }
+    }
+
+    private static Path file(String paletteKey) {
+        return GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("registry")
+                .resolve("block_palette." + paletteKey + ".bin");
+    }
+
+    /**
+     * Hashes everything the snapshot is built from, so a snapshot from another Geyser build is never used.
+     */
+    private static byte[] inputHash(String paletteKey) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+
+        digest.update(GeyserImpl.COMMIT.getBytes());
+        for (String resource : List.of("bedrock/block_palette." + paletteKey + ".nbt", "mappings/blocks.nbt")) {
+            try (InputStream stream = new DigestInputStream(GeyserImpl.getInstance().getBootstrap().getResourceOrThrow(resource), digest)) {
+                stream.transferTo(OutputStream.nullOutputStream());
+            }
+        }
+        return digest.digest();
+    }
+}
@@ -55,6 +55,7 @@ import org.geysermc.geyser.registry.BlockRegistries;
 import org.geysermc.geyser.registry.Registries;
 import org.geysermc.geyser.registry.type.BlockMappings;
 import org.geysermc.geyser.registry.type.GeyserBedrockBlock;
+import org.geysermc.geyser.translator.level.block.entity.BedrockChunkWantsBlockEntityTag;
 import org.geysermc.geyser.util.BlockUtils;
 import org.geysermc.mcprotocollib.protocol.data.game.item.ItemStack;
 
@@ -85,19 +86,26 @@ public final class BlockRegistryPopulator {
         NbtMap remap(NbtMap tag);
     }
 
+    /**
+     * Runs a stage of population. Each stage depends on the previous one, so they must be run in order; work within a
+     * stage that is independent per palette version is run in parallel.
+     */
     public static void populate(Stage stage) {
-        switch (stage) {
-            case PRE_INIT, POST_INIT -> nullifyBlocksNbt();
-            case INIT_JAVA -> registerJavaBlocks();
-            case INIT_BEDROCK -> registerBedrockBlocks();
-            default -> throw new IllegalArgumentException("Unknown stage: " + stage);
-        }
+        PopulationStages.run("blocks/" + stage.name().toLowerCase(Locale.ROOT), () -> {
+            switch (stage) {
+                case PRE_INIT, POST_INIT -> nullifyBlocksNbt();
+                case INIT_JAVA -> registerJavaBlocks();
+                case INIT_BEDROCK -> registerBedrockBlocks();
+                default -> throw new IllegalArgumentException("Unknown stage: " + stage);
+            }
+        });
     }
 
     /**
      * Stores the raw blocks NBT until it is no longer needed.
      */
     private static List<NbtMap> BLOCKS_NBT;
+    private static final boolean USE_SNAPSHOTS = Boolean.parseBoolean(System.getProperty("Geyser.UseBlockPaletteSnapshots", "true"));
     private static int MIN_CUSTOM_RUNTIME_ID = -1;
     private static int JAVA_BLOCKS_SIZE = -1;
 
@@ -116,278 +124,355 @@ public final class BlockRegistryPopulator {
         //noinspection UnstableApiUsage
         Interner<NbtMap> statesInterner = Interners.newStrongInterner();
 
-        for (ObjectIntPair<String> palette : blockMappers.keySet()) {
-            int protocolVersion = palette.valueInt();
-            List<NbtMap> vanillaBlockStates;
-            List<NbtMap> blockStates;
-            Int2ObjectMap<NbtMap> blockStatsMap = new Int2ObjectOpenHashMap<>();
-            try (InputStream stream = GeyserImpl.getInstance().getBootstrap().getResourceOrThrow(String.format("bedrock/block_palette.%s.nbt", palette.key()));
-                NBTInputStream nbtInputStream = new NBTInputStream(new DataInputStream(new GZIPInputStream(stream)), true, true)) {
-                NbtMap blockPalette = (NbtMap) nbtInputStream.readTag();
-
-                vanillaBlockStates = new ArrayList<>(blockPalette.getList("blocks", NbtType.COMPOUND));
-                for (int i = 0; i < vanillaBlockStates.size(); i++) {
-                    NbtMapBuilder builder = vanillaBlockStates.get(i).toBuilder();
-                    builder.remove("version"); // Remove all nbt tags which are not needed for differentiating states
-                    builder.remove("name_hash"); // Quick workaround - was added in 1.19.20
-                    builder.remove("network_id"); // Added in 1.19.80
-                    builder.remove("block_id"); // Added in 1.20.60
-                    //noinspection UnstableApiUsage
-                    builder.putCompound("states", statesInterner.intern((NbtMap) builder.remove("states")));
-                    vanillaBlockStates.set(i, builder.build());
+        List<ObjectIntPair<String>> palettes = List.copyOf(blockMappers.keySet());
+        List<BlockMappings> mappings = PopulationStages.forEachVersion("blocks/init_bedrock", palettes, ObjectIntPair::key,
+                palette -> registerBedrockBlocks(palette, blockMappers.get(palette), statesInterner));
+
+        // Registries aren't thread safe, so the results are registered once every version is done
+        for (int i = 0; i < palettes.size(); i++) {
+            BlockRegistries.BLOCKS.register(palettes.get(i).valueInt(), mappings.get(i));
+        }
+    }
+
+    private static BlockMappings registerBedrockBlocks(ObjectIntPair<String> palette, Remapper stateMapper, Interner<NbtMap> statesInterner) {
+        int protocolVersion = palette.valueInt();
+        List<NbtMap> vanillaBlockStates;
+        List<NbtMap> blockStates;
+        Int2ObjectMap<NbtMap> blockStatsMap = new Int2ObjectOpenHashMap<>();
+
+        // Custom blocks change the palette, so it can only be restored from a snapshot without them
+        boolean useSnapshot = USE_SNAPSHOTS && BlockRegistries.CUSTOM_BLOCKS.get().length == 0
+                && BlockRegistries.CUSTOM_BLOCK_STATE_OVERRIDES.get().isEmpty()
+                && BlockRegistries.NON_VANILLA_BLOCK_STATE_OVERRIDES.get().isEmpty();
+        BlockPaletteSnapshot snapshot = useSnapshot ? BlockPaletteSnapshot.read(palette.key(), BLOCKS_NBT.size()) : null;
+
+        try {
+            if (snapshot != null) {
+                vanillaBlockStates = new ArrayList<>(snapshot.blockStates());
+            } else {
+                try (InputStream stream = GeyserImpl.getInstance().getBootstrap().getResourceOrThrow(String.format("bedrock/block_palette.%s.nbt", palette.key()));
+                     NBTInputStream nbtInputStream = new NBTInputStream(new DataInputStream(new GZIPInputStream(stream)), true, true)) {
+                    NbtMap blockPalette = (NbtMap) nbtInputStream.readTag();
+                    vanillaBlockStates = new ArrayList<>(blockPalette.getList("blocks", NbtType.COMPOUND));
                 }
+            }
 
-                blockStates = new ArrayList<>(vanillaBlockStates);
-            } catch (Exception e) {
-                throw new AssertionError("Unable to get blocks from runtime block states", e);
+            for (int i = 0; i < vanillaBlockStates.size(); i++) {
+                NbtMapBuilder builder = vanillaBlockStates.get(i).toBuilder();
+                builder.remove("version"); // Remove all nbt tags which are not needed for differentiating states
+                builder.remove("name_hash"); // Quick workaround - was added in 1.19.20
+                builder.remove("network_id"); // Added in 1.19.80
+                builder.remove("block_id"); // Added in 1.20.60
+                //noinspection UnstableApiUsage
+                builder.putCompound("states", statesInterner.intern((NbtMap) builder.remove("states")));
+                vanillaBlockStates.set(i, builder.build());
             }
 
-            List<BlockPropertyData> customBlockProperties = new ArrayList<>();
-            List<NbtMap> customBlockStates = new ArrayList<>();
-            List<CustomBlockState> customExtBlockStates = new ArrayList<>();
-            int[] remappedVanillaIds = new int[0];
-            if (BlockRegistries.CUSTOM_BLOCKS.get().length != 0) {
+            blockStates = new ArrayList<>(vanillaBlockStates);
+        } catch (Exception e) {
+            throw new AssertionError("Unable to get blocks from runtime block states", e);
+        }
+
+        List<BlockPropertyData> customBlockProperties = new ArrayList<>();
+        List<NbtMap> customBlockStates = new ArrayList<>();
+        List<CustomBlockState> customExtBlockStates = new ArrayList<>();
+        int[] remappedVanillaIds = new int[0];
+        if (BlockRegistries.CUSTOM_BLOCKS.get().length != 0) {
+            // Custom block IDs are counted from the same start for every version
+            synchronized (CustomBlockRegistryPopulator.BLOCK_ID) {
                 CustomBlockRegistryPopulator.BLOCK_ID.set(CustomBlockRegistryPopulator.START_OFFSET);
                 for (CustomBlockData customBlock : BlockRegistries.CUSTOM_BLOCKS.get()) {
                     customBlockProperties.add(CustomBlockRegistryPopulator.generateBlockPropertyData(customBlock, protocolVersion));
                     CustomBlockRegistryPopulator.generateCustomBlockStates(customBlock, customBlockStates, customExtBlockStates);
                 }
-                blockStates.addAll(customBlockStates);
-                GeyserImpl.getInstance().getLogger().debug("Added " + customBlockStates.size() + " custom block states to v" + protocolVersion + " palette.");
-
-                // The palette is sorted by the FNV1 64-bit hash of the name
-                blockStates.sort((a, b) -> Long.compareUnsigned(fnv164(a.getString("name")), fnv164(b.getString("name"))));
             }
+            blockStates.addAll(customBlockStates);
+            GeyserImpl.getInstance().getLogger().debug("Added " + customBlockStates.size() + " custom block states to v" + protocolVersion + " palette.");
 
-            // New since 1.16.100 - find the block runtime ID by the order given to us in the block palette,
-            // as we no longer send a block palette
-            Object2ObjectMap<NbtMap, GeyserBedrockBlock> blockStateOrderedMap = new Object2ObjectOpenHashMap<>(blockStates.size());
-            Int2ObjectOpenHashMap<GeyserBedrockBlock> bedrockRuntimeMap = new Int2ObjectOpenHashMap<>(blockStates.size());
-            for (int i = 0; i < blockStates.size(); i++) {
-                NbtMap tag = blockStates.get(i);
-                if (blockStateOrderedMap.containsKey(tag)) {
-                    throw new AssertionError("Duplicate block states in Bedrock palette: " + tag);
-                }
-                GeyserBedrockBlock block = new GeyserBedrockBlock(tag);
-                blockStateOrderedMap.put(tag, block);
-                bedrockRuntimeMap.put(block.getRuntimeId(), block);
-                blockStatsMap.put(block.getRuntimeId(), tag);
+            // The palette is sorted by the FNV1 64-bit hash of the name
+            blockStates.sort((a, b) -> Long.compareUnsigned(fnv164(a.getString("name")), fnv164(b.getString("name"))));
+        }
+
+        // New since 1.16.100 - find the block runtime ID by the order given to us in the block palette,
+        // as we no longer send a block palette
+        Object2ObjectMap<NbtMap, GeyserBedrockBlock> blockStateOrderedMap = new Object2ObjectOpenHashMap<>(blockStates.size());
+        Int2ObjectOpenHashMap<GeyserBedrockBlock> bedrockRuntimeMap = new Int2ObjectOpenHashMap<>(blockStates.size());
+        GeyserBedrockBlock[] paletteBlocks = new GeyserBedrockBlock[blockStates.size()];
+        for (int i = 0; i < blockStates.size(); i++) {
+            NbtMap tag = blockStates.get(i);
+            if (blockStateOrderedMap.containsKey(tag)) {
+                throw new AssertionError("Duplicate block states in Bedrock palette: " + tag);
             }
-            bedrockRuntimeMap.trim();
-
-            Object2ObjectMap<CustomBlockState, GeyserBedrockBlock> customBlockStateDefinitions = Object2ObjectMaps.emptyMap();
-            Int2ObjectMap<GeyserBedrockBlock> extendedCollisionBoxes = new Int2ObjectOpenHashMap<>();
-            if (BlockRegistries.CUSTOM_BLOCKS.get().length != 0) {
-                customBlockStateDefinitions = new Object2ObjectOpenHashMap<>(customExtBlockStates.size());
-                for (int i = 0; i < customExtBlockStates.size(); i++) {
-                    NbtMap tag = customBlockStates.get(i);
-                    CustomBlockState blockState = customExtBlockStates.get(i);
-                    GeyserBedrockBlock bedrockBlock = blockStateOrderedMap.get(tag);
-                    customBlockStateDefinitions.put(blockState, bedrockBlock);
-
-                    Set<Integer> extendedCollisionjavaIds = BlockRegistries.EXTENDED_COLLISION_BOXES.getOrDefault(blockState.block(), null);
-                    if (extendedCollisionjavaIds != null) {
-                        for (int javaId : extendedCollisionjavaIds) {
-                            extendedCollisionBoxes.put(javaId, bedrockBlock);
-                        }
+            GeyserBedrockBlock block = snapshot != null ? new GeyserBedrockBlock(tag, snapshot.runtimeIds()[i]) : new GeyserBedrockBlock(tag);
+            paletteBlocks[i] = block;
+            blockStateOrderedMap.put(tag, block);
+            bedrockRuntimeMap.put(block.getRuntimeId(), block);
+            blockStatsMap.put(block.getRuntimeId(), tag);
+        }
+        bedrockRuntimeMap.trim();
+
+        Object2ObjectMap<CustomBlockState, GeyserBedrockBlock> customBlockStateDefinitions = Object2ObjectMaps.emptyMap();
+        Int2ObjectMap<GeyserBedrockBlock> extendedCollisionBoxes = new Int2ObjectOpenHashMap<>();
+        if (BlockRegistries.CUSTOM_BLOCKS.get().length != 0) {
+            customBlockStateDefinitions = new Object2ObjectOpenHashMap<>(customExtBlockStates.size());
+            for (int i = 0; i < customExtBlockStates.size(); i++) {
+                NbtMap tag = customBlockStates.get(i);
+                CustomBlockState blockState = customExtBlockStates.get(i);
+                GeyserBedrockBlock bedrockBlock = blockStateOrderedMap.get(tag);
+                customBlockStateDefinitions.put(blockState, bedrockBlock);
+
+                Set<Integer> extendedCollisionjavaIds = BlockRegistries.EXTENDED_COLLISION_BOXES.getOrDefault(blockState.block(), null);
+                if (extendedCollisionjavaIds != null) {
+                    for (int javaId : extendedCollisionjavaIds) {
+                        extendedCollisionBoxes.put(javaId, bedrockBlock);
                     }
                 }
-
-                remappedVanillaIds = new int[vanillaBlockStates.size()];
-                for (int i = 0; i < vanillaBlockStates.size(); i++) {
-                    GeyserBedrockBlock bedrockBlock = blockStateOrderedMap.get(vanillaBlockStates.get(i));
-                    remappedVanillaIds[i] = bedrockBlock != null ? bedrockBlock.getRuntimeId() : -1;
-                }
             }
 
-            int javaRuntimeId = -1;
+            remappedVanillaIds = new int[vanillaBlockStates.size()];
+            for (int i = 0; i < vanillaBlockStates.size(); i++) {
+                GeyserBedrockBlock bedrockBlock = blockStateOrderedMap.get(vanillaBlockStates.get(i));
+                remappedVanillaIds[i] = bedrockBlock != null ? bedrockBlock.getRuntimeId() : -1;
+            }
+        }
 
-            List<BlockState> javaBlockStates = BlockRegistries.BLOCK_STATES.get();
+        int javaRuntimeId = -1;
 
-            GeyserBedrockBlock airDefinition = null;
-            BlockDefinition commandBlockDefinition = null;
-            BlockDefinition mobSpawnerBlockDefinition = null;
-            BlockDefinition waterDefinition = null;
-            BlockDefinition movingBlockDefinition = null;
-            Iterator<NbtMap> blocksIterator = BLOCKS_NBT.iterator();
+        List<BlockState> javaBlockStates = BlockRegistries.BLOCK_STATES.get();
 
-            Remapper stateMapper = blockMappers.get(palette);
+        GeyserBedrockBlock airDefinition = null;
+        BlockDefinition commandBlockDefinition = null;
+        BlockDefinition mobSpawnerBlockDefinition = null;
+        BlockDefinition waterDefinition = null;
+        BlockDefinition movingBlockDefinition = null;
+        Iterator<NbtMap> blocksIterator = BLOCKS_NBT.iterator();
 
-            GeyserBedrockBlock[] javaToBedrockBlocks = new GeyserBedrockBlock[JAVA_BLOCKS_SIZE];
-            GeyserBedrockBlock[] javaToVanillaBedrockBlocks = new GeyserBedrockBlock[JAVA_BLOCKS_SIZE];
+        GeyserBedrockBlock[] javaToBedrockBlocks = new GeyserBedrockBlock[JAVA_BLOCKS_SIZE];
+        GeyserBedrockBlock[] javaToVanillaBedrockBlocks = new GeyserBedrockBlock[JAVA_BLOCKS_SIZE];
 
-            var javaToBedrockIdentifiers = new Int2ObjectOpenHashMap<String>();
-            Block lastBlockSeen = null;
+        var javaToBedrockIdentifiers = new Int2ObjectOpenHashMap<String>();
+        Block lastBlockSeen = null;
 
-            // Stream isn't ideal.
-            List<Block> javaPottable = BlockRegistries.JAVA_BLOCKS.get()
-                    .parallelStream()
-                    .flatMap(block -> {
-                        if (block instanceof FlowerPotBlock flowerPot && flowerPot.flower() != Blocks.AIR) {
-                            return Stream.of(flowerPot.flower());
-                        }
-                        return null;
-                    })
-                    .toList();
-            Map<Block, NbtMap> flowerPotBlocks = new Object2ObjectOpenHashMap<>();
-            Map<NbtMap, BlockDefinition> itemFrames = new Object2ObjectOpenHashMap<>();
-
-            Set<BlockDefinition> jigsawDefinitions = new ObjectOpenHashSet<>();
-            Map<String, BlockDefinition> structureBlockDefinitions = new Object2ObjectOpenHashMap<>();
-
-            BlockMappings.BlockMappingsBuilder builder = BlockMappings.builder();
-            while (blocksIterator.hasNext()) {
-                javaRuntimeId++;
-                NbtMap entry = blocksIterator.next();
-                BlockState blockState = javaBlockStates.get(javaRuntimeId);
-                String javaId = blockState.toString();
-
-                NbtMap originalBedrockTag = buildBedrockState(blockState, entry);
-                NbtMap bedrockTag = stateMapper.remap(originalBedrockTag);
-
-                GeyserBedrockBlock vanillaBedrockDefinition = blockStateOrderedMap.get(bedrockTag);
-
-                GeyserBedrockBlock bedrockDefinition;
-                CustomBlockState blockStateOverride = BlockRegistries.CUSTOM_BLOCK_STATE_OVERRIDES.get(javaRuntimeId);
-                if (blockStateOverride == null) {
-                    bedrockDefinition = vanillaBedrockDefinition;
-                    if (bedrockDefinition == null) {
-                        throw new RuntimeException("""
-                            Unable to find %s Bedrock runtime ID for %s! Original block tag:
-                            %s
-                            Updated block tag:
-                            %s""".formatted(javaId, palette.key(), originalBedrockTag, bedrockTag));
-                    }
-                } else {
-                    bedrockDefinition = customBlockStateDefinitions.get(blockStateOverride);
-                    if (bedrockDefinition == null) {
-                        throw new RuntimeException("Unable to find " + javaId + " Bedrock runtime ID! Custom block override: \n" +
-                            blockStateOverride);
+        // Stream isn't ideal.
+        List<Block> javaPottable = BlockRegistries.JAVA_BLOCKS.get()
+                .parallelStream()
+                .flatMap(block -> {
+                    if (block instanceof FlowerPotBlock flowerPot && flowerPot.flower() != Blocks.AIR) {
+                        return Stream.of(flowerPot.flower());
                     }
-                }
-
-                switch (javaId) {
-                    case "minecraft:air" -> airDefinition = bedrockDefinition;
-                    case "minecraft:water[level=0]" -> waterDefinition = bedrockDefinition;
-                    case "minecraft:command_block[conditional=false,facing=north]" -> commandBlockDefinition = bedrockDefinition;
-                    case "minecraft:spawner" -> mobSpawnerBlockDefinition = bedrockDefinition;
-                    case "minecraft:moving_piston[facing=north,type=normal]" -> movingBlockDefinition = bedrockDefinition;
-                }
+                    return null;
+                })
+                .toList();
+        Map<Block, NbtMap> flowerPotBlocks = new Object2ObjectOpenHashMap<>();
+        Map<NbtMap, BlockDefinition> itemFrames = new Object2ObjectOpenHashMap<>();
+
+        Set<BlockDefinition> jigsawDefinitions = new ObjectOpenHashSet<>();
+        Map<String, BlockDefinition> structureBlockDefinitions = new Object2ObjectOpenHashMap<>();
+
+        // The index of the Bedrock state of every Java state, for a new snapshot
+        int[] javaToPaletteIndex = useSnapshot && snapshot == null ? new int[BLOCKS_NBT.size()] : null;
+        Reference2IntMap<GeyserBedrockBlock> paletteIndices = null;
+        if (javaToPaletteIndex != null) {
+            paletteIndices = new Reference2IntOpenHashMap<>(paletteBlocks.length);
+            for (int i = 0; i < paletteBlocks.length; i++) {
+                paletteIndices.put(paletteBlocks[i], i);
+            }
+        }
 
-                Block block = blockState.block();
-                if (block != lastBlockSeen) {
-                    lastBlockSeen = block;
-                    String bedrockName = bedrockDefinition.getState().getString("name");
-                    if (!block.javaIdentifier().toString().equals(bedrockName)) {
-                        javaToBedrockIdentifiers.put(block.javaId(), bedrockName.substring("minecraft:".length()).intern());
-                    }
-                }
+        BlockMappings.BlockMappingsBuilder builder = BlockMappings.builder();
+        while (blocksIterator.hasNext()) {
+            javaRuntimeId++;
+            NbtMap entry = blocksIterator.next();
+            BlockState blockState = javaBlockStates.get(javaRuntimeId);
+            String javaId = blockState.toString();
+
+            GeyserBedrockBlock vanillaBedrockDefinition;
+            if (snapshot != null) {
+                vanillaBedrockDefinition = paletteBlocks[snapshot.javaToBedrock()[javaRuntimeId]];
+            } else {
+                vanillaBedrockDefinition = blockStateOrderedMap.get(stateMapper.remap(buildBedrockState(blockState, entry)));
+            }
 
-                if (block == Blocks.JIGSAW) {
-                    jigsawDefinitions.add(bedrockDefinition);
+            GeyserBedrockBlock bedrockDefinition;
+            CustomBlockState blockStateOverride = BlockRegistries.CUSTOM_BLOCK_STATE_OVERRIDES.get(javaRuntimeId);
+            if (blockStateOverride == null) {
+                bedrockDefinition = vanillaBedrockDefinition;
+                if (bedrockDefinition == null) {
+                    NbtMap originalBedrockTag = buildBedrockState(blockState, entry);
+                    NbtMap bedrockTag = stateMapper.remap(originalBedrockTag);
+                    throw new RuntimeException("""
+                        Unable to find %s Bedrock runtime ID for %s! Original block tag:
+                        %s
+                        Updated block tag:
+                        %s""".formatted(javaId, palette.key(), originalBedrockTag, bedrockTag));
                 }
-
-                if (block == Blocks.STRUCTURE_BLOCK) {
-                    String mode = blockState.getValue(Properties.STRUCTUREBLOCK_MODE);
-                    structureBlockDefinitions.put(mode.toUpperCase(Locale.ROOT), bedrockDefinition);
+            } else {
+                bedrockDefinition = customBlockStateDefinitions.get(blockStateOverride);
+                if (bedrockDefinition == null) {
+                    throw new RuntimeException("Unable to find " + javaId + " Bedrock runtime ID! Custom block override: \n" +
+                        blockStateOverride);
                 }
+            }
 
-                boolean waterlogged = blockState.getValue(Properties.WATERLOGGED, false)
-                        || block == Blocks.BUBBLE_COLUMN || block == Blocks.KELP || block == Blocks.KELP_PLANT
-                        || block == Blocks.SEAGRASS || block == Blocks.TALL_SEAGRASS;
-
-                if (waterlogged) {
-                    BlockRegistries.WATERLOGGED.get().set(javaRuntimeId);
-                }
+            switch (javaId) {
+                case "minecraft:air" -> airDefinition = bedrockDefinition;
+                case "minecraft:water[level=0]" -> waterDefinition = bedrockDefinition;
+                case "minecraft:command_block[conditional=false,facing=north]" -> commandBlockDefinition = bedrockDefinition;
+                case "minecraft:spawner" -> mobSpawnerBlockDefinition = bedrockDefinition;
+                case "minecraft:moving_piston[facing=north,type=normal]" -> movingBlockDefinition = bedrockDefinition;
+            }
 
-                // Get the tag needed for non-empty flower pots
-                if (javaPottable.contains(block)) {
-                    // Specifically NOT putIfAbsent - mangrove propagule breaks otherwise
-                    flowerPotBlocks.put(block, bedrockDefinition.getState());
+            Block block = blockState.block();
+            if (block != lastBlockSeen) {
+                lastBlockSeen = block;
+                String bedrockName = bedrockDefinition.getState().getString("name");
+                if (!block.javaIdentifier().toString().equals(bedrockName)) {
+                    javaToBedrockIdentifiers.put(block.javaId(), bedrockName.substring("minecraft:".length()).intern());
                 }
+            }
 
-                javaToVanillaBedrockBlocks[javaRuntimeId] = vanillaBedrockDefinition;
-                javaToBedrockBlocks[javaRuntimeId] = bedrockDefinition;
+            if (block == Blocks.JIGSAW) {
+                jigsawDefinitions.add(bedrockDefinition);
             }
 
-            if (commandBlockDefinition == null) {
-                throw new AssertionError("Unable to find command block in palette");
+            if (block == Blocks.STRUCTURE_BLOCK) {
+                String mode = blockState.getValue(Properties.STRUCTUREBLOCK_MODE);
+                structureBlockDefinitions.put(mode.toUpperCase(Locale.ROOT), bedrockDefinition);
             }
-            builder.commandBlock(commandBlockDefinition);
 
-            if (mobSpawnerBlockDefinition == null) {
-                throw new AssertionError("Unable to find mob spawner block in palette");
+            boolean waterlogged = blockState.getValue(Properties.WATERLOGGED, false)
+                    || block == Blocks.BUBBLE_COLUMN || block == Blocks.KELP || block == Blocks.KELP_PLANT
+                    || block == Blocks.SEAGRASS || block == Blocks.TALL_SEAGRASS;
+
+            if (waterlogged) {
+                // Every version sets the same bits, but BitSet is not safe to modify concurrently
+                synchronized (BlockRegistries.WATERLOGGED) {
+                    BlockRegistries.WATERLOGGED.get().set(javaRuntimeId);
+                }
             }
-            builder.mobSpawnerBlock(mobSpawnerBlockDefinition);
 
-            if (waterDefinition  == null) {
-                throw new AssertionError("Unable to find water in palette");
+            // Get the tag needed for non-empty flower pots
+            if (javaPottable.contains(block)) {
+                // Specifically NOT putIfAbsent - mangrove propagule breaks otherwise
+                flowerPotBlocks.put(block, bedrockDefinition.getState());
             }
-            builder.bedrockWater(waterDefinition);
 
-            if (airDefinition  == null) {
-                throw new AssertionError("Unable to find air in palette");
+            javaToVanillaBedrockBlocks[javaRuntimeId] = vanillaBedrockDefinition;
+            javaToBedrockBlocks[javaRuntimeId] = bedrockDefinition;
+            if (javaToPaletteIndex != null) {
+                javaToPaletteIndex[javaRuntimeId] = paletteIndices.getInt(vanillaBedrockDefinition);
             }
-            builder.bedrockAir(airDefinition);
+        }
 
-            if (movingBlockDefinition  == null) {
-                throw new AssertionError("Unable to find moving block in palette");
+        if (javaToPaletteIndex != null) {
+            int[] runtimeIds = new int[paletteBlocks.length];
+            for (int i = 0; i < paletteBlocks.length; i++) {
+                runtimeIds[i] = paletteBlocks[i].getRuntimeId();
             }
-            builder.bedrockMovingBlock(movingBlockDefinition);
-
-            Map<JavaBlockState, CustomBlockState> nonVanillaStateOverrides = BlockRegistries.NON_VANILLA_BLOCK_STATE_OVERRIDES.get();
-            if (!nonVanillaStateOverrides.isEmpty()) {
-                // First ensure all non vanilla runtime IDs at minimum are air in case they aren't consecutive
-                Arrays.fill(javaToVanillaBedrockBlocks, MIN_CUSTOM_RUNTIME_ID, javaToVanillaBedrockBlocks.length, airDefinition);
-                Arrays.fill(javaToBedrockBlocks, MIN_CUSTOM_RUNTIME_ID, javaToBedrockBlocks.length, airDefinition);
-
-                for (Map.Entry<JavaBlockState, CustomBlockState> entry : nonVanillaStateOverrides.entrySet()) {
-                    GeyserBedrockBlock bedrockDefinition = customBlockStateDefinitions.get(entry.getValue());
-                    if (bedrockDefinition == null) {
-                        GeyserImpl.getInstance().getLogger().warning("Unable to find custom block for " + entry.getValue());
-                        continue;
-                    }
+            new BlockPaletteSnapshot(vanillaBlockStates, runtimeIds, javaToPaletteIndex).write(palette.key());
+        }
 
-                    JavaBlockState javaState = entry.getKey();
-                    int stateRuntimeId = javaState.javaId();
+        if (commandBlockDefinition == null) {
+            throw new AssertionError("Unable to find command block in palette");
+        }
+        builder.commandBlock(commandBlockDefinition);
 
-                    boolean waterlogged = javaState.waterlogged();
+        if (mobSpawnerBlockDefinition == null) {
+            throw new AssertionError("Unable to find mob spawner block in palette");
+        }
+        builder.mobSpawnerBlock(mobSpawnerBlockDefinition);
+
+        if (waterDefinition  == null) {
+            throw new AssertionError("Unable to find water in palette");
+        }
+        builder.bedrockWater(waterDefinition);
+
+        if (airDefinition  == null) {
+            throw new AssertionError("Unable to find air in palette");
+        }
+        builder.bedrockAir(airDefinition);
 
-                    if (waterlogged) {
+        if (movingBlockDefinition  == null) {
+            throw new AssertionError("Unable to find moving block in palette");
+        }
+        builder.bedrockMovingBlock(movingBlockDefinition);
+
+        Map<JavaBlockState, CustomBlockState> nonVanillaStateOverrides = BlockRegistries.NON_VANILLA_BLOCK_STATE_OVERRIDES.get();
+        if (!nonVanillaStateOverrides.isEmpty()) {
+            // First ensure all non vanilla runtime IDs at minimum are air in case they aren't consecutive
+            Arrays.fill(javaToVanillaBedrockBlocks, MIN_CUSTOM_RUNTIME_ID, javaToVanillaBedrockBlocks.length, airDefinition);
+            Arrays.fill(javaToBedrockBlocks, MIN_CUSTOM_RUNTIME_ID, javaToBedrockBlocks.length, airDefinition);
+
+            for (Map.Entry<JavaBlockState, CustomBlockState> entry : nonVanillaStateOverrides.entrySet()) {
+                GeyserBedrockBlock bedrockDefinition = customBlockStateDefinitions.get(entry.getValue());
+                if (bedrockDefinition == null) {
+                    GeyserImpl.getInstance().getLogger().warning("Unable to find custom block for " + entry.getValue());
+                    continue;
+                }
+
+                JavaBlockState javaState = entry.getKey();
+                int stateRuntimeId = javaState.javaId();
+
+                boolean waterlogged = javaState.waterlogged();
+
+                if (waterlogged) {
+                    synchronized (BlockRegistries.WATERLOGGED) {
                         BlockRegistries.WATERLOGGED.register(set -> set.set(stateRuntimeId));
                     }
-
-                    javaToVanillaBedrockBlocks[stateRuntimeId] = bedrockDefinition; // TODO: Check this?
-                    javaToBedrockBlocks[stateRuntimeId] = bedrockDefinition;
-                    javaToBedrockIdentifiers.put(entry.getKey().stateGroupId(), entry.getValue().block().identifier());
                 }
+
+                javaToVanillaBedrockBlocks[stateRuntimeId] = bedrockDefinition; // TODO: Check this?
+                javaToBedrockBlocks[stateRuntimeId] = bedrockDefinition;
+                javaToBedrockIdentifiers.put(entry.getKey().stateGroupId(), entry.getValue().block().identifier());
             }
+        }
 
-            javaToBedrockIdentifiers.trim();
+        javaToBedrockIdentifiers.trim();
 
-            // Loop around again to find all item frame runtime IDs
-            Object2ObjectMaps.fastForEach(blockStateOrderedMap, entry -> {
-                String name = entry.getKey().getString("name");
-                if (name.equals("minecraft:frame") || name.equals("minecraft:glow_frame")) {
-                    itemFrames.put(entry.getKey(), entry.getValue());
-                }
-            });
-
-            BlockRegistries.BLOCKS.register(palette.valueInt(), builder.bedrockRuntimeMap(bedrockRuntimeMap)
-                    .javaToBedrockBlocks(javaToBedrockBlocks)
-                    .javaToVanillaBedrockBlocks(javaToVanillaBedrockBlocks)
-                    .javaToBedrockIdentifiers(javaToBedrockIdentifiers)
-                    .stateDefinitionMap(blockStateOrderedMap)
-                    .itemFrames(itemFrames)
-                    .flowerPotBlocks(flowerPotBlocks)
-                    .jigsawStates(jigsawDefinitions)
-                    .structureBlockStates(structureBlockDefinitions)
-                    .remappedVanillaIds(remappedVanillaIds)
-                    .blockProperties(customBlockProperties)
-                    .customBlockStateDefinitions(customBlockStateDefinitions)
-                    .extendedCollisionBoxes(extendedCollisionBoxes)
-                    .build());
+        BitSet waterloggedStates;
+        synchronized (BlockRegistries.WATERLOGGED) {
+            waterloggedStates = (BitSet) BlockRegistries.WATERLOGGED.get().clone();
+        }
+        long[] javaBlockData = new long[javaToBedrockBlocks.length];
+        for (int i = 0; i < javaToBedrockBlocks.length; i++) {
+            GeyserBedrockBlock definition = javaToBedrockBlocks[i];
+            long data = (definition == null ? airDefinition : definition).getRuntimeId() & 0xFFFFFFFFL;
+            if (waterloggedStates.get(i)) {
+                data |= BlockMappings.WATERLOGGED_FLAG;
+            }
+            if (extendedCollisionBoxes.containsKey(i)) {
+                data |= BlockMappings.EXTENDED_COLLISION_FLAG;
+            }
+            BlockState state = i < javaBlockStates.size() ? javaBlockStates.get(i) : null;
+            if (state != null && state.block() instanceof BedrockChunkWantsBlockEntityTag) {
+                data |= BlockMappings.BEDROCK_BLOCK_ENTITY_FLAG;
+            }
+            javaBlockData[i] = data;
         }
+
+        // Loop around again to find all item frame runtime IDs
+        Object2ObjectMaps.fastForEach(blockStateOrderedMap, entry -> {
+            String name = entry.getKey().getString("name");
+            if (name.equals("minecraft:frame") || name.equals("minecraft:glow_frame")) {
+                itemFrames.put(entry.getKey(), entry.getValue());
+            }
+        });
+
+        return builder.bedrockRuntimeMap(bedrockRuntimeMap)
+                .javaToBedrockBlocks(javaToBedrockBlocks)
+                .javaToVanillaBedrockBlocks(javaToVanillaBedrockBlocks)
+                .javaToBedrockIdentifiers(javaToBedrockIdentifiers)
+                .stateDefinitionMap(blockStateOrderedMap)
+                .itemFrames(itemFrames)
+                .flowerPotBlocks(flowerPotBlocks)
+                .jigsawStates(jigsawDefinitions)
+                .structureBlockStates(structureBlockDefinitions)
+                .remappedVanillaIds(remappedVanillaIds)
+                .blockProperties(customBlockProperties)
+                .customBlockStateDefinitions(customBlockStateDefinitions)
+                .extendedCollisionBoxes(extendedCollisionBoxes)
+                .javaBlockData(javaBlockData)
+                .build();
     }
 
     private static void registerJavaBlocks() {
@@ -124,11 +124,14 @@ public class ItemRegistryPopulator {
             CustomItemRegistryPopulator.populate(items, customItems, nonVanillaCustomItems);
         }
 
-        // We can reduce some operations as Java information is the same across all palette versions
-        boolean firstMappingsPass = true;
+        // Non-vanilla custom items are registered as Java items, which can't be done concurrently
+        boolean parallel = nonVanillaCustomItems.isEmpty();
 
         /* Load item palette */
-        for (PaletteVersion palette : paletteVersions) {
+        List<ItemMappings> itemMappingsList = PopulationStages.forEachVersion("items", paletteVersions, PaletteVersion::version, parallel, palette -> {
+            // We can reduce some operations as Java information is the same across all palette versions
+            boolean firstMappingsPass = palette == paletteVersions.get(0);
+
             TypeReference<List<PaletteItem>> paletteEntriesType = new TypeReference<>() {
             };
 
@@ -558,9 +561,11 @@ public class ItemRegistryPopulator {
                     .customBlockItemDefinitions(customBlockItemDefinitions)
                     .build();
 
-            Registries.ITEMS.register(palette.protocolVersion(), itemMappings);
+            return itemMappings;
+        });
 
-            firstMappingsPass = false;
+        for (int i = 0; i < paletteVersions.size(); i++) {
+            Registries.ITEMS.register(paletteVersions.get(i).protocolVersion(), itemMappingsList.get(i));
         }
     }
 
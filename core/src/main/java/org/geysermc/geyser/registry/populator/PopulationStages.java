@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.registry.populator;
+
+import org.geysermc.geyser.GeyserLogger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs the parts of registry population that are independent for each palette version on the common fork-join pool,
+ * and records how long each stage took so it can be reported once Geyser has started.
+ */
+public final class PopulationStages {
+    private static final boolean PARALLEL = Boolean.parseBoolean(System.getProperty("Geyser.ParallelRegistryPopulation", "true"));
+
+    private static final Map<String, Long> TIMINGS = Collections.synchronizedMap(new LinkedHashMap<>());
+
+    private PopulationStages() {
+    }
+
+    static void run(String stage, Runnable task) {
+        long start = System.nanoTime();
+        task.run();
+        TIMINGS.put(stage, System.nanoTime() - start);
+    }
+
+    /**
+     * Runs the task for every palette version and waits for all of them to finish. The tasks must not depend on each
+     * other, or modify shared state without synchronizing on it.
+     *
+     * @param stage the name of the stage, used for the timing report
+     * @param versions the palette versions to run the task for
+     * @param name the name of a palette version, used for the timing report
+     * @return the results of the task, in the same order as the versions
+     */
+    static <V, R> List<R> forEachVersion(String stage, List<V> versions, Function<V, String> name, Function<V, R> task) {
+        return forEachVersion(stage, versions, name, true, task);
+    }
+
+    /**
+     * @param parallel whether the task may be run for multiple versions at once
+     * @see #forEachVersion(String, List, Function, Function)
+     */
+    static <V, R> List<R> forEachVersion(String stage, List<V> versions, Function<V, String> name, boolean parallel,
+                                         Function<V, R> task) {
+        List<ForkJoinTask<R>> tasks = new ArrayList<>(versions.size());
+        for (V version : versions) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                long start = System.nanoTime();
+                R result = task.apply(version);
+                TIMINGS.put(stage + "/" + name.apply(version), System.nanoTime() - start);
+                return result;
+            }));
+        }
+
+        if (PARALLEL && parallel) {
+            ForkJoinTask.invokeAll(tasks);
+        } else {
+            tasks.forEach(ForkJoinTask::invoke);
+        }
+
+        List<R> results = new ArrayList<>(tasks.size());
+        for (ForkJoinTask<R> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    public static void logTimings(GeyserLogger logger) {
+        synchronized (TIMINGS) {
+            TIMINGS.forEach((stage, nanos) -> logger.debug("Registry population stage " + stage + " took "
+                    + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms"));
+        }
+    }
+}
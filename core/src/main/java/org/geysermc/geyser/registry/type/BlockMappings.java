@@ -45,6 +45,19 @@ import java.util.Set;
 @Builder
 @Value
 public class BlockMappings implements DefinitionRegistry<BlockDefinition> {
+    /**
+     * Set in {@link #getJavaBlockData(int)} if the Java block state is waterlogged.
+     */
+    public static final long WATERLOGGED_FLAG = 1L << 32;
+    /**
+     * Set in {@link #getJavaBlockData(int)} if the Java block state has an extended collision box above it.
+     */
+    public static final long EXTENDED_COLLISION_FLAG = 1L << 33;
+    /**
+     * Set in {@link #getJavaBlockData(int)} if the Java block state is a block entity only on Bedrock.
+     */
+    public static final long BEDROCK_BLOCK_ENTITY_FLAG = 1L << 34;
+
     GeyserBedrockBlock bedrockAir;
     BlockDefinition bedrockWater;
     BlockDefinition bedrockMovingBlock;
@@ -75,8 +88,25 @@ public class BlockMappings implements DefinitionRegistry<BlockDefinition> {
     Object2ObjectMap<CustomBlockState, GeyserBedrockBlock> customBlockStateDefinitions;
     Int2ObjectMap<GeyserBedrockBlock> extendedCollisionBoxes;
 
+    /**
+     * Java block ID -> the Bedrock runtime ID in the lower 32 bits, and the flags above.
+     * Lets chunk translation look up everything it needs about a block with a single array load.
+     */
+    long[] javaBlockData;
+
     public int getBedrockBlockId(int javaState) {
-        return getBedrockBlock(javaState).getRuntimeId();
+        return bedrockBlockId(getJavaBlockData(javaState));
+    }
+
+    public long getJavaBlockData(int javaState) {
+        if (javaState < 0 || javaState >= this.javaBlockData.length) {
+            return this.javaBlockData[Block.JAVA_AIR_ID];
+        }
+        return this.javaBlockData[javaState];
+    }
+
+    public static int bedrockBlockId(long javaBlockData) {
+        return (int) javaBlockData;
     }
 
     public GeyserBedrockBlock getBedrockBlock(int javaState) {
@@ -38,6 +38,11 @@ public class GeyserBedrockBlock implements BlockDefinition {
         this.state = state;
     }
 
+    public GeyserBedrockBlock(NbtMap state, int runtimeId) {
+        this.runtimeId = runtimeId;
+        this.state = state;
+    }
+
     @Override
     public int getRuntimeId() {
         return runtimeId;
@@ -25,6 +25,9 @@
 
 package org.geysermc.geyser.scoreboard;
 
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import net.kyori.adventure.text.Component;
@@ -33,9 +36,9 @@ import org.geysermc.mcprotocollib.protocol.data.game.chat.numbers.NumberFormat;
 import org.geysermc.mcprotocollib.protocol.data.game.scoreboard.ScoreboardPosition;
 import org.geysermc.mcprotocollib.protocol.data.game.scoreboard.TeamColor;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Getter
 public final class Objective {
@@ -53,10 +56,15 @@ public final class Objective {
     private NumberFormat numberFormat;
     private int type = 0; // 0 = integer, 1 = heart
 
-    private Map<String, Score> scores = new ConcurrentHashMap<>();
+    private Map<String, Score> scores = new Object2ObjectOpenHashMap<>();
+    /**
+     * Scores that have changed since this objective was last sent to the client
+     */
+    @Getter(AccessLevel.PACKAGE)
+    private final List<Score> dirtyScores = new ObjectArrayList<>();
 
     private Objective(Scoreboard scoreboard) {
-        this.id = scoreboard.getNextId().getAndIncrement();
+        this.id = scoreboard.nextId();
         this.scoreboard = scoreboard;
     }
 
@@ -91,7 +99,7 @@ public final class Objective {
 
     public void registerScore(String id, int score, Component displayName, NumberFormat numberFormat) {
         if (!scores.containsKey(id)) {
-            long scoreId = scoreboard.getNextId().getAndIncrement();
+            long scoreId = scoreboard.nextId();
             Score scoreObject = new Score(scoreId, id)
                     .setScore(score)
                     .setTeam(scoreboard.getTeamFor(id))
@@ -99,6 +107,7 @@ public final class Objective {
                     .setNumberFormat(numberFormat)
                     .setUpdateType(UpdateType.ADD);
             scores.put(id, scoreObject);
+            markDirty(scoreObject);
         }
     }
 
@@ -109,6 +118,7 @@ public final class Objective {
                     .setDisplayName(displayName)
                     .setNumberFormat(numberFormat)
                     .setUpdateType(UpdateType.UPDATE);
+            markDirty(stored);
             return;
         }
         registerScore(id, score, displayName, numberFormat);
@@ -118,7 +128,32 @@ public final class Objective {
         Score stored = scores.get(id);
         if (stored != null) {
             stored.setUpdateType(UpdateType.REMOVE);
+            markDirty(stored);
+        }
+    }
+
+    void markDirty(Score score) {
+        if (!score.isDirty()) {
+            score.setDirty(true);
+            dirtyScores.add(score);
+        }
+    }
+
+    /**
+     * Marks the score of the given entity as changed, for example because its team changed
+     */
+    void markDirty(String id) {
+        Score score = scores.get(id);
+        if (score != null) {
+            markDirty(score);
+        }
+    }
+
+    void clearDirtyScores() {
+        for (Score score : dirtyScores) {
+            score.setDirty(false);
         }
+        dirtyScores.clear();
     }
 
     /**
@@ -150,6 +185,7 @@ public final class Objective {
         for (Score score : scores.values()) {
             if (score.getNumberFormat() == null) {
                 score.setUpdateType(UpdateType.UPDATE);
+                markDirty(score);
             }
         }
 
@@ -29,7 +29,9 @@ import org.geysermc.mcprotocollib.protocol.data.game.chat.numbers.FixedFormat;
 import org.geysermc.mcprotocollib.protocol.data.game.chat.numbers.NumberFormat;
 import net.kyori.adventure.text.Component;
 import org.cloudburstmc.protocol.bedrock.data.ScoreInfo;
+import lombok.AccessLevel;
 import lombok.Getter;
+import lombok.Setter;
 import lombok.experimental.Accessors;
 import org.geysermc.geyser.text.ChatColor;
 import org.geysermc.geyser.translator.text.MessageTranslator;
@@ -51,6 +53,12 @@ public final class Score {
      * The data that is currently displayed to the Bedrock client.
      */
     private Score.ScoreData cachedData;
+    /**
+     * Whether this score is queued in its objective's list of changed scores
+     */
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private boolean dirty;
 
     public Score(long id, String name) {
         this.id = id;
@@ -178,7 +186,12 @@ public final class Score {
             name += " " + ChatColor.RESET + MessageTranslator.convertMessage(fixedFormat.getValue());
         }
 
-        cachedInfo = new ScoreInfo(id, objective.getObjectiveName(), cachedData.score, name);
+        // Keep the previous info if nothing visible changed, such as when only the team's internal state was updated
+        ScoreInfo previousInfo = cachedInfo;
+        if (previousInfo == null || previousInfo.getScore() != cachedData.score || !name.equals(previousInfo.getName())
+                || !objective.getObjectiveName().equals(previousInfo.getObjectiveId())) {
+            cachedInfo = new ScoreInfo(id, objective.getObjectiveName(), cachedData.score, name);
+        }
     }
 
     @Getter
@@ -43,8 +43,6 @@ import org.geysermc.mcprotocollib.protocol.data.game.scoreboard.ScoreboardPositi
 import org.jetbrains.annotations.Contract;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -56,13 +54,12 @@ public final class Scoreboard {
 
     private final GeyserSession session;
     private final GeyserLogger logger;
-    @Getter
-    private final AtomicLong nextId = new AtomicLong(0);
+    private long nextId = 0;
 
-    private final Map<String, Objective> objectives = new ConcurrentHashMap<>();
+    private final Map<String, Objective> objectives = new Object2ObjectOpenHashMap<>();
     @Getter
     private final Map<ScoreboardPosition, Objective> objectiveSlots = new EnumMap<>(ScoreboardPosition.class);
-    private final Map<String, Team> teams = new ConcurrentHashMap<>(); // updated on multiple threads
+    private final Map<String, Team> teams = new Object2ObjectOpenHashMap<>();
     /**
      * Required to preserve vanilla behavior, which also uses a map.
      * Otherwise, for example, if TAB has a team for a player and vanilla has a team, "race conditions" that do not
@@ -71,12 +68,34 @@ public final class Scoreboard {
     @Getter
     private final Map<String, Team> playerToTeam = new Object2ObjectOpenHashMap<>();
 
+    /**
+     * Teams that had their display data prepared during the current update
+     */
+    private final List<Team> updatingTeams = new ArrayList<>();
+
+    /**
+     * The amount of scores sent and removed in the last update, and over the lifetime of this scoreboard
+     */
+    @Getter
     private int lastAddScoreCount = 0;
+    @Getter
     private int lastRemoveScoreCount = 0;
+    @Getter
+    private long totalScoreChanges = 0;
+    @Getter
+    private long updates = 0;
 
     public Scoreboard(GeyserSession session) {
+        this(session, GeyserImpl.getInstance().getLogger());
+    }
+
+    Scoreboard(GeyserSession session, GeyserLogger logger) {
         this.session = session;
-        this.logger = GeyserImpl.getInstance().getLogger();
+        this.logger = logger;
+    }
+
+    public long nextId() {
+        return nextId++;
     }
 
     public void removeScoreboard() {
@@ -198,15 +217,15 @@ public final class Scoreboard {
         handleObjective(correctSidebar, addScores, removeScores);
         handleObjective(objectiveSlots.get(ScoreboardPosition.BELOW_NAME), addScores, removeScores);
 
-        Iterator<Team> teamIterator = teams.values().iterator();
-        while (teamIterator.hasNext()) {
-            Team current = teamIterator.next();
-
-            switch (current.getCachedUpdateType()) {
-                case ADD, UPDATE -> current.markUpdated();
-                case REMOVE -> teamIterator.remove();
+        // Only teams whose scores were updated can have changed
+        for (Team current : updatingTeams) {
+            if (current.getCachedUpdateType() == REMOVE) {
+                teams.remove(current.getId(), current);
+            } else {
+                current.markUpdated();
             }
         }
+        updatingTeams.clear();
 
         if (!removeScores.isEmpty()) {
             SetScorePacket setScorePacket = new SetScorePacket();
@@ -224,6 +243,8 @@ public final class Scoreboard {
 
         lastAddScoreCount = addScores.size();
         lastRemoveScoreCount = removeScores.size();
+        totalScoreChanges += lastAddScoreCount + lastRemoveScoreCount;
+        updates++;
     }
 
     private void handleObjective(Objective objective, List<ScoreInfo> addScores, List<ScoreInfo> removeScores) {
@@ -231,9 +252,42 @@ public final class Scoreboard {
             return;
         }
 
+        boolean objectiveAdd = objective.getUpdateType() == ADD;
+        boolean objectiveUpdate = objective.getUpdateType() == UPDATE;
+
+        collectScoreChanges(objective, addScores, removeScores);
+        // hearts objectives only send their scores
+        if (objective.getType() == 1) {
+            return;
+        }
+
+        if (objectiveUpdate) {
+            RemoveObjectivePacket removeObjectivePacket = new RemoveObjectivePacket();
+            removeObjectivePacket.setObjectiveId(objective.getObjectiveName());
+            session.sendUpstreamPacket(removeObjectivePacket);
+        }
+
+        if (objectiveAdd || objectiveUpdate) {
+            SetDisplayObjectivePacket displayObjectivePacket = new SetDisplayObjectivePacket();
+            displayObjectivePacket.setObjectiveId(objective.getObjectiveName());
+            displayObjectivePacket.setDisplayName(objective.getDisplayName());
+            displayObjectivePacket.setCriteria("dummy");
+            displayObjectivePacket.setDisplaySlot(objective.getDisplaySlotName());
+            displayObjectivePacket.setSortOrder(1); // 0 = ascending, 1 = descending
+            session.sendUpstreamPacket(displayObjectivePacket);
+        }
+
+        objective.setUpdateType(NOTHING);
+    }
+
+    /**
+     * Adds the scores of this objective that changed since the last update to the scores to send and remove, and
+     * drops the scores that were removed. Every score is sent again if the objective itself is new or updated.
+     */
+    static void collectScoreChanges(Objective objective, List<ScoreInfo> addScores, List<ScoreInfo> removeScores) {
         // hearts can't hold teams, so we treat them differently
         if (objective.getType() == 1) {
-            for (Score score : objective.getScores().values()) {
+            for (Score score : objective.getDirtyScores()) {
                 boolean update = score.shouldUpdate();
 
                 if (update) {
@@ -247,23 +301,30 @@ public final class Scoreboard {
                     removeScores.add(score.getCachedInfo());
                 }
             }
+            objective.clearDirtyScores();
             return;
         }
 
         boolean objectiveAdd = objective.getUpdateType() == ADD;
         boolean objectiveUpdate = objective.getUpdateType() == UPDATE;
 
-        for (Score score : objective.getScores().values()) {
+        // Unless the whole objective has to be sent again, only scores that changed since the last update are visited
+        Collection<Score> scores = objectiveAdd || objectiveUpdate ? objective.getScores().values() : objective.getDirtyScores();
+        List<String> removedScores = null;
+        for (Score score : scores) {
             if (score.getUpdateType() == REMOVE) {
                 ScoreInfo cachedInfo = score.getCachedInfo();
-                // cachedInfo can be null here when ScoreboardUpdater is being used and a score is added and
+                // cachedInfo can be null here when scores are updated on tick and a score is added and
                 // removed before a single update cycle is performed
                 if (cachedInfo != null) {
                     removeScores.add(cachedInfo);
                 }
-                // score is pending to be removed, so we can remove it from the objective
-                objective.removeScore0(score.getName());
-                break;
+                // score is pending to be removed, so we can remove it from the objective once we're done iterating
+                if (removedScores == null) {
+                    removedScores = new ArrayList<>();
+                }
+                removedScores.add(score.getName());
+                continue;
             }
 
             Team team = score.getTeam();
@@ -295,24 +356,12 @@ public final class Scoreboard {
 
             score.setUpdateType(NOTHING);
         }
-
-        if (objectiveUpdate) {
-            RemoveObjectivePacket removeObjectivePacket = new RemoveObjectivePacket();
-            removeObjectivePacket.setObjectiveId(objective.getObjectiveName());
-            session.sendUpstreamPacket(removeObjectivePacket);
-        }
-
-        if (objectiveAdd || objectiveUpdate) {
-            SetDisplayObjectivePacket displayObjectivePacket = new SetDisplayObjectivePacket();
-            displayObjectivePacket.setObjectiveId(objective.getObjectiveName());
-            displayObjectivePacket.setDisplayName(objective.getDisplayName());
-            displayObjectivePacket.setCriteria("dummy");
-            displayObjectivePacket.setDisplaySlot(objective.getDisplaySlotName());
-            displayObjectivePacket.setSortOrder(1); // 0 = ascending, 1 = descending
-            session.sendUpstreamPacket(displayObjectivePacket);
+        objective.clearDirtyScores();
+        if (removedScores != null) {
+            for (String name : removedScores) {
+                objective.removeScore0(name);
+            }
         }
-
-        objective.setUpdateType(NOTHING);
     }
 
     /**
@@ -331,6 +380,19 @@ public final class Scoreboard {
         session.sendUpstreamPacket(removeObjectivePacket);
     }
 
+    /**
+     * Marks the scores of the given entity in all objectives as changed
+     */
+    void markScoresDirty(String entity) {
+        for (Objective objective : objectives.values()) {
+            objective.markDirty(entity);
+        }
+    }
+
+    void teamUpdating(Team team) {
+        updatingTeams.add(team);
+    }
+
     public Objective getObjective(String objectiveName) {
         return objectives.get(objectiveName);
     }
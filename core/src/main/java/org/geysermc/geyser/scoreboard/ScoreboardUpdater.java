@@ -26,17 +26,16 @@
 package org.geysermc.geyser.scoreboard;
 
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.configuration.GeyserConfiguration;
 import org.geysermc.geyser.session.GeyserSession;
-import org.geysermc.geyser.session.cache.WorldCache;
 import org.geysermc.geyser.text.GeyserLocale;
 
-import java.util.Collection;
-import java.util.concurrent.atomic.AtomicInteger;
-
-public final class ScoreboardUpdater extends Thread {
+/**
+ * Limits how often scoreboard changes are sent to a Bedrock client when the Java server sends a lot of them.
+ * Each session is updated from its own tick, so the work is spread over the event loops of all sessions.
+ */
+public final class ScoreboardUpdater {
     public static final int FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD;
     public static final int SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD = 250;
 
@@ -51,132 +50,79 @@ public final class ScoreboardUpdater extends Thread {
         DEBUG_ENABLED = config.isDebugMode();
     }
 
-    private final GeyserImpl geyser = GeyserImpl.getInstance();
-
-    private long lastUpdate = System.currentTimeMillis();
-    private long lastPacketsPerSecondUpdate = System.currentTimeMillis();
-
-    public static void init() {
-        new ScoreboardUpdater().start();
+    private ScoreboardUpdater() {
     }
 
-    @Override
-    public void run() {
-        while (!geyser.isShuttingDown() && !geyser.isReloading()) {
-            try {
-                long timeTillAction = getTimeTillNextAction();
-                if (timeTillAction > 0) {
-                    sleepFor(timeTillAction);
-                    continue;
-                }
-
-                long currentTime = System.currentTimeMillis();
-
-                // reset score-packets per second every second
-                Collection<GeyserSession> sessions = geyser.getSessionManager().getSessions().values();
-                if (currentTime - lastPacketsPerSecondUpdate >= 1000) {
-                    lastPacketsPerSecondUpdate = currentTime;
-                    for (GeyserSession session : sessions) {
-                        ScoreboardSession scoreboardSession = session.getWorldCache().getScoreboardSession();
+    /**
+     * Only accessed on the session's event loop.
+     */
+    @Getter
+    public static final class ScoreboardSession {
+        private final GeyserSession session;
+        private int pendingPacketsPerSecond;
+        private int packetsPerSecond;
+        private long lastPacketsPerSecondUpdate;
+        private long lastUpdate;
+        private long lastLog;
 
-                        int oldPps = scoreboardSession.getPacketsPerSecond();
-                        int newPps = scoreboardSession.getPendingPacketsPerSecond().get();
+        public ScoreboardSession(GeyserSession session) {
+            this.session = session;
+            this.lastPacketsPerSecondUpdate = System.currentTimeMillis();
+        }
 
-                        scoreboardSession.packetsPerSecond = newPps;
-                        scoreboardSession.pendingPacketsPerSecond.set(0);
+        public int increaseAndGetPacketsPerSecond() {
+            return Math.max(packetsPerSecond, ++pendingPacketsPerSecond);
+        }
 
-                        // just making sure that all updates are pushed before giving up control
-                        if (oldPps >= FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD &&
-                                newPps < FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
-                            session.getWorldCache().getScoreboard().onUpdate();
-                        }
-                    }
+        /**
+         * Called every session tick. Sends scoreboard changes when the Java server is sending score packets fast enough
+         * that they are no longer sent as they come in.
+         */
+        public void tick() {
+            long currentTime = System.currentTimeMillis();
+
+            // reset score-packets per second every second
+            if (currentTime - lastPacketsPerSecondUpdate >= 1000) {
+                lastPacketsPerSecondUpdate = currentTime;
+
+                int oldPps = packetsPerSecond;
+                packetsPerSecond = pendingPacketsPerSecond;
+                pendingPacketsPerSecond = 0;
+
+                // just making sure that all updates are pushed before giving up control
+                if (oldPps >= FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD &&
+                        packetsPerSecond < FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
+                    session.getWorldCache().getScoreboard().onUpdate();
                 }
+            }
 
-                if (currentTime - lastUpdate >= FIRST_MILLIS_BETWEEN_UPDATES) {
-                    lastUpdate = currentTime;
-
-                    for (GeyserSession session : sessions) {
-                        WorldCache worldCache = session.getWorldCache();
-                        ScoreboardSession scoreboardSession = worldCache.getScoreboardSession();
-
-                        int pps = scoreboardSession.getPacketsPerSecond();
-                        if (pps >= FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
-                            boolean reachedSecondThreshold = pps >= SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD;
-
-                            int millisBetweenUpdates = reachedSecondThreshold ?
-                                    SECOND_MILLIS_BETWEEN_UPDATES :
-                                    FIRST_MILLIS_BETWEEN_UPDATES;
+            int pps = packetsPerSecond;
+            if (pps < FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD) {
+                return;
+            }
+            boolean reachedSecondThreshold = pps >= SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD;
 
-                            if (currentTime - scoreboardSession.lastUpdate >= millisBetweenUpdates) {
-                                worldCache.getScoreboard().onUpdate();
-                                scoreboardSession.lastUpdate = currentTime;
+            int millisBetweenUpdates = reachedSecondThreshold ?
+                    SECOND_MILLIS_BETWEEN_UPDATES :
+                    FIRST_MILLIS_BETWEEN_UPDATES;
 
-                                if (DEBUG_ENABLED && (currentTime - scoreboardSession.lastLog >= 60000)) { // one minute
-                                    int threshold = reachedSecondThreshold ?
-                                            SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD :
-                                            FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD;
+            if (currentTime - lastUpdate >= millisBetweenUpdates) {
+                session.getWorldCache().getScoreboard().onUpdate();
+                lastUpdate = currentTime;
 
-                                    geyser.getLogger().info(
-                                            GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached.log", session.bedrockUsername(), threshold, pps) +
-                                                    GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached", (millisBetweenUpdates / 1000.0))
-                                    );
+                if (DEBUG_ENABLED && (currentTime - lastLog >= 60000)) { // one minute
+                    int threshold = reachedSecondThreshold ?
+                            SECOND_SCORE_PACKETS_PER_SECOND_THRESHOLD :
+                            FIRST_SCORE_PACKETS_PER_SECOND_THRESHOLD;
 
-                                    scoreboardSession.lastLog = currentTime;
-                                }
-                            }
-                        }
-                    }
-                }
+                    session.getGeyser().getLogger().info(
+                            GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached.log", session.bedrockUsername(), threshold, pps) +
+                                    GeyserLocale.getLocaleStringLog("geyser.scoreboard.updater.threshold_reached", (millisBetweenUpdates / 1000.0))
+                    );
 
-                if (DEBUG_ENABLED) {
-                    long timeSpent = System.currentTimeMillis() - currentTime;
-                    if (timeSpent > 0) {
-                        geyser.getLogger().info(String.format(
-                                "Scoreboard updater: took %s ms. Updated %s players",
-                                timeSpent, sessions.size()
-                        ));
-                    }
+                    lastLog = currentTime;
                 }
-
-                long timeTillNextAction = getTimeTillNextAction();
-                sleepFor(timeTillNextAction);
-            } catch (Throwable e) {
-                geyser.getLogger().error("Error while translating scoreboard information!", e);
-                // Wait so we don't try to run the scoreboard immediately after this
-                sleepFor(FIRST_MILLIS_BETWEEN_UPDATES);
             }
         }
     }
-
-    private long getTimeTillNextAction() {
-        long currentTime = System.currentTimeMillis();
-
-        long timeUntilNextUpdate = FIRST_MILLIS_BETWEEN_UPDATES - (currentTime - lastUpdate);
-        long timeUntilPacketReset = 1000 - (currentTime - lastPacketsPerSecondUpdate);
-
-        return Math.min(timeUntilNextUpdate, timeUntilPacketReset);
-    }
-
-    private void sleepFor(long millis) {
-        if (millis <= 0) {
-            return;
-        }
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-    }
-
-    @RequiredArgsConstructor
-    @Getter
-    public static final class ScoreboardSession {
-        private final GeyserSession session;
-        @SuppressWarnings("WriteOnlyObject")
-        private final AtomicInteger pendingPacketsPerSecond = new AtomicInteger(0);
-        private int packetsPerSecond;
-        private long lastUpdate;
-        private long lastLog;
-    }
 }
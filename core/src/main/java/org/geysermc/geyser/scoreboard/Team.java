@@ -87,6 +87,7 @@ public final class Team {
                 Score score = objective.getScores().get(addedEntity);
                 if (score != null) {
                     score.setTeam(this);
+                    objective.markDirty(score);
                 }
             }
         }
@@ -102,6 +103,7 @@ public final class Team {
         for (String name : names) {
             if (entities.remove(name)) {
                 removed.add(name);
+                scoreboard.markScoresDirty(name);
             }
             scoreboard.getPlayerToTeam().remove(name, this);
         }
@@ -158,6 +160,7 @@ public final class Team {
             return;
         }
         updating = true;
+        scoreboard.teamUpdating(this);
 
         if (cachedData == null) {
             cachedData = new TeamData();
@@ -183,6 +186,10 @@ public final class Team {
     public Team setUpdateType(UpdateType updateType) {
         if (updateType != UpdateType.NOTHING) {
             currentData.changed = true;
+            // The scores of all entities in this team need to be sent again
+            for (String entity : entities) {
+                scoreboard.markScoresDirty(entity);
+            }
         }
         currentData.updateType = updateType;
         return this;
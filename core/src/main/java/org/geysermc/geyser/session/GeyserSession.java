@@ -134,10 +134,13 @@ import org.geysermc.geyser.session.auth.AuthData;
 import org.geysermc.geyser.session.auth.BedrockClientData;
 import org.geysermc.geyser.session.cache.AdvancementsCache;
 import org.geysermc.geyser.session.cache.BookEditCache;
+import org.geysermc.geyser.session.cache.ChunkBlobCache;
 import org.geysermc.geyser.session.cache.ChunkCache;
+import org.geysermc.geyser.session.cache.ChunkTranslationQueue;
 import org.geysermc.geyser.session.cache.EntityCache;
 import org.geysermc.geyser.session.cache.EntityEffectCache;
 import org.geysermc.geyser.session.cache.FormCache;
+import org.geysermc.geyser.session.cache.ItemDataCache;
 import org.geysermc.geyser.session.cache.LodestoneCache;
 import org.geysermc.geyser.session.cache.PistonCache;
 import org.geysermc.geyser.session.cache.PreferencesCache;
@@ -146,6 +149,7 @@ import org.geysermc.geyser.session.cache.SkullCache;
 import org.geysermc.geyser.session.cache.StructureBlockCache;
 import org.geysermc.geyser.session.cache.TagCache;
 import org.geysermc.geyser.session.cache.TeleportCache;
+import org.geysermc.geyser.session.cache.ViewDistanceGovernor;
 import org.geysermc.geyser.session.cache.WorldBorder;
 import org.geysermc.geyser.session.cache.WorldCache;
 import org.geysermc.geyser.skin.FloodgateSkinUploader;
@@ -253,9 +257,13 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     private final AdvancementsCache advancementsCache;
     private final BookEditCache bookEditCache;
     private final ChunkCache chunkCache;
+    private final ChunkTranslationQueue chunkTranslationQueue;
+    private final ViewDistanceGovernor viewDistanceGovernor;
+    private final ChunkBlobCache chunkBlobCache;
     private final EntityCache entityCache;
     private final EntityEffectCache effectCache;
     private final FormCache formCache;
+    private final ItemDataCache itemDataCache;
     private final LodestoneCache lodestoneCache;
     private final PistonCache pistonCache;
     private final PreferencesCache preferencesCache;
@@ -350,6 +358,12 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
      */
     @Setter
     private Key worldName = null;
+    /**
+     * The hashed seed of the current world, as sent by the Java server. Used to tell worlds of different servers
+     * behind a proxy apart.
+     */
+    @Setter
+    private long hashedSeed;
     /**
      * As of Java 1.19.3, the client only uses these for commands.
      */
@@ -645,9 +659,13 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
         this.advancementsCache = new AdvancementsCache(this);
         this.bookEditCache = new BookEditCache(this);
         this.chunkCache = new ChunkCache(this);
+        this.chunkTranslationQueue = new ChunkTranslationQueue(this);
+        this.viewDistanceGovernor = new ViewDistanceGovernor(this);
+        this.chunkBlobCache = new ChunkBlobCache(this);
         this.entityCache = new EntityCache(this);
         this.effectCache = new EntityEffectCache();
         this.formCache = new FormCache(this);
+        this.itemDataCache = new ItemDataCache(this);
         this.lodestoneCache = new LodestoneCache();
         this.pistonCache = new PistonCache(this);
         this.preferencesCache = new PreferencesCache(this);
@@ -1204,6 +1222,9 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
 
         erosionHandler.close();
 
+        // Releases any chunk sections shared with other sessions
+        ensureInEventLoop(chunkCache::clear);
+
         closed = true;
     }
 
@@ -1291,6 +1312,9 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
             for (Tickable entity : entityCache.getTickableEntities()) {
                 entity.tick();
             }
+            entityCache.flushMovement();
+            worldCache.getScoreboardSession().tick();
+            viewDistanceGovernor.tick();
 
             if (armAnimationTicks >= 0) {
                 // As of 1.18.2 Java Edition, it appears that the swing time is dynamically updated depending on the
@@ -1534,10 +1558,24 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
         this.serverRenderDistance = renderDistance;
 
         ChunkRadiusUpdatedPacket chunkRadiusUpdatedPacket = new ChunkRadiusUpdatedPacket();
-        chunkRadiusUpdatedPacket.setRadius(renderDistance);
+        chunkRadiusUpdatedPacket.setRadius(viewDistanceGovernor.apply(renderDistance));
         upstream.sendPacket(chunkRadiusUpdatedPacket);
     }
 
+    /**
+     * Tells the client and the Java server about a change in the view distance limit of this session.
+     */
+    public void updateRenderDistance() {
+        if (serverRenderDistance != -1) {
+            ChunkRadiusUpdatedPacket chunkRadiusUpdatedPacket = new ChunkRadiusUpdatedPacket();
+            chunkRadiusUpdatedPacket.setRadius(viewDistanceGovernor.apply(serverRenderDistance));
+            upstream.sendPacket(chunkRadiusUpdatedPacket);
+        }
+        if (loggedIn) {
+            sendJavaClientSettings();
+        }
+    }
+
     public InetSocketAddress getSocketAddress() {
         return this.upstream.getAddress();
     }
@@ -1697,7 +1735,7 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     }
 
     /**
-     * Queue a packet to be sent to player.
+     * Queue a packet to be sent to player. Queued packets are sent together in one compressed batch every 50 milliseconds.
      *
      * @param packet the bedrock packet from the NukkitX protocol lib
      */
@@ -1706,7 +1744,8 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     }
 
     /**
-     * Send a packet immediately to the player.
+     * Send a packet immediately to the player. Any queued packets are sent along with it, which ends the current batch
+     * early, so this should only be used where latency matters.
      *
      * @param packet the bedrock packet from the NukkitX protocol lib
      */
@@ -1931,10 +1970,10 @@ public class GeyserSession implements GeyserConnection, GeyserCommandSource {
     private int getRenderDistance() {
         if (clientRenderDistance != -1) {
             // The client has sent a render distance
-            return clientRenderDistance;
+            return viewDistanceGovernor.apply(clientRenderDistance);
         } else if (serverRenderDistance != -1) {
             // only known once ClientboundLoginPacket is received
-            return serverRenderDistance;
+            return viewDistanceGovernor.apply(serverRenderDistance);
         }
         return 2; // unfortunate default until we got more info
     }
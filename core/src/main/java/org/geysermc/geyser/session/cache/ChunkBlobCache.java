@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import com.google.common.hash.Hashing;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import lombok.Getter;
+import org.cloudburstmc.protocol.bedrock.packet.ClientCacheMissResponsePacket;
+import org.geysermc.geyser.session.GeyserSession;
+
+/**
+ * Tracks chunk blobs sent to a client that supports the Bedrock client blob cache.
+ * <p>
+ * With the blob cache, chunk sections and biomes are only referenced by hash in the chunk packet. The client then reports
+ * which of those blobs it already has stored and which are missing, and only the missing ones are sent. Blobs are kept
+ * here until the client has reported on them.
+ * <p>
+ * All methods must be called from the session's event loop.
+ */
+public class ChunkBlobCache {
+    /**
+     * If the client stops reporting on blobs, stop using the blob cache before it takes too much memory
+     */
+    private static final long MAX_PENDING_BYTES = 32 * 1024 * 1024;
+
+    private final GeyserSession session;
+    private final Long2ObjectMap<Blob> pendingBlobs = new Long2ObjectOpenHashMap<>();
+    private long pendingBytes;
+
+    /**
+     * If chunks should be sent as blobs. Only set once the client reports that it supports the blob cache.
+     */
+    @Getter
+    private boolean enabled;
+    /**
+     * Set once the client stopped reporting on blobs; the blob cache then stays disabled for this session
+     */
+    private boolean overflowed;
+
+    /**
+     * The amount of blobs the client already had stored
+     */
+    @Getter
+    private long hits;
+    /**
+     * The amount of blobs that had to be sent
+     */
+    @Getter
+    private long misses;
+
+    public ChunkBlobCache(GeyserSession session) {
+        this.session = session;
+    }
+
+    public void setClientSupport(boolean supported) {
+        this.enabled = supported && !overflowed && session.getGeyser().getConfig().isClientBlobCache();
+    }
+
+    /**
+     * Stores the readable bytes of the buffer until the client reports on them.
+     *
+     * @return the blob ID to reference the bytes with
+     */
+    public long addBlob(ByteBuf buffer) {
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        long blobId = Hashing.murmur3_128().hashBytes(data).asLong();
+        if (!enabled) {
+            // Disabled while a chunk was being written; the chunk is sent without blobs
+            return blobId;
+        }
+
+        Blob blob = pendingBlobs.get(blobId);
+        if (blob == null) {
+            pendingBlobs.put(blobId, new Blob(data));
+            pendingBytes += data.length;
+            if (pendingBytes > MAX_PENDING_BYTES) {
+                session.getGeyser().getLogger().debug("Too many chunk blobs are waiting for " + session.bedrockUsername() + "; disabling the blob cache");
+                enabled = false;
+                overflowed = true;
+                pendingBlobs.clear();
+                pendingBytes = 0;
+            }
+        } else {
+            blob.references++;
+        }
+        return blobId;
+    }
+
+    /**
+     * Sends the blobs the client is missing, and forgets about all blobs it reported on.
+     */
+    public void onBlobStatus(LongList missingBlobIds, LongList acknowledgedBlobIds) {
+        ClientCacheMissResponsePacket responsePacket = new ClientCacheMissResponsePacket();
+        for (int i = 0; i < missingBlobIds.size(); i++) {
+            long blobId = missingBlobIds.getLong(i);
+            Blob blob = pendingBlobs.get(blobId);
+            if (blob == null) {
+                continue;
+            }
+            responsePacket.getBlobs().put(blobId, Unpooled.wrappedBuffer(blob.data));
+            release(blobId, blob);
+            misses++;
+        }
+
+        for (int i = 0; i < acknowledgedBlobIds.size(); i++) {
+            long blobId = acknowledgedBlobIds.getLong(i);
+            Blob blob = pendingBlobs.get(blobId);
+            if (blob != null) {
+                release(blobId, blob);
+                hits++;
+            }
+        }
+
+        if (!responsePacket.getBlobs().isEmpty()) {
+            session.sendUpstreamPacket(responsePacket);
+        }
+    }
+
+    private void release(long blobId, Blob blob) {
+        if (--blob.references == 0) {
+            pendingBlobs.remove(blobId);
+            pendingBytes -= blob.data.length;
+        }
+    }
+
+    private static final class Blob {
+        private final byte[] data;
+        /**
+         * The amount of chunks sent that reference this blob and haven't been reported on yet
+         */
+        private int references = 1;
+
+        private Blob(byte[] data) {
+            this.data = data;
+        }
+    }
+}
@@ -27,25 +27,90 @@ package org.geysermc.geyser.session.cache;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import lombok.Getter;
 import lombok.Setter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.math.vector.Vector3i;
+import org.cloudburstmc.nbt.NbtMap;
 import org.geysermc.geyser.level.block.type.Block;
 import org.geysermc.geyser.level.chunk.GeyserChunk;
+import org.geysermc.geyser.level.chunk.PackedChunkSection;
+import org.geysermc.geyser.level.chunk.SharedChunkStore;
+import org.geysermc.geyser.level.chunk.SubChunkColumn;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.util.MathUtils;
 import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
 
 public class ChunkCache {
+    private final GeyserSession session;
     private final boolean cache;
     private final Long2ObjectMap<GeyserChunk> chunks;
+    /**
+     * If not null, sections are shared with other sessions in the same world
+     */
+    private final SharedChunkStore sharedStore;
+    /**
+     * Translated columns the client can request sub-chunks from, or null if whole columns are sent
+     */
+    private final Long2ObjectMap<SubChunkColumn> subChunkColumns;
 
     @Setter
     private int minY;
     @Setter
     private int heightY;
 
+    /**
+     * The approximate amount of heap memory taken by the cached chunks, in bytes.
+     * Sections shared with other sessions are not included.
+     */
+    @Getter
+    private long estimatedHeapSize;
+
     public ChunkCache(GeyserSession session) {
+        this.session = session;
         this.cache = !session.getGeyser().getWorldManager().hasOwnChunkCache(); // To prevent Spigot from initializing
         chunks = cache ? new Long2ObjectOpenHashMap<>() : null;
+        sharedStore = cache ? session.getGeyser().getSharedChunkStore() : null;
+        subChunkColumns = session.getGeyser().getConfig().isSubChunkRequests() ? new Long2ObjectOpenHashMap<>() : null;
+    }
+
+    /**
+     * Creates a chunk cache that is not tied to a session, and doesn't share sections or keep sub-chunk columns.
+     */
+    public ChunkCache() {
+        this.session = null;
+        this.cache = true;
+        this.chunks = new Long2ObjectOpenHashMap<>();
+        this.sharedStore = null;
+        this.subChunkColumns = null;
+    }
+
+    /**
+     * @return true if chunks are sent to the client as sub-chunks on request
+     */
+    public boolean isRequestingSubChunks() {
+        return subChunkColumns != null;
+    }
+
+    public void addSubChunkColumn(int x, int z, SubChunkColumn column) {
+        subChunkColumns.put(MathUtils.chunkPositionToLong(x, z), column);
+    }
+
+    public @Nullable SubChunkColumn getSubChunkColumn(int x, int z) {
+        if (subChunkColumns == null) {
+            return null;
+        }
+        return subChunkColumns.get(MathUtils.chunkPositionToLong(x, z));
+    }
+
+    /**
+     * Keeps the block entities of a column waiting for sub-chunk requests up to date.
+     */
+    public void updateBlockEntity(Vector3i position, NbtMap blockEntity) {
+        SubChunkColumn column = getSubChunkColumn(position.getX() >> 4, position.getZ() >> 4);
+        if (column != null) {
+            column.updateBlockEntity(position, blockEntity);
+        }
     }
 
     public void addToCache(int x, int z, DataPalette[] chunks) {
@@ -55,7 +120,21 @@ public class ChunkCache {
 
         long chunkPosition = MathUtils.chunkPositionToLong(x, z);
         GeyserChunk geyserChunk = GeyserChunk.from(chunks);
-        this.chunks.put(chunkPosition, geyserChunk);
+        if (sharedStore != null && session.getWorldName() != null) {
+            String world = SharedChunkStore.worldKey(session.getHashedSeed(), session.getWorldName().asString());
+            PackedChunkSection[] sections = geyserChunk.sections();
+            for (int i = 0; i < sections.length; i++) {
+                if (sections[i] != null) {
+                    sections[i] = sharedStore.acquire(world, chunkPosition, i, sections[i]);
+                }
+            }
+        }
+
+        GeyserChunk previous = this.chunks.put(chunkPosition, geyserChunk);
+        if (previous != null) {
+            release(previous);
+        }
+        estimatedHeapSize += geyserChunk.estimateHeapSize();
     }
 
     /**
@@ -67,6 +146,11 @@ public class ChunkCache {
     }
 
     public void updateBlock(int x, int y, int z, int block) {
+        SubChunkColumn column = getSubChunkColumn(x >> 4, z >> 4);
+        if (column != null) {
+            column.markChanged(x, y, z);
+        }
+
         if (!cache) {
             return;
         }
@@ -81,21 +165,35 @@ public class ChunkCache {
             return;
         }
 
-        DataPalette palette = chunk.sections()[(y - minY) >> 4];
-        if (palette == null) {
+        PackedChunkSection section = chunk.sections()[(y - minY) >> 4];
+        if (section == null) {
             if (block != Block.JAVA_AIR_ID) {
                 // A previously empty chunk, which is no longer empty as a block has been added to it
-                palette = DataPalette.createForChunk();
-                // Fixes the chunk assuming that all blocks is the `block` variable we are updating. /shrug
-                palette.getPalette().stateToId(Block.JAVA_AIR_ID);
-                chunk.sections()[(y - minY) >> 4] = palette;
+                section = PackedChunkSection.singleton(Block.JAVA_AIR_ID);
+                chunk.sections()[(y - minY) >> 4] = section;
             } else {
                 // Nothing to update
                 return;
             }
+        } else if (section.isShared()) {
+            // This session no longer sees the same blocks as the others; give it its own copy
+            PackedChunkSection copy = section.copy();
+            sharedStore.release(section);
+            section = copy;
+            chunk.sections()[(y - minY) >> 4] = section;
+        } else {
+            estimatedHeapSize -= section.estimateHeapSize();
         }
 
-        palette.set(x & 0xF, y & 0xF, z & 0xF, block);
+        section.set(x & 0xF, y & 0xF, z & 0xF, block);
+        estimatedHeapSize += section.estimateHeapSize();
+    }
+
+    /**
+     * @return true if the chunk column at the given chunk coordinates is cached
+     */
+    public boolean isChunkLoaded(int chunkX, int chunkZ) {
+        return cache && this.getChunk(chunkX, chunkZ) != null;
     }
 
     public int getBlockAt(int x, int y, int z) {
@@ -113,21 +211,28 @@ public class ChunkCache {
             return Block.JAVA_AIR_ID;
         }
 
-        DataPalette chunk = column.sections()[(y - minY) >> 4];
-        if (chunk != null) {
-            return chunk.get(x & 0xF, y & 0xF, z & 0xF);
+        PackedChunkSection section = column.sections()[(y - minY) >> 4];
+        if (section != null) {
+            return section.get(x & 0xF, y & 0xF, z & 0xF);
         }
 
         return Block.JAVA_AIR_ID;
     }
 
     public void removeChunk(int chunkX, int chunkZ) {
+        long chunkPosition = MathUtils.chunkPositionToLong(chunkX, chunkZ);
+        if (subChunkColumns != null) {
+            subChunkColumns.remove(chunkPosition);
+        }
+
         if (!cache) {
             return;
         }
 
-        long chunkPosition = MathUtils.chunkPositionToLong(chunkX, chunkZ);
-        chunks.remove(chunkPosition);
+        GeyserChunk chunk = chunks.remove(chunkPosition);
+        if (chunk != null) {
+            release(chunk);
+        }
     }
 
     /**
@@ -136,11 +241,32 @@ public class ChunkCache {
      * but it is the client that must clear sections in the event of proxy switches.
      */
     public void clear() {
+        if (subChunkColumns != null) {
+            subChunkColumns.clear();
+        }
+
         if (!cache) {
             return;
         }
 
+        if (sharedStore != null) {
+            for (GeyserChunk chunk : chunks.values()) {
+                release(chunk);
+            }
+        }
         chunks.clear();
+        estimatedHeapSize = 0;
+    }
+
+    private void release(GeyserChunk chunk) {
+        estimatedHeapSize -= chunk.estimateHeapSize();
+        if (sharedStore != null) {
+            for (PackedChunkSection section : chunk.sections()) {
+                if (section != null) {
+                    sharedStore.release(section);
+                }
+            }
+        }
     }
 
     public int getChunkMinY() {
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import org.geysermc.geyser.session.GeyserSession;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Allows chunks to be translated outside of the session's event loop, while making sure that they - and any packets
+ * that depend on them, such as block updates - are still handled in the order the Java server sent them.
+ * <p>
+ * All methods must be called from the session's event loop.
+ */
+public class ChunkTranslationQueue {
+    private final GeyserSession session;
+
+    private final Deque<Entry<?>> pending = new ArrayDeque<>();
+
+    public ChunkTranslationQueue(GeyserSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Runs the work on the chunk translation executor. Once it is finished and all previously queued tasks have been
+     * delivered, the result is delivered on the session's event loop. If off-thread chunk translation is disabled,
+     * both are run immediately.
+     *
+     * @param work the translation work; this must not modify the session
+     * @param delivery handles the result of the work on the event loop
+     */
+    public <T> void submit(Supplier<T> work, Consumer<T> delivery) {
+        ExecutorService executor = session.getGeyser().getChunkTranslationExecutor();
+        if (executor == null && pending.isEmpty()) {
+            delivery.accept(work.get());
+            return;
+        }
+
+        CompletableFuture<T> future = executor == null ? CompletableFuture.completedFuture(work.get()) : CompletableFuture.supplyAsync(work, executor);
+        pending.add(new Entry<>(future, delivery));
+        future.whenComplete((result, throwable) -> session.executeInEventLoop(this::drain));
+    }
+
+    /**
+     * Runs the task once all previously submitted chunks have been delivered, or immediately if there are none.
+     * This should be used by anything that depends on previously sent chunks, such as block updates.
+     */
+    public void runInOrder(Runnable task) {
+        if (pending.isEmpty()) {
+            task.run();
+            return;
+        }
+        pending.add(new Entry<>(null, ignored -> task.run()));
+    }
+
+    /**
+     * Waits for all pending chunks to be translated and delivers them, along with any tasks queued behind them.
+     * Used before the world is reset, as results from before the reset must not be applied afterwards.
+     */
+    public void flush() {
+        Entry<?> entry;
+        while ((entry = pending.poll()) != null) {
+            entry.deliver(session);
+        }
+    }
+
+    /**
+     * @return the amount of chunks and tasks waiting to be delivered
+     */
+    public int size() {
+        return pending.size();
+    }
+
+    private void drain() {
+        if (session.isClosed()) {
+            pending.clear();
+            return;
+        }
+
+        Entry<?> entry;
+        while ((entry = pending.peek()) != null) {
+            if (entry.future() != null && !entry.future().isDone()) {
+                // Wait for this entry to finish so that delivery stays in order
+                return;
+            }
+            pending.poll();
+            entry.deliver(session);
+        }
+    }
+
+    private record Entry<T>(CompletableFuture<T> future, Consumer<T> delivery) {
+        void deliver(GeyserSession session) {
+            T result = null;
+            if (future != null) {
+                try {
+                    result = future.join();
+                } catch (CompletionException e) {
+                    session.getGeyser().getLogger().error("Error while translating chunk for " + session.bedrockUsername(), e.getCause());
+                    return;
+                }
+            }
+
+            try {
+                delivery.accept(result);
+            } catch (Throwable t) {
+                session.getGeyser().getLogger().error("Error thrown in " + session.bedrockUsername() + "'s event loop!", t);
+            }
+        }
+    }
+}
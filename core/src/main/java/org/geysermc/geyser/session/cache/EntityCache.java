@@ -29,16 +29,21 @@ import it.unimi.dsi.fastutil.ints.Int2LongMap;
 import it.unimi.dsi.fastutil.ints.Int2LongOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import lombok.Getter;
+import org.cloudburstmc.math.vector.Vector3f;
 import org.geysermc.geyser.entity.type.Entity;
 import org.geysermc.geyser.entity.type.Tickable;
 import org.geysermc.geyser.entity.type.player.PlayerEntity;
+import org.geysermc.geyser.entity.type.player.SessionPlayerEntity;
 import org.geysermc.geyser.session.GeyserSession;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -61,11 +66,36 @@ public class EntityCache {
     private final Map<UUID, PlayerEntity> playerEntities = new Object2ObjectOpenHashMap<>();
     private final Map<UUID, BossBar> bossBars = new Object2ObjectOpenHashMap<>();
 
+    /**
+     * How often, in ticks, the movement of entities beyond the throttle distance is sent
+     */
+    private static final int THROTTLED_MOVEMENT_INTERVAL = 5;
+
+    /**
+     * Entities that moved since the last flush, and their position and rotation as last sent to the client.
+     */
+    private final Object2ObjectMap<Entity, MovementSnapshot> pendingMovement = new Object2ObjectLinkedOpenHashMap<>();
+    private final boolean coalesceMovement;
+    private final double throttleDistanceSquared;
+    private int movementTicks;
+
+    /**
+     * Movement updates that were merged into another update of the same entity, and ones that were held back
+     * because the entity was far away
+     */
+    @Getter
+    private long coalescedMovements;
+    @Getter
+    private long throttledMovements;
+
     @Getter
     private final AtomicLong nextEntityId = new AtomicLong(1L);
 
     public EntityCache(GeyserSession session) {
         this.session = session;
+        this.coalesceMovement = session.getGeyser().getConfig().isCoalesceEntityMovement();
+        int throttleDistance = session.getGeyser().getConfig().getEntityMovementThrottleDistance();
+        this.throttleDistanceSquared = throttleDistance <= 0 ? Double.MAX_VALUE : (double) throttleDistance * throttleDistance;
     }
 
     public void spawnEntity(Entity entity) {
@@ -101,6 +131,7 @@ public class EntityCache {
 
             long geyserId = entityIdTranslations.remove(entity.getEntityId());
             entities.remove(geyserId);
+            pendingMovement.remove(entity);
 
             if (entity instanceof Tickable) {
                 tickableEntities.remove(entity);
@@ -115,6 +146,73 @@ public class EntityCache {
         }
 
         session.getPlayerWithCustomHeads().clear();
+        pendingMovement.clear();
+    }
+
+    /**
+     * Called before the position or rotation of an entity is changed by a relative move.
+     *
+     * @return true if the movement will be sent on the next {@link #flushMovement()}, false if it should be sent now
+     */
+    public boolean deferMovement(Entity entity) {
+        if (!coalesceMovement || !entity.isValid()) {
+            return false;
+        }
+        // The client predicts the movement of these; don't delay them
+        SessionPlayerEntity playerEntity = session.getPlayerEntity();
+        if (entity == playerEntity || entity == playerEntity.getVehicle()) {
+            return false;
+        }
+
+        if (pendingMovement.containsKey(entity)) {
+            coalescedMovements++;
+        } else {
+            pendingMovement.put(entity, new MovementSnapshot(entity.getPosition(), entity.getYaw(), entity.getPitch(), entity.getHeadYaw()));
+        }
+        return true;
+    }
+
+    /**
+     * Sends the movement of this entity that is still held back, so anything sent about the entity afterwards
+     * reaches the client in order.
+     */
+    public void flushMovement(Entity entity) {
+        if (pendingMovement.isEmpty()) {
+            return;
+        }
+        MovementSnapshot snapshot = pendingMovement.remove(entity);
+        if (snapshot != null && entity.isValid()) {
+            entity.sendMovementDelta(snapshot.position(), snapshot.yaw(), snapshot.pitch(), snapshot.headYaw());
+        }
+    }
+
+    /**
+     * Sends the latest position and rotation of all entities that moved since the last flush. Called once per tick.
+     */
+    public void flushMovement() {
+        if (pendingMovement.isEmpty()) {
+            return;
+        }
+        boolean sendThrottled = ++movementTicks % THROTTLED_MOVEMENT_INTERVAL == 0;
+        Vector3f playerPosition = session.getPlayerEntity().getPosition();
+
+        Iterator<Object2ObjectMap.Entry<Entity, MovementSnapshot>> iterator = pendingMovement.object2ObjectEntrySet().iterator();
+        while (iterator.hasNext()) {
+            Object2ObjectMap.Entry<Entity, MovementSnapshot> entry = iterator.next();
+            Entity entity = entry.getKey();
+            if (!entity.isValid()) {
+                iterator.remove();
+                continue;
+            }
+            if (!sendThrottled && entity.getPosition().distanceSquared(playerPosition) > throttleDistanceSquared) {
+                throttledMovements++;
+                continue;
+            }
+
+            MovementSnapshot snapshot = entry.getValue();
+            entity.sendMovementDelta(snapshot.position(), snapshot.yaw(), snapshot.pitch(), snapshot.headYaw());
+            iterator.remove();
+        }
     }
 
     public Entity getEntityByGeyserId(long geyserId) {
@@ -177,4 +275,7 @@ public class EntityCache {
         bossBars.values().forEach(BossBar::removeBossBar);
         bossBars.clear();
     }
+
+    private record MovementSnapshot(Vector3f position, float yaw, float pitch, float headYaw) {
+    }
 }
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import lombok.Getter;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.translator.item.ItemTranslator;
+import org.geysermc.mcprotocollib.protocol.data.game.item.component.DataComponentType;
+import org.geysermc.mcprotocollib.protocol.data.game.item.component.DataComponents;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Remembers the Bedrock items that Java item stacks were last translated to, so containers that are sent again and again
+ * without changes (such as server-side GUI menus) don't translate every item again.
+ * <p>
+ * Items are cached without a net ID. The locale of a session doesn't change, so it is not part of the key.
+ */
+public class ItemDataCache {
+    static final int MAX_ENTRIES = 512;
+
+    private final BooleanSupplier advancedTooltips;
+    private final Translator translator;
+    private final Map<Key, ItemData> items = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, ItemData> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    @Getter
+    private long hits;
+    @Getter
+    private long misses;
+
+    public ItemDataCache(GeyserSession session) {
+        this(session::isAdvancedTooltips, (javaId, count, components) -> ItemTranslator.translateToBedrock(session, javaId, count, components).build());
+    }
+
+    ItemDataCache(BooleanSupplier advancedTooltips, Translator translator) {
+        this.advancedTooltips = advancedTooltips;
+        this.translator = translator;
+    }
+
+    /**
+     * @return the translated item, without a net ID
+     */
+    public synchronized ItemData translate(int javaId, int count, @Nullable DataComponents components) {
+        if (!isCacheable(components)) {
+            misses++;
+            return translator.translate(javaId, count, components);
+        }
+
+        Key key = new Key(javaId, count, components, advancedTooltips.getAsBoolean());
+        ItemData item = items.get(key);
+        if (item != null) {
+            hits++;
+            return item;
+        }
+
+        misses++;
+        item = translator.translate(javaId, count, components);
+        // Components are mutable; don't let later changes to them affect the cached key
+        items.put(new Key(javaId, count, components == null ? null : components.clone(), key.advancedTooltips()), item);
+        return item;
+    }
+
+    /**
+     * Should be called when anything besides the item stack that goes into item translation changes, such as registries.
+     */
+    public synchronized void clear() {
+        items.clear();
+    }
+
+    /**
+     * Translating a lodestone compass hands out a tracking ID that the client can only use once, so these have to be
+     * translated every time.
+     */
+    private static boolean isCacheable(@Nullable DataComponents components) {
+        return components == null || !components.getDataComponents().containsKey(DataComponentType.LODESTONE_TRACKER);
+    }
+
+    @FunctionalInterface
+    interface Translator {
+        ItemData translate(int javaId, int count, @Nullable DataComponents components);
+    }
+
+    private record Key(int javaId, int count, @Nullable DataComponents components, boolean advancedTooltips) {
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import lombok.Getter;
+import org.cloudburstmc.math.vector.Vector2i;
+import org.geysermc.geyser.network.GeyserBedrockPeer;
+import org.geysermc.geyser.session.GeyserSession;
+
+/**
+ * Lowers a session's view distance while sending it chunks takes more event loop time than the configured budget, or
+ * while its connection can't keep up, and raises it back once there is room again. Chunks outside the lowered view
+ * distance are not translated; the Java server sends them again once the view distance is raised.
+ * <p>
+ * All methods must be called from the session's event loop.
+ */
+public class ViewDistanceGovernor {
+    /**
+     * How often, in ticks, the view distance is adjusted
+     */
+    private static final int EVALUATION_INTERVAL = 20;
+    private static final int MIN_VIEW_DISTANCE = 4;
+    /**
+     * Packets waiting to be sent to the client, or round trip time in milliseconds, above which the client is
+     * considered to not keep up
+     */
+    private static final int MAX_QUEUED_PACKETS = 512;
+    private static final int MAX_PING = 400;
+
+    private final GeyserSession session;
+    private final long budgetNanos;
+
+    private long chunkNanos;
+    private int maxQueuedPackets;
+    private int ticks;
+
+    /**
+     * The highest view distance this session may currently use, or -1 if it isn't limited
+     */
+    @Getter
+    private int limit = -1;
+    /**
+     * The amount of times the view distance was lowered
+     */
+    @Getter
+    private int reductions;
+
+    public ViewDistanceGovernor(GeyserSession session) {
+        this.session = session;
+        this.budgetNanos = session.getGeyser().getConfig().getViewDistanceBudget() * 1_000_000L;
+    }
+
+    public boolean isEnabled() {
+        return budgetNanos > 0;
+    }
+
+    /**
+     * Records event loop time spent on translating and sending a chunk.
+     */
+    public void recordChunk(long nanos) {
+        this.chunkNanos += nanos;
+    }
+
+    /**
+     * @return the view distance, lowered to the current limit if there is one
+     */
+    public int apply(int viewDistance) {
+        return limit == -1 ? viewDistance : Math.min(viewDistance, limit);
+    }
+
+    /**
+     * @return true if this chunk is outside the current limit and should not be translated
+     */
+    public boolean isOutsideLimit(int chunkX, int chunkZ) {
+        Vector2i center = session.getLastChunkPosition();
+        if (limit == -1 || center == null) {
+            return false;
+        }
+        // One chunk of leeway, as the Java server also sends the chunks at the edge of the view distance
+        return Math.max(Math.abs(chunkX - center.getX()), Math.abs(chunkZ - center.getY())) > limit + 1;
+    }
+
+    public void tick() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        GeyserBedrockPeer peer = (GeyserBedrockPeer) session.getUpstream().getSession().getPeer();
+        maxQueuedPackets = Math.max(maxQueuedPackets, peer.getQueuedPackets());
+        if (++ticks < EVALUATION_INTERVAL) {
+            return;
+        }
+
+        long nanosPerTick = chunkNanos / ticks;
+        int queuedPackets = maxQueuedPackets;
+        chunkNanos = 0;
+        maxQueuedPackets = 0;
+        ticks = 0;
+
+        int requested = requestedViewDistance();
+        if (requested == -1) {
+            return;
+        }
+        int current = apply(requested);
+        int ping = session.ping();
+
+        if (nanosPerTick > budgetNanos || queuedPackets > MAX_QUEUED_PACKETS || ping > MAX_PING) {
+            if (current > MIN_VIEW_DISTANCE) {
+                reductions++;
+                setLimit(Math.max(MIN_VIEW_DISTANCE, current - 2));
+            }
+        } else if (limit != -1 && nanosPerTick < budgetNanos / 2 && queuedPackets < MAX_QUEUED_PACKETS / 4) {
+            // Raise slowly; every step makes the Java server send a ring of new chunks
+            setLimit(current + 1 >= requested ? -1 : current + 1);
+        }
+    }
+
+    private void setLimit(int limit) {
+        if (this.limit == limit) {
+            return;
+        }
+        this.limit = limit;
+        session.updateRenderDistance();
+    }
+
+    /**
+     * @return the view distance the client and server agree on, or -1 if neither is known yet
+     */
+    private int requestedViewDistance() {
+        int client = session.getClientRenderDistance();
+        int server = session.getServerRenderDistance();
+        if (client == -1 || server == -1) {
+            return Math.max(client, server);
+        }
+        return Math.min(client, server);
+    }
+}
@@ -85,9 +85,7 @@ public final class WorldCache {
     }
 
     public int increaseAndGetScoreboardPacketsPerSecond() {
-        int pendingPps = scoreboardSession.getPendingPacketsPerSecond().incrementAndGet();
-        int pps = scoreboardSession.getPacketsPerSecond();
-        return Math.max(pps, pendingPps);
+        return scoreboardSession.increaseAndGetPacketsPerSecond();
     }
 
     public void markTitleTimesAsIncorrect() {
@@ -65,6 +65,7 @@ public class FakeHeadProvider {
     private static final LoadingCache<FakeHeadEntry, SkinData> MERGED_SKINS_LOADING_CACHE = CacheBuilder.newBuilder()
             .expireAfterAccess(1, TimeUnit.HOURS)
             .maximumSize(10000)
+            .<FakeHeadEntry, SkinData>removalListener(notification -> SkinStore.get().releaseImage(notification.getValue().skin().skinData()))
             .build(new CacheLoader<>() {
                 @Override
                 public SkinData load(@NonNull FakeHeadEntry fakeHeadEntry) throws Exception {
@@ -80,7 +81,7 @@ public class FakeHeadProvider {
                             ? SkinProvider.WEARING_CUSTOM_SKULL_SLIM : SkinProvider.WEARING_CUSTOM_SKULL;
 
                     Skin headSkin = SkinProvider.getOrDefault(
-                            SkinProvider.requestSkin(fakeHeadEntry.getEntity().getUuid(), fakeHeadEntry.getFakeHeadSkinUrl(), false), SkinProvider.EMPTY_SKIN, 5);
+                            SkinProvider.requestSkin(fakeHeadEntry.getEntity().getUuid(), fakeHeadEntry.getFakeHeadSkinUrl()), SkinProvider.EMPTY_SKIN, 5);
                     BufferedImage originalSkinImage = SkinProvider.imageDataToBufferedImage(skin.skinData(), 64, skin.skinData().length / 4 / 64);
                     BufferedImage headSkinImage = SkinProvider.imageDataToBufferedImage(headSkin.skinData(), 64, headSkin.skinData().length / 4 / 64);
 
@@ -95,7 +96,7 @@ public class FakeHeadProvider {
                     // Don't tie it to a player - that player *can* change skins in-game
                     String skinKey = "customPlayerHead_" + fakeHeadEntry.getFakeHeadSkinUrl() + "_" + skin.textureUrl();
                     byte[] targetSkinData = SkinProvider.bufferedImageToImageData(originalSkinImage);
-                    Skin mergedSkin = new Skin(skinKey, targetSkinData);
+                    Skin mergedSkin = new Skin(skinKey, SkinStore.get().retainImage(targetSkinData));
 
                     // Avoiding memory leak
                     fakeHeadEntry.setEntity(null);
@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import com.google.common.hash.Hashing;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.geysermc.geyser.GeyserImpl;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Stores downloaded skins and capes on disk as already converted Bedrock image data, so they don't have to be
+ * downloaded or decoded again after a restart. Files are named by a hash of their URL; the names of all files are
+ * indexed on startup, so looking up an image that isn't cached never touches the disk.
+ */
+final class SkinImageCache {
+    private static final int MAGIC = 0x47534B31; // GSK1
+    private static final String EXTENSION = ".bin";
+
+    private final Path folder;
+    private final Set<String> index = ConcurrentHashMap.newKeySet();
+
+    SkinImageCache(Path folder) {
+        this.folder = folder;
+        if (Files.isDirectory(folder)) {
+            try (Stream<Path> files = Files.list(folder)) {
+                files.map(file -> file.getFileName().toString())
+                        .filter(name -> name.endsWith(EXTENSION))
+                        .forEach(name -> index.add(name.substring(0, name.length() - EXTENSION.length())));
+            } catch (IOException e) {
+                GeyserImpl.getInstance().getLogger().error("Failed to index cached skin images", e);
+            }
+        }
+    }
+
+    @Nullable
+    SkinProvider.ImageData read(String imageUrl, boolean isCape) {
+        String key = key(imageUrl, isCape);
+        if (!index.contains(key)) {
+            return null;
+        }
+
+        File file = file(key).toFile();
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file.toPath()))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Invalid header");
+            }
+            int width = in.readInt();
+            int height = in.readInt();
+            if (width <= 0 || height <= 0 || width > 512 || height > 512) {
+                throw new IOException("Invalid image size " + width + "x" + height);
+            }
+            byte[] data = new byte[width * height * 4];
+            in.readFully(data);
+
+            // Update the modification stamp so we know when the file was last used
+            //noinspection ResultOfMethodCallIgnored
+            file.setLastModified(System.currentTimeMillis());
+            return new SkinProvider.ImageData(width, height, data);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().debug("Discarding unreadable cached image " + file.getPath() + " for " + imageUrl);
+            index.remove(key);
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+            return null;
+        }
+    }
+
+    void write(String imageUrl, boolean isCape, SkinProvider.ImageData image) {
+        String key = key(imageUrl, isCape);
+        Path file = file(key);
+        try {
+            Files.createDirectories(folder);
+            // Write to a temporary file first so a crash never leaves a half-written image behind
+            Path temp = Files.createTempFile(folder, key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                out.writeInt(MAGIC);
+                out.writeInt(image.width());
+                out.writeInt(image.height());
+                out.write(image.data());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            index.add(key);
+            GeyserImpl.getInstance().getLogger().debug("Writing cached image to file " + file + " for " + imageUrl);
+        } catch (IOException e) {
+            GeyserImpl.getInstance().getLogger().error("Failed to write cached image to file " + file + " for " + imageUrl);
+        }
+    }
+
+    /**
+     * @return the amount of files removed
+     */
+    int removeExpired(long expireTime) {
+        File[] files = folder.toFile().listFiles();
+        if (files == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for (File file : files) {
+            if (file.lastModified() < System.currentTimeMillis() - expireTime) {
+                String name = file.getName();
+                if (name.endsWith(EXTENSION)) {
+                    index.remove(name.substring(0, name.length() - EXTENSION.length()));
+                }
+                //noinspection ResultOfMethodCallIgnored
+                file.delete();
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Path file(String key) {
+        return folder.resolve(key + EXTENSION);
+    }
+
+    private static String key(String imageUrl, boolean isCape) {
+        return Hashing.sha256().hashString(isCape ? "cape:" + imageUrl : imageUrl, StandardCharsets.UTF_8).toString();
+    }
+}
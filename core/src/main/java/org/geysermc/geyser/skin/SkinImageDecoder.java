@@ -0,0 +1,334 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Decodes skin and cape PNGs straight into Bedrock's RGBA format, without going through {@code ImageIO} and a
+ * {@code BufferedImage}. Only the formats skins practically come in are supported: non-interlaced 8-bit greyscale,
+ * RGB and RGBA images, and palette images of any bit depth. For anything else, and for images that need to be
+ * scaled, {@code null} is returned and callers should fall back to the slower {@code BufferedImage} path.
+ */
+public final class SkinImageDecoder {
+    private static final long PNG_SIGNATURE = 0x89504E470D0A1A0AL;
+    private static final int IHDR = 0x49484452;
+    private static final int PLTE = 0x504C5445;
+    private static final int TRNS = 0x74524E53;
+    private static final int IDAT = 0x49444154;
+    private static final int IEND = 0x49454E44;
+
+    private static final int COLOR_GREY = 0;
+    private static final int COLOR_RGB = 2;
+    private static final int COLOR_PALETTE = 3;
+    private static final int COLOR_GREY_ALPHA = 4;
+    private static final int COLOR_RGBA = 6;
+
+    private static final int MAX_IMAGE_SIZE = 1024;
+    private static final int MAX_SKIN_SIZE = 128;
+    private static final int CAPE_WIDTH = 64;
+    private static final int CAPE_HEIGHT = 32;
+
+    /**
+     * Inflated, filtered scanlines are decoded into a buffer that is reused by each thread. It fits a 64x64 RGBA skin;
+     * larger images get a buffer of their own, so a few large skins don't keep memory tied up in every thread.
+     */
+    private static final int SCANLINES_SIZE = (1 + 64 * 4) * 64;
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+    private static final ThreadLocal<byte[]> SCANLINES = ThreadLocal.withInitial(() -> new byte[SCANLINES_SIZE]);
+
+    private SkinImageDecoder() {
+    }
+
+    /**
+     * @return the skin as Bedrock image data, or null if it needs the {@code BufferedImage} path
+     */
+    public static SkinProvider.@Nullable ImageData decodeSkin(byte[] png) {
+        // Bedrock will not render anything above a size of 128, so these have to be scaled.
+        // Legacy 64x32 skins are accepted by Bedrock as they are
+        return decode(png, MAX_SKIN_SIZE, MAX_SKIN_SIZE);
+    }
+
+    /**
+     * @return the cape as Bedrock image data padded to 64x32, or null if it needs the {@code BufferedImage} path
+     */
+    public static SkinProvider.@Nullable ImageData decodeCape(byte[] png) {
+        // Larger capes have to be scaled down
+        SkinProvider.ImageData image = decode(png, CAPE_WIDTH, CAPE_HEIGHT);
+        if (image == null) {
+            return null;
+        }
+        if (image.width() == CAPE_WIDTH && image.height() == CAPE_HEIGHT) {
+            return image;
+        }
+
+        // Bedrock doesn't like smaller-sized capes; pad them with transparent pixels
+        byte[] padded = new byte[CAPE_WIDTH * CAPE_HEIGHT * 4];
+        int rowLength = image.width() * 4;
+        for (int y = 0; y < image.height(); y++) {
+            System.arraycopy(image.data(), y * rowLength, padded, y * CAPE_WIDTH * 4, rowLength);
+        }
+        return new SkinProvider.ImageData(CAPE_WIDTH, CAPE_HEIGHT, padded);
+    }
+
+    /**
+     * @return the image as RGBA bytes, or null if the format isn't supported or the data is invalid
+     */
+    public static SkinProvider.@Nullable ImageData decode(byte[] png) {
+        return decode(png, MAX_IMAGE_SIZE, MAX_IMAGE_SIZE);
+    }
+
+    /**
+     * @return the image as RGBA bytes, or null if the format isn't supported, the data is invalid or the image is
+     * larger than the given size
+     */
+    private static SkinProvider.@Nullable ImageData decode(byte[] png, int maxWidth, int maxHeight) {
+        if (png.length < 8 + 25 || readLong(png, 0) != PNG_SIGNATURE) {
+            return null;
+        }
+
+        int width = 0;
+        int height = 0;
+        int bitDepth = 0;
+        int colorType = -1;
+        byte[] palette = null;
+        byte[] paletteAlpha = null;
+
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        byte[] scanlines = null;
+        int scanlinesLength = 0;
+        int inflated = 0;
+
+        try {
+            int offset = 8;
+            while (offset + 8 <= png.length) {
+                int length = readInt(png, offset);
+                int type = readInt(png, offset + 4);
+                int dataOffset = offset + 8;
+                if (length < 0 || dataOffset + length + 4 > png.length) {
+                    return null;
+                }
+                if (type == IEND) {
+                    break;
+                }
+
+                switch (type) {
+                    case IHDR -> {
+                        width = readInt(png, dataOffset);
+                        height = readInt(png, dataOffset + 4);
+                        bitDepth = png[dataOffset + 8];
+                        colorType = png[dataOffset + 9];
+                        int interlace = png[dataOffset + 12];
+                        if (width <= 0 || height <= 0 || width > maxWidth || height > maxHeight || interlace != 0 || !isSupported(colorType, bitDepth)) {
+                            return null;
+                        }
+                        scanlinesLength = height * (1 + rowBytes(width, colorType, bitDepth));
+                        scanlines = scanlinesLength <= SCANLINES_SIZE ? SCANLINES.get() : new byte[scanlinesLength];
+                    }
+                    case PLTE -> {
+                        palette = new byte[length];
+                        System.arraycopy(png, dataOffset, palette, 0, length);
+                    }
+                    case TRNS -> {
+                        if (colorType != COLOR_PALETTE) {
+                            // A single transparent colour; rare enough to leave to ImageIO
+                            return null;
+                        }
+                        paletteAlpha = new byte[length];
+                        System.arraycopy(png, dataOffset, paletteAlpha, 0, length);
+                    }
+                    case IDAT -> {
+                        if (scanlines == null) {
+                            return null;
+                        }
+                        inflater.setInput(png, dataOffset, length);
+                        while (!inflater.needsInput() && !inflater.finished() && inflated < scanlinesLength) {
+                            if (inflater.needsDictionary()) {
+                                return null;
+                            }
+                            inflated += inflater.inflate(scanlines, inflated, scanlinesLength - inflated);
+                        }
+                    }
+                    default -> {
+                        // Ancillary chunks such as gamma or text are irrelevant for skins
+                    }
+                }
+                offset = dataOffset + length + 4; // Skip the CRC
+            }
+        } catch (DataFormatException | ArrayIndexOutOfBoundsException e) {
+            return null;
+        }
+
+        if (scanlines == null || inflated != scanlinesLength || (colorType == COLOR_PALETTE && palette == null)) {
+            return null;
+        }
+
+        int rowBytes = rowBytes(width, colorType, bitDepth);
+        if (!unfilter(scanlines, height, rowBytes, Math.max(1, channels(colorType) * bitDepth / 8))) {
+            return null;
+        }
+
+        byte[] rgba = new byte[width * height * 4];
+        for (int y = 0; y < height; y++) {
+            int row = y * (rowBytes + 1) + 1;
+            int out = y * width * 4;
+            switch (colorType) {
+                case COLOR_RGBA -> System.arraycopy(scanlines, row, rgba, out, width * 4);
+                case COLOR_RGB -> {
+                    for (int x = 0; x < width; x++, row += 3, out += 4) {
+                        rgba[out] = scanlines[row];
+                        rgba[out + 1] = scanlines[row + 1];
+                        rgba[out + 2] = scanlines[row + 2];
+                        rgba[out + 3] = (byte) 0xFF;
+                    }
+                }
+                case COLOR_GREY, COLOR_GREY_ALPHA -> {
+                    boolean alpha = colorType == COLOR_GREY_ALPHA;
+                    for (int x = 0; x < width; x++, out += 4) {
+                        byte grey = scanlines[row++];
+                        rgba[out] = grey;
+                        rgba[out + 1] = grey;
+                        rgba[out + 2] = grey;
+                        rgba[out + 3] = alpha ? scanlines[row++] : (byte) 0xFF;
+                    }
+                }
+                case COLOR_PALETTE -> {
+                    int mask = (1 << bitDepth) - 1;
+                    int pixelsPerByte = 8 / bitDepth;
+                    for (int x = 0; x < width; x++, out += 4) {
+                        int packed = scanlines[row + x / pixelsPerByte] & 0xFF;
+                        int shift = (pixelsPerByte - 1 - x % pixelsPerByte) * bitDepth;
+                        int index = (packed >> shift) & mask;
+                        if (index * 3 + 2 >= palette.length) {
+                            return null;
+                        }
+                        rgba[out] = palette[index * 3];
+                        rgba[out + 1] = palette[index * 3 + 1];
+                        rgba[out + 2] = palette[index * 3 + 2];
+                        rgba[out + 3] = paletteAlpha != null && index < paletteAlpha.length ? paletteAlpha[index] : (byte) 0xFF;
+                    }
+                }
+                default -> {
+                    return null;
+                }
+            }
+        }
+        return new SkinProvider.ImageData(width, height, rgba);
+    }
+
+    /**
+     * Reverses the per-scanline filters in place.
+     *
+     * @return false if a scanline uses an unknown filter
+     */
+    private static boolean unfilter(byte[] data, int height, int rowBytes, int bytesPerPixel) {
+        int stride = rowBytes + 1;
+        for (int y = 0; y < height; y++) {
+            int row = y * stride + 1;
+            int previous = row - stride; // Only valid if y > 0
+            int filter = data[row - 1];
+            switch (filter) {
+                case 0 -> {
+                }
+                case 1 -> { // Sub
+                    for (int i = bytesPerPixel; i < rowBytes; i++) {
+                        data[row + i] += data[row + i - bytesPerPixel];
+                    }
+                }
+                case 2 -> { // Up
+                    if (y > 0) {
+                        for (int i = 0; i < rowBytes; i++) {
+                            data[row + i] += data[previous + i];
+                        }
+                    }
+                }
+                case 3 -> { // Average
+                    for (int i = 0; i < rowBytes; i++) {
+                        int left = i >= bytesPerPixel ? data[row + i - bytesPerPixel] & 0xFF : 0;
+                        int up = y > 0 ? data[previous + i] & 0xFF : 0;
+                        data[row + i] += (byte) ((left + up) >>> 1);
+                    }
+                }
+                case 4 -> { // Paeth
+                    for (int i = 0; i < rowBytes; i++) {
+                        int left = i >= bytesPerPixel ? data[row + i - bytesPerPixel] & 0xFF : 0;
+                        int up = y > 0 ? data[previous + i] & 0xFF : 0;
+                        int upLeft = y > 0 && i >= bytesPerPixel ? data[previous + i - bytesPerPixel] & 0xFF : 0;
+                        data[row + i] += (byte) paeth(left, up, upLeft);
+                    }
+                }
+                default -> {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int paeth(int left, int up, int upLeft) {
+        int estimate = left + up - upLeft;
+        int distanceLeft = Math.abs(estimate - left);
+        int distanceUp = Math.abs(estimate - up);
+        int distanceUpLeft = Math.abs(estimate - upLeft);
+        if (distanceLeft <= distanceUp && distanceLeft <= distanceUpLeft) {
+            return left;
+        }
+        return distanceUp <= distanceUpLeft ? up : upLeft;
+    }
+
+    private static boolean isSupported(int colorType, int bitDepth) {
+        return switch (colorType) {
+            case COLOR_PALETTE -> bitDepth == 1 || bitDepth == 2 || bitDepth == 4 || bitDepth == 8;
+            case COLOR_GREY, COLOR_RGB, COLOR_GREY_ALPHA, COLOR_RGBA -> bitDepth == 8;
+            default -> false;
+        };
+    }
+
+    private static int channels(int colorType) {
+        return switch (colorType) {
+            case COLOR_GREY_ALPHA -> 2;
+            case COLOR_RGB -> 3;
+            case COLOR_RGBA -> 4;
+            default -> 1;
+        };
+    }
+
+    private static int rowBytes(int width, int colorType, int bitDepth) {
+        return (width * channels(colorType) * bitDepth + 7) / 8;
+    }
+
+    private static int readInt(byte[] data, int offset) {
+        return (data[offset] & 0xFF) << 24 | (data[offset + 1] & 0xFF) << 16 | (data[offset + 2] & 0xFF) << 8 | data[offset + 3] & 0xFF;
+    }
+
+    private static long readLong(byte[] data, int offset) {
+        return (long) readInt(data, offset) << 32 | readInt(data, offset + 4) & 0xFFFFFFFFL;
+    }
+}
@@ -48,7 +48,6 @@ import org.geysermc.geyser.text.GeyserLocale;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
-import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
 import java.util.function.Consumer;
@@ -277,10 +276,8 @@ public class SkinManager {
     }
 
     private static SerializedSkin getSkin(String skinId, Skin skin, Cape cape, SkinGeometry geometry) {
-        return SerializedSkin.of(skinId, "", geometry.geometryName(),
-                ImageData.of(skin.skinData()), Collections.emptyList(),
-                ImageData.of(cape.capeData()), geometry.geometryData(),
-                "", true, false, false, cape.capeId(), skinId);
+        // Shared between every viewer of this skin
+        return SkinStore.get().serialize(skinId, skin, cape, geometry);
     }
 
     public static void requestAndHandleSkinAndCape(PlayerEntity entity, GeyserSession session,
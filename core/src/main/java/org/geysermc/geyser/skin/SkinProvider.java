@@ -47,16 +47,16 @@ import org.geysermc.geyser.util.WebUtils;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 public class SkinProvider {
@@ -65,24 +65,40 @@ public class SkinProvider {
     static final Skin EMPTY_SKIN;
     static final Cape EMPTY_CAPE = new Cape("", "no-cape", ByteArrays.EMPTY_ARRAY, true);
 
+    /**
+     * Skin and cape data in these caches is retained in the {@link SkinStore} and released once it is evicted
+     */
     private static final Cache<String, Cape> CACHED_JAVA_CAPES = CacheBuilder.newBuilder()
             .expireAfterAccess(1, TimeUnit.HOURS)
+            .<String, Cape>removalListener(notification -> SkinStore.get().releaseImage(notification.getValue().capeData()))
             .build();
     private static final Cache<String, Skin> CACHED_JAVA_SKINS = CacheBuilder.newBuilder()
             .expireAfterAccess(1, TimeUnit.HOURS)
+            .<String, Skin>removalListener(notification -> SkinStore.get().releaseImage(notification.getValue().skinData()))
             .build();
 
     private static final Cache<String, Cape> CACHED_BEDROCK_CAPES = CacheBuilder.newBuilder()
             .expireAfterAccess(1, TimeUnit.HOURS)
+            .<String, Cape>removalListener(notification -> SkinStore.get().releaseImage(notification.getValue().capeData()))
             .build();
     private static final Cache<String, Skin> CACHED_BEDROCK_SKINS = CacheBuilder.newBuilder()
             .expireAfterAccess(1, TimeUnit.HOURS)
+            .<String, Skin>removalListener(notification -> SkinStore.get().releaseImage(notification.getValue().skinData()))
             .build();
 
+    /**
+     * Requests that are currently in flight, so concurrent requests for the same resource only fetch it once
+     */
     private static final Map<String, CompletableFuture<Cape>> requestedCapes = new ConcurrentHashMap<>();
     private static final Map<String, CompletableFuture<Skin>> requestedSkins = new ConcurrentHashMap<>();
+    private static final Map<String, CompletableFuture<@Nullable String>> requestedTextures = new ConcurrentHashMap<>();
+
+    private static final SkinImageCache IMAGE_CACHE;
 
-    private static final Map<UUID, SkinGeometry> cachedGeometry = new ConcurrentHashMap<>();
+    private static final Cache<UUID, SkinGeometry> CACHED_BEDROCK_GEOMETRY = CacheBuilder.newBuilder()
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .<UUID, SkinGeometry>removalListener(notification -> SkinStore.get().releaseGeometry(notification.getValue()))
+            .build();
 
     /**
      * Citizens NPCs use UUID version 2, while legitimate Minecraft players use version 4, and
@@ -126,6 +142,8 @@ public class SkinProvider {
         WEARING_CUSTOM_SKULL_SLIM = new SkinGeometry("{\"geometry\" :{\"default\" :\"geometry.humanoid.wearingCustomSkullSlim\"}}", wearingCustomSkullSlim);
 
         GeyserImpl geyser = GeyserImpl.getInstance();
+        IMAGE_CACHE = new SkinImageCache(geyser.getBootstrap().getConfigFolder().resolve("cache").resolve("skins"));
+
         if (geyser.getConfig().isAllowThirdPartyEars() || geyser.getConfig().isAllowThirdPartyCapes()) {
             geyser.getLogger().warning("Third-party ears/capes have been removed from Geyser, if you still wish to have this functionality please use the extension: https://github.com/GeyserMC/ThirdPartyCosmetics");
         }
@@ -149,18 +167,19 @@ public class SkinProvider {
         // Schedule Daily Image Expiry if we are caching them
         if (geyser.getConfig().getCacheImages() > 0) {
             geyser.getScheduledThread().scheduleAtFixedRate(() -> {
-                File cacheFolder = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").toFile();
-                if (!cacheFolder.exists()) {
-                    return;
-                }
-
-                int count = 0;
                 final long expireTime = ((long) GeyserImpl.getInstance().getConfig().getCacheImages()) * ((long)1000 * 60 * 60 * 24);
-                for (File imageFile : Objects.requireNonNull(cacheFolder.listFiles())) {
-                    if (imageFile.lastModified() < System.currentTimeMillis() - expireTime) {
-                        //noinspection ResultOfMethodCallIgnored
-                        imageFile.delete();
-                        count++;
+                int count = IMAGE_CACHE.removeExpired(expireTime);
+
+                // Images cached as PNG files by older versions
+                File legacyCacheFolder = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").toFile();
+                File[] legacyFiles = legacyCacheFolder.listFiles();
+                if (legacyFiles != null) {
+                    for (File imageFile : legacyFiles) {
+                        if (imageFile.lastModified() < System.currentTimeMillis() - expireTime) {
+                            //noinspection ResultOfMethodCallIgnored
+                            imageFile.delete();
+                            count++;
+                        }
                     }
                 }
 
@@ -194,7 +213,10 @@ public class SkinProvider {
                 skin = CACHED_BEDROCK_SKINS.getIfPresent(skinId);
                 String capeId = session.getClientData().getCapeId();
                 cape = CACHED_BEDROCK_CAPES.getIfPresent(capeId);
-                geometry = cachedGeometry.getOrDefault(uuid, geometry);
+                SkinGeometry bedrockGeometry = CACHED_BEDROCK_GEOMETRY.getIfPresent(uuid);
+                if (bedrockGeometry != null) {
+                    geometry = bedrockGeometry;
+                }
             }
         }
 
@@ -294,146 +316,162 @@ public class SkinProvider {
     }
 
     private static CompletableFuture<SkinAndCape> requestSkinAndCape(UUID playerId, String skinUrl, String capeUrl) {
-        return CompletableFuture.supplyAsync(() -> {
-            long time = System.currentTimeMillis();
+        long time = System.currentTimeMillis();
 
-            SkinAndCape skinAndCape = new SkinAndCape(
-                    getOrDefault(requestSkin(playerId, skinUrl, false), EMPTY_SKIN, 5),
-                    getOrDefault(requestCape(capeUrl, false), EMPTY_CAPE, 5)
-            );
+        // Copy the shared futures so the timeout doesn't complete them for everyone else waiting on them
+        CompletableFuture<Skin> skin = requestSkin(playerId, skinUrl).copy()
+                .completeOnTimeout(EMPTY_SKIN, 5, TimeUnit.SECONDS)
+                .exceptionally(throwable -> EMPTY_SKIN);
+        CompletableFuture<Cape> cape = requestCape(capeUrl).copy()
+                .completeOnTimeout(EMPTY_CAPE, 5, TimeUnit.SECONDS)
+                .exceptionally(throwable -> EMPTY_CAPE);
 
+        return skin.thenCombine(cape, (skinResult, capeResult) -> {
             GeyserImpl.getInstance().getLogger().debug("Took " + (System.currentTimeMillis() - time) + "ms for " + playerId);
-            return skinAndCape;
-        }, getExecutorService());
+            return new SkinAndCape(skinResult, capeResult);
+        });
     }
 
-    static CompletableFuture<Skin> requestSkin(UUID playerId, String textureUrl, boolean newThread) {
+    static CompletableFuture<Skin> requestSkin(UUID playerId, String textureUrl) {
         if (textureUrl == null || textureUrl.isEmpty()) return CompletableFuture.completedFuture(EMPTY_SKIN);
-        CompletableFuture<Skin> requestedSkin = requestedSkins.get(textureUrl);
-        if (requestedSkin != null) {
-            // already requested
-            return requestedSkin;
-        }
 
         Skin cachedSkin = CACHED_JAVA_SKINS.getIfPresent(textureUrl);
         if (cachedSkin != null) {
             return CompletableFuture.completedFuture(cachedSkin);
         }
 
-        CompletableFuture<Skin> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplySkin(playerId, textureUrl), getExecutorService())
-                    .whenCompleteAsync((skin, throwable) -> {
-                        CACHED_JAVA_SKINS.put(textureUrl, skin);
-                        requestedSkins.remove(textureUrl);
-                    });
-            requestedSkins.put(textureUrl, future);
-        } else {
-            Skin skin = supplySkin(playerId, textureUrl);
-            future = CompletableFuture.completedFuture(skin);
-            CACHED_JAVA_SKINS.put(textureUrl, skin);
-        }
-        return future;
+        return coalesce(requestedSkins, textureUrl, url -> requestImageData(url, false)
+                .handle((image, throwable) -> {
+                    Skin skin = image != null
+                            ? new Skin(url, SkinStore.get().retainImage(image.data()))
+                            : new Skin("empty", SkinStore.get().retainImage(EMPTY_SKIN.skinData()), true);
+                    CACHED_JAVA_SKINS.put(url, skin);
+                    return skin;
+                }));
     }
 
-    private static CompletableFuture<Cape> requestCape(String capeUrl, boolean newThread) {
+    private static CompletableFuture<Cape> requestCape(String capeUrl) {
         if (capeUrl == null || capeUrl.isEmpty()) return CompletableFuture.completedFuture(EMPTY_CAPE);
-        CompletableFuture<Cape> requestedCape = requestedCapes.get(capeUrl);
-        if (requestedCape != null) {
-            return requestedCape;
-        }
 
         Cape cachedCape = CACHED_JAVA_CAPES.getIfPresent(capeUrl);
         if (cachedCape != null) {
             return CompletableFuture.completedFuture(cachedCape);
         }
 
-        CompletableFuture<Cape> future;
-        if (newThread) {
-            future = CompletableFuture.supplyAsync(() -> supplyCape(capeUrl), getExecutorService())
-                    .whenCompleteAsync((cape, throwable) -> {
-                        CACHED_JAVA_CAPES.put(capeUrl, cape);
-                        requestedCapes.remove(capeUrl);
-                    });
-            requestedCapes.put(capeUrl, future);
-        } else {
-            Cape cape = supplyCape(capeUrl); // blocking
-            future = CompletableFuture.completedFuture(cape);
-            CACHED_JAVA_CAPES.put(capeUrl, cape);
+        return coalesce(requestedCapes, capeUrl, url -> requestImageData(url, true)
+                .handle((image, throwable) -> {
+                    byte[] capeData = image != null ? SkinStore.get().retainImage(image.data()) : EMPTY_CAPE.capeData();
+                    String[] urlSection = url.split("/"); // A real url is expected at this stage
+
+                    Cape cape = new Cape(
+                            url,
+                            urlSection[urlSection.length - 1], // get the texture id and use it as cape id
+                            capeData,
+                            capeData.length == 0
+                    );
+                    CACHED_JAVA_CAPES.put(url, cape);
+                    return cape;
+                }));
+    }
+
+    /**
+     * Returns the request that is already in flight for the given key, or starts a new one.
+     */
+    private static <T> CompletableFuture<T> coalesce(Map<String, CompletableFuture<T>> requests, String key,
+                                                     Function<String, CompletableFuture<T>> request) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletableFuture<T> existing = requests.putIfAbsent(key, future);
+        if (existing != null) {
+            return existing;
         }
+
+        request.apply(key).whenComplete((result, throwable) -> {
+            requests.remove(key, future);
+            if (throwable != null) {
+                future.completeExceptionally(throwable);
+            } else {
+                future.complete(result);
+            }
+        });
         return future;
     }
 
     static void storeBedrockSkin(UUID playerID, String skinId, byte[] skinData) {
-        Skin skin = new Skin(skinId, skinData);
+        Skin skin = new Skin(skinId, SkinStore.get().retainImage(skinData));
         CACHED_BEDROCK_SKINS.put(skin.textureUrl(), skin);
     }
 
     static void storeBedrockCape(String capeId, byte[] capeData) {
-        Cape cape = new Cape(capeId, capeId, capeData);
+        Cape cape = new Cape(capeId, capeId, SkinStore.get().retainImage(capeData));
         CACHED_BEDROCK_CAPES.put(capeId, cape);
     }
 
     static void storeBedrockGeometry(UUID playerID, byte[] geometryName, byte[] geometryData) {
         SkinGeometry geometry = new SkinGeometry(new String(geometryName), new String(geometryData));
-        cachedGeometry.put(playerID, geometry);
+        CACHED_BEDROCK_GEOMETRY.put(playerID, SkinStore.get().retainGeometry(geometry));
     }
 
-    private static Skin supplySkin(UUID uuid, String textureUrl) {
+    public static BufferedImage requestImage(String imageUrl, boolean isCape) throws IOException {
         try {
-            byte[] skin = requestImageData(textureUrl, false);
-            return new Skin(textureUrl, skin);
-        } catch (Exception ignored) {} // just ignore I guess
-
-        return new Skin("empty", EMPTY_SKIN.skinData(), true);
+            ImageData image = requestImageData(imageUrl, isCape).join();
+            return imageDataToBufferedImage(image.data(), image.width(), image.height());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Failed to request image from: %s".formatted(imageUrl), e.getCause());
+        }
     }
 
-    private static Cape supplyCape(String capeUrl) {
-        byte[] cape = EMPTY_CAPE.capeData();
-        try {
-            cape = requestImageData(capeUrl, true);
-        } catch (Exception ignored) {
-        } // just ignore I guess
-
-        String[] urlSection = capeUrl.split("/"); // A real url is expected at this stage
-
-        return new Cape(
-                capeUrl,
-                urlSection[urlSection.length - 1], // get the texture id and use it as cape id
-                cape,
-                cape.length == 0
-        );
+    /**
+     * Gets the Bedrock image data of a skin or cape, either from the disk cache or by downloading and converting it.
+     */
+    private static CompletableFuture<ImageData> requestImageData(String imageUrl, boolean isCape) {
+        // Reading the disk cache blocks, so don't do it on the thread that requested the image
+        return CompletableFuture.supplyAsync(() -> IMAGE_CACHE.read(imageUrl, isCape), getExecutorService())
+                .thenCompose(cachedImage -> {
+                    if (cachedImage != null) {
+                        GeyserImpl.getInstance().getLogger().debug("Read cached image for " + imageUrl);
+                        return CompletableFuture.completedFuture(cachedImage);
+                    }
+                    return downloadImageData(imageUrl, isCape);
+                });
     }
 
-    @SuppressWarnings("ResultOfMethodCallIgnored")
-    public static BufferedImage requestImage(String imageUrl, boolean isCape) throws IOException {
-        BufferedImage image = null;
-
-        // First see if we have a cached file. We also update the modification stamp so we know when the file was last used
-        File imageFile = GeyserImpl.getInstance().getBootstrap().getConfigFolder().resolve("cache").resolve("images").resolve(UUID.nameUUIDFromBytes(imageUrl.getBytes()) + ".png").toFile();
-        if (imageFile.exists()) {
-            try {
-                GeyserImpl.getInstance().getLogger().debug("Reading cached image from file " + imageFile.getPath() + " for " + imageUrl);
-                imageFile.setLastModified(System.currentTimeMillis());
-                image = ImageIO.read(imageFile);
-            } catch (IOException ignored) {}
-        }
-
-        // If no image we download it
-        if (image == null) {
-            image = downloadImage(imageUrl);
+    private static CompletableFuture<ImageData> downloadImageData(String imageUrl, boolean isCape) {
+        return WebUtils.getBytesAsync(imageUrl).thenApplyAsync(bytes -> {
             GeyserImpl.getInstance().getLogger().debug("Downloaded " + imageUrl);
-
-            // Write to cache if we are allowed
-            if (GeyserImpl.getInstance().getConfig().getCacheImages() > 0) {
-                imageFile.getParentFile().mkdirs();
+            ImageData imageData = isCape ? SkinImageDecoder.decodeCape(bytes) : SkinImageDecoder.decodeSkin(bytes);
+            if (imageData == null) {
+                // Unusual format or size; let ImageIO handle it
                 try {
-                    ImageIO.write(image, "png", imageFile);
-                    GeyserImpl.getInstance().getLogger().debug("Writing cached skin to file " + imageFile.getPath() + " for " + imageUrl);
+                    imageData = convertImage(bytes, isCape);
                 } catch (IOException e) {
-                    GeyserImpl.getInstance().getLogger().error("Failed to write cached skin to file " + imageFile.getPath() + " for " + imageUrl);
+                    throw new CompletionException(e);
+                }
+                if (imageData == null) {
+                    throw new CompletionException(new IOException("Failed to read image from: %s".formatted(imageUrl)));
                 }
             }
+
+            // Write to cache if we are allowed
+            if (GeyserImpl.getInstance().getConfig().getCacheImages() > 0) {
+                IMAGE_CACHE.write(imageUrl, isCape, imageData);
+            }
+            return imageData;
+        }, getExecutorService());
+    }
+
+    /**
+     * Decodes a skin or cape with ImageIO and resizes it to a size the Bedrock client accepts.
+     *
+     * @return the converted image, or null if the image could not be decoded
+     */
+    @Nullable
+    static ImageData convertImage(byte[] png, boolean isCape) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return null;
         }
 
         // if the requested image is a cape
@@ -466,14 +504,9 @@ public class SkinProvider {
             // TODO remove alpha channel
         }
 
-        return image;
-    }
-
-    private static byte[] requestImageData(String imageUrl, boolean isCape) throws Exception {
-        BufferedImage image = requestImage(imageUrl, isCape);
-        byte[] data = bufferedImageToImageData(image);
+        ImageData imageData = new ImageData(image.getWidth(), image.getHeight(), bufferedImageToImageData(image));
         image.flush();
-        return data;
+        return imageData;
     }
 
     /**
@@ -483,23 +516,22 @@ public class SkinProvider {
      * @return a completable GameProfile with textures included
      */
     public static CompletableFuture<@Nullable String> requestTexturesFromUUID(String uuid) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                JsonNode node = WebUtils.getJson("https://sessionserver.mojang.com/session/minecraft/profile/" + uuid);
-                JsonNode properties = node.get("properties");
-                if (properties == null) {
-                    GeyserImpl.getInstance().getLogger().debug("No properties found in Mojang response for " + uuid);
+        return coalesce(requestedTextures, uuid, id -> WebUtils.getJsonAsync("https://sessionserver.mojang.com/session/minecraft/profile/" + id)
+                .thenApply(node -> {
+                    JsonNode properties = node.get("properties");
+                    if (properties == null) {
+                        GeyserImpl.getInstance().getLogger().debug("No properties found in Mojang response for " + id);
+                        return null;
+                    }
+                    return properties.get(0).get("value").asText();
+                })
+                .exceptionally(throwable -> {
+                    GeyserImpl.getInstance().getLogger().debug("Unable to request textures for " + id);
+                    if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
+                        throwable.printStackTrace();
+                    }
                     return null;
-                }
-                return node.get("properties").get(0).get("value").asText();
-            } catch (Exception e) {
-                GeyserImpl.getInstance().getLogger().debug("Unable to request textures for " + uuid);
-                if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
-                    e.printStackTrace();
-                }
-                return null;
-            }
-        }, getExecutorService());
+                }));
     }
 
     /**
@@ -509,42 +541,28 @@ public class SkinProvider {
      * @return a completable GameProfile with textures included
      */
     public static CompletableFuture<@Nullable String> requestTexturesFromUsername(String username) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                // Offline skin, or no present UUID
-                JsonNode node = WebUtils.getJson("https://api.mojang.com/users/profiles/minecraft/" + username);
-                JsonNode id = node.get("id");
-                if (id == null) {
-                    GeyserImpl.getInstance().getLogger().debug("No UUID found in Mojang response for " + username);
+        // Offline skin, or no present UUID
+        return WebUtils.getJsonAsync("https://api.mojang.com/users/profiles/minecraft/" + username)
+                .thenApply(node -> {
+                    JsonNode id = node.get("id");
+                    if (id == null) {
+                        GeyserImpl.getInstance().getLogger().debug("No UUID found in Mojang response for " + username);
+                        return null;
+                    }
+                    return id.asText();
+                })
+                .exceptionally(throwable -> {
+                    if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
+                        throwable.printStackTrace();
+                    }
                     return null;
-                }
-                return id.asText();
-            } catch (Exception e) {
-                if (GeyserImpl.getInstance().getConfig().isDebugMode()) {
-                    e.printStackTrace();
-                }
-                return null;
-            }
-        }, getExecutorService()).thenCompose(uuid -> {
-            if (uuid == null) {
-                return CompletableFuture.completedFuture(null);
-            }
-            return requestTexturesFromUUID(uuid);
-        });
-    }
-
-    private static BufferedImage downloadImage(String imageUrl) throws IOException {
-        HttpURLConnection con = (HttpURLConnection) new URL(imageUrl).openConnection();
-        con.setRequestProperty("User-Agent", WebUtils.getUserAgent());
-        con.setConnectTimeout(10000);
-        con.setReadTimeout(10000);
-
-        BufferedImage image = ImageIO.read(con.getInputStream());
-
-        if (image == null) {
-            throw new IllegalArgumentException("Failed to read image from: %s".formatted(imageUrl));
-        }
-        return image;
+                })
+                .thenCompose(uuid -> {
+                    if (uuid == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    return requestTexturesFromUUID(uuid);
+                });
     }
 
     public static BufferedImage scale(BufferedImage bufferedImage, int newWidth, int newHeight) {
@@ -597,17 +615,18 @@ public class SkinProvider {
      * @return The converted byte[]
      */
     public static byte[] bufferedImageToImageData(BufferedImage image) {
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(image.getWidth() * 4 + image.getHeight() * 4);
-        for (int y = 0; y < image.getHeight(); y++) {
-            for (int x = 0; x < image.getWidth(); x++) {
-                int rgba = image.getRGB(x, y);
-                outputStream.write((rgba >> 16) & 0xFF);
-                outputStream.write((rgba >> 8) & 0xFF);
-                outputStream.write(rgba & 0xFF);
-                outputStream.write((rgba >> 24) & 0xFF);
-            }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+        byte[] data = new byte[pixels.length * 4];
+        for (int i = 0, index = 0; i < pixels.length; i++) {
+            int argb = pixels[i];
+            data[index++] = (byte) (argb >> 16); // Red
+            data[index++] = (byte) (argb >> 8); // Green
+            data[index++] = (byte) argb; // Blue
+            data[index++] = (byte) (argb >> 24); // Alpha
         }
-        return outputStream.toByteArray();
+        return data;
     }
 
     public static <T> T getOrDefault(CompletableFuture<T> future, T defaultValue, int timeoutInSeconds) {
@@ -620,6 +639,12 @@ public class SkinProvider {
     public record SkinAndCape(Skin skin, Cape cape) {
     }
 
+    /**
+     * A skin or cape converted to Bedrock's RGBA format
+     */
+    public record ImageData(int width, int height, byte[] data) {
+    }
+
     public static class EventSkinData {
         private SkinData skinData;
 
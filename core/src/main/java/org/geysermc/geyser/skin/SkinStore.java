@@ -0,0 +1,339 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.cloudburstmc.protocol.bedrock.data.skin.ImageData;
+import org.cloudburstmc.protocol.bedrock.data.skin.SerializedSkin;
+import org.geysermc.geyser.api.skin.Cape;
+import org.geysermc.geyser.api.skin.Skin;
+import org.geysermc.geyser.api.skin.SkinGeometry;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A content-addressed store of skin images and geometry shared by all players and sessions. Identical images and
+ * geometry (default skins, popular capes, the same player seen by every viewer) are kept in memory once, and the
+ * {@link SerializedSkin} built from them is shared by every packet that sends it.
+ * <p>
+ * Callers that keep skin data around (the skin caches in {@link SkinProvider} and {@link FakeHeadProvider}) retain it
+ * through this store and release it once they drop it. Content that is no longer referenced is kept until the
+ * unreferenced content exceeds the byte budget, so a skin that comes back shortly after is not stored twice.
+ */
+public final class SkinStore {
+    private static final SkinStore INSTANCE = new SkinStore(Long.getLong("Geyser.SkinStoreBudget", 32L * 1024 * 1024));
+
+    private static final byte IMAGE = 0;
+    private static final byte GEOMETRY = 1;
+
+    private final long maxUnreferencedBytes;
+
+    private final Map<HashCode, Entry> entries = new HashMap<>();
+    /**
+     * Canonical values to their entry, so retained values can be looked up again without hashing them
+     */
+    private final Map<Object, Entry> byValue = new IdentityHashMap<>();
+    /**
+     * Entries that are no longer retained by anyone, oldest first
+     */
+    private final Set<Entry> unreferenced = new LinkedHashSet<>();
+    private long storedBytes;
+    private long unreferencedBytes;
+    private long deduplicatedBytes;
+
+    private final Cache<SkinKey, SerializedSkin> serializedSkins = CacheBuilder.newBuilder()
+            .expireAfterAccess(1, TimeUnit.HOURS)
+            .maximumSize(4096)
+            .<SkinKey, SerializedSkin>removalListener(notification -> {
+                if (notification.getCause() != RemovalCause.REPLACED) {
+                    unlink(notification.getKey());
+                }
+            })
+            .recordStats()
+            .build();
+
+    SkinStore(long maxUnreferencedBytes) {
+        this.maxUnreferencedBytes = maxUnreferencedBytes;
+    }
+
+    public static SkinStore get() {
+        return INSTANCE;
+    }
+
+    /**
+     * Stores this image and returns the canonical copy of it, which should be used in place of the given array.
+     * Every call must be paired with a call to {@link #releaseImage(byte[])} once the image is no longer used.
+     */
+    public byte[] retainImage(byte[] data) {
+        if (data.length == 0) {
+            return data;
+        }
+        return (byte[]) retain(data, IMAGE);
+    }
+
+    public void releaseImage(byte[] data) {
+        release(data);
+    }
+
+    /**
+     * Stores this geometry and returns the canonical copy of it. Every call must be paired with a call to
+     * {@link #releaseGeometry(SkinGeometry)} once the geometry is no longer used.
+     */
+    public SkinGeometry retainGeometry(SkinGeometry geometry) {
+        return (SkinGeometry) retain(geometry, GEOMETRY);
+    }
+
+    public void releaseGeometry(SkinGeometry geometry) {
+        release(geometry);
+    }
+
+    /**
+     * Builds the Bedrock representation of this skin, or returns the one that was already built for the same skin ID,
+     * image data and geometry. It is only kept for as long as its images are in the store, so the serialized skins
+     * don't hold on to image data beyond the byte budget.
+     */
+    public SerializedSkin serialize(String skinId, Skin skin, Cape cape, SkinGeometry geometry) {
+        Entry skinEntry;
+        Entry capeEntry;
+        Entry geometryEntry;
+        synchronized (this) {
+            skinEntry = stored(skin.skinData(), IMAGE);
+            capeEntry = stored(cape.capeData(), IMAGE);
+            geometryEntry = stored(geometry, GEOMETRY);
+        }
+        byte[] skinData = skinEntry == null ? skin.skinData() : (byte[]) skinEntry.value;
+        byte[] capeData = capeEntry == null ? cape.capeData() : (byte[]) capeEntry.value;
+        SkinGeometry canonicalGeometry = geometryEntry == null ? geometry : (SkinGeometry) geometryEntry.value;
+
+        if ((skinEntry == null && skinData.length != 0) || (capeEntry == null && capeData.length != 0)) {
+            // Not kept in the store, so it can't be dropped along with the store entries either
+            return serialize(skinId, cape.capeId(), skinData, capeData, canonicalGeometry);
+        }
+
+        SkinKey key = new SkinKey(skinId, cape.capeId(), skinData, capeData, canonicalGeometry);
+        SerializedSkin serializedSkin = serializedSkins.getIfPresent(key);
+        if (serializedSkin == null) {
+            serializedSkin = serialize(skinId, cape.capeId(), skinData, capeData, canonicalGeometry);
+            synchronized (this) {
+                if (isStored(skinEntry) && isStored(capeEntry) && isStored(geometryEntry)) {
+                    link(skinEntry, key);
+                    link(capeEntry, key);
+                    link(geometryEntry, key);
+                    serializedSkins.put(key, serializedSkin);
+                }
+            }
+        }
+        return serializedSkin;
+    }
+
+    private static SerializedSkin serialize(String skinId, String capeId, byte[] skinData, byte[] capeData, SkinGeometry geometry) {
+        return SerializedSkin.of(skinId, "", geometry.geometryName(),
+                ImageData.of(skinData), Collections.emptyList(),
+                ImageData.of(capeData), geometry.geometryData(),
+                "", true, false, false, capeId, skinId);
+    }
+
+    private synchronized Object retain(Object value, byte type) {
+        Entry entry = byValue.get(value);
+        if (entry == null) {
+            HashCode hash = hash(value, type);
+            entry = entries.get(hash);
+            if (entry == null) {
+                entry = new Entry(hash, value, type, sizeOf(value));
+                entries.put(hash, entry);
+                byValue.put(value, entry);
+                storedBytes += entry.size;
+            } else {
+                deduplicatedBytes += entry.size;
+            }
+        }
+
+        if (entry.references++ == 0 && unreferenced.remove(entry)) {
+            unreferencedBytes -= entry.size;
+        }
+        return entry.value;
+    }
+
+    private synchronized void release(Object value) {
+        Entry entry = byValue.get(value);
+        if (entry == null || entry.references == 0) {
+            return;
+        }
+
+        if (--entry.references == 0) {
+            unreferenced.add(entry);
+            unreferencedBytes += entry.size;
+            trim();
+        }
+    }
+
+    /**
+     * Returns the store entry of this value if there is one, without retaining it.
+     */
+    private Entry stored(Object value, byte type) {
+        if (value instanceof byte[] data && data.length == 0) {
+            return null;
+        }
+        Entry entry = byValue.get(value);
+        if (entry == null) {
+            entry = entries.get(hash(value, type));
+        }
+        return entry;
+    }
+
+    private boolean isStored(Entry entry) {
+        return entry == null || entries.get(entry.hash) == entry;
+    }
+
+    private static void link(Entry entry, SkinKey key) {
+        if (entry != null) {
+            entry.serializedSkins.add(key);
+        }
+    }
+
+    /**
+     * Called once a serialized skin expires or is dropped from the cache.
+     */
+    private synchronized void unlink(SkinKey key) {
+        if (serializedSkins.asMap().containsKey(key)) {
+            // Built again in the meantime
+            return;
+        }
+        for (Object value : new Object[] {key.skinData(), key.capeData(), key.geometry()}) {
+            Entry entry = byValue.get(value);
+            if (entry != null) {
+                entry.serializedSkins.remove(key);
+            }
+        }
+    }
+
+    private void trim() {
+        Iterator<Entry> it = unreferenced.iterator();
+        while (unreferencedBytes > maxUnreferencedBytes && it.hasNext()) {
+            Entry entry = it.next();
+            it.remove();
+            entries.remove(entry.hash);
+            byValue.remove(entry.value);
+            unreferencedBytes -= entry.size;
+            storedBytes -= entry.size;
+            if (!entry.serializedSkins.isEmpty()) {
+                serializedSkins.invalidateAll(List.copyOf(entry.serializedSkins));
+                entry.serializedSkins.clear();
+            }
+        }
+    }
+
+    private static HashCode hash(Object value, byte type) {
+        if (type == IMAGE) {
+            return Hashing.murmur3_128().newHasher()
+                    .putByte(IMAGE)
+                    .putBytes((byte[]) value)
+                    .hash();
+        }
+        SkinGeometry geometry = (SkinGeometry) value;
+        return Hashing.murmur3_128().newHasher()
+                .putByte(GEOMETRY)
+                .putInt(geometry.geometryName().length())
+                .putUnencodedChars(geometry.geometryName())
+                .putUnencodedChars(geometry.geometryData())
+                .hash();
+    }
+
+    private static long sizeOf(Object value) {
+        if (value instanceof byte[] data) {
+            return data.length;
+        }
+        SkinGeometry geometry = (SkinGeometry) value;
+        return 2L * (geometry.geometryName().length() + geometry.geometryData().length());
+    }
+
+    public synchronized Stats stats() {
+        int uniqueImages = 0;
+        long imageReferences = 0;
+        int uniqueGeometries = 0;
+        long geometryReferences = 0;
+        for (Entry entry : entries.values()) {
+            if (entry.type == IMAGE) {
+                uniqueImages++;
+                imageReferences += entry.references;
+            } else {
+                uniqueGeometries++;
+                geometryReferences += entry.references;
+            }
+        }
+        CacheStats serializedStats = serializedSkins.stats();
+        return new Stats(uniqueImages, imageReferences, uniqueGeometries, geometryReferences, storedBytes,
+                deduplicatedBytes, serializedSkins.size(), serializedStats.hitRate());
+    }
+
+    private static final class Entry {
+        private final HashCode hash;
+        private final Object value;
+        private final byte type;
+        private final long size;
+        private int references;
+        /**
+         * Serialized skins built from this value, which are dropped along with it
+         */
+        private final Set<SkinKey> serializedSkins = new HashSet<>();
+
+        private Entry(HashCode hash, Object value, byte type, long size) {
+            this.hash = hash;
+            this.value = value;
+            this.type = type;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Image data is compared by identity; it has already been replaced with its canonical copy.
+     */
+    private record SkinKey(String skinId, String capeId, byte[] skinData, byte[] capeData, SkinGeometry geometry) {
+    }
+
+    /**
+     * @param uniqueImages skin and cape images held in memory
+     * @param imageReferences images currently used by cached skins and capes, including duplicates
+     * @param deduplicatedBytes bytes of image and geometry data that did not have to be stored again
+     */
+    public record Stats(int uniqueImages, long imageReferences, int uniqueGeometries, long geometryReferences,
+                        long storedBytes, long deduplicatedBytes, long serializedSkins, double serializedSkinHitRate) {
+    }
+}
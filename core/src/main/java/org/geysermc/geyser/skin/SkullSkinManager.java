@@ -25,7 +25,6 @@
 
 package org.geysermc.geyser.skin;
 
-import org.cloudburstmc.protocol.bedrock.data.skin.ImageData;
 import org.cloudburstmc.protocol.bedrock.data.skin.SerializedSkin;
 import org.cloudburstmc.protocol.bedrock.packet.PlayerSkinPacket;
 import org.geysermc.geyser.GeyserImpl;
@@ -35,7 +34,6 @@ import org.geysermc.geyser.entity.type.player.SkullPlayerEntity;
 import org.geysermc.geyser.session.GeyserSession;
 import org.geysermc.geyser.text.GeyserLocale;
 
-import java.util.Collections;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 
@@ -44,11 +42,7 @@ public class SkullSkinManager extends SkinManager {
     public static SerializedSkin buildSkullEntryManually(String skinId, byte[] skinData) {
         // Prevents https://cdn.discordapp.com/attachments/613194828359925800/779458146191147008/unknown.png
         skinId = skinId + "_skull";
-        return SerializedSkin.of(
-                skinId, "", SkinProvider.SKULL_GEOMETRY.geometryName(), ImageData.of(skinData), Collections.emptyList(),
-                ImageData.of(SkinProvider.EMPTY_CAPE.capeData()), SkinProvider.SKULL_GEOMETRY.geometryData(),
-                "", true, false, false, SkinProvider.EMPTY_CAPE.capeId(), skinId
-        );
+        return SkinStore.get().serialize(skinId, new Skin(skinId, skinData), SkinProvider.EMPTY_CAPE, SkinProvider.SKULL_GEOMETRY);
     }
 
     public static void requestAndHandleSkin(SkullPlayerEntity entity, GeyserSession session,
@@ -79,7 +73,7 @@ public class SkullSkinManager extends SkinManager {
             SkinData fallback = SkinProvider.determineFallbackSkinData(entity.getSkullUUID());
             applySkin.accept(fallback.skin(), null);
         } else {
-            SkinProvider.requestSkin(entity.getUuid(), data.skinUrl(), true)
+            SkinProvider.requestSkin(entity.getUuid(), data.skinUrl())
                     .whenCompleteAsync(applySkin);
         }
     }
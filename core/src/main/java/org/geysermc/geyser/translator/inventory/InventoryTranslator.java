@@ -42,6 +42,7 @@ import org.geysermc.geyser.GeyserImpl;
 import org.geysermc.geyser.inventory.*;
 import org.geysermc.geyser.inventory.click.Click;
 import org.geysermc.geyser.inventory.click.ClickPlan;
+import org.geysermc.geyser.inventory.updater.InventoryUpdater;
 import org.geysermc.geyser.inventory.recipe.GeyserRecipe;
 import org.geysermc.geyser.inventory.recipe.GeyserShapedRecipe;
 import org.geysermc.geyser.inventory.recipe.GeyserShapelessRecipe;
@@ -157,6 +158,7 @@ public abstract class InventoryTranslator {
     }
 
     public final void translateRequests(GeyserSession session, Inventory inventory, List<ItemStackRequest> requests) {
+        forgetRequestedSlots(inventory, requests);
         boolean refresh = false;
         ItemStackResponsePacket responsePacket = new ItemStackResponsePacket();
         for (ItemStackRequest request : requests) {
@@ -198,6 +200,47 @@ public abstract class InventoryTranslator {
         inventory.resetNextStateId();
     }
 
+    /**
+     * The client changes its own view of the container slots it moves items in or out of, so those slots can't be
+     * compared against what was last sent anymore.
+     */
+    private void forgetRequestedSlots(Inventory inventory, List<ItemStackRequest> requests) {
+        if (inventory.getLastSentItems() == null) {
+            return;
+        }
+        for (ItemStackRequest request : requests) {
+            for (ItemStackRequestAction action : request.getActions()) {
+                switch (action.getType()) {
+                    case TAKE, PLACE -> {
+                        TransferItemStackRequestAction transferAction = (TransferItemStackRequestAction) action;
+                        forgetRequestedSlot(inventory, transferAction.getSource());
+                        forgetRequestedSlot(inventory, transferAction.getDestination());
+                    }
+                    case SWAP -> {
+                        SwapAction swapAction = (SwapAction) action;
+                        forgetRequestedSlot(inventory, swapAction.getSource());
+                        forgetRequestedSlot(inventory, swapAction.getDestination());
+                    }
+                    case DROP -> forgetRequestedSlot(inventory, ((DropAction) action).getSource());
+                    case DESTROY -> forgetRequestedSlot(inventory, ((DestroyAction) action).getSource());
+                    case CONSUME -> forgetRequestedSlot(inventory, ((ConsumeAction) action).getSource());
+                    default -> {
+                    }
+                }
+            }
+        }
+    }
+
+    private void forgetRequestedSlot(Inventory inventory, ItemStackRequestSlotData slotData) {
+        if (isCursor(slotData)) {
+            return;
+        }
+        int javaSlot = bedrockSlotToJava(slotData);
+        if (javaSlot >= 0 && javaSlot < this.size) {
+            InventoryUpdater.setLastSentItem(inventory, javaSlotToBedrock(javaSlot), null);
+        }
+    }
+
     public ItemStackResponse translateRequest(GeyserSession session, Inventory inventory, ItemStackRequest request) {
         ClickPlan plan = new ClickPlan(session, this, inventory);
         IntSet affectedSlots = new IntOpenHashSet();
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.translator.protocol.bedrock.world;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import org.cloudburstmc.math.vector.Vector3i;
+import org.cloudburstmc.protocol.bedrock.data.HeightMapDataType;
+import org.cloudburstmc.protocol.bedrock.data.SubChunkData;
+import org.cloudburstmc.protocol.bedrock.data.SubChunkRequestResult;
+import org.cloudburstmc.protocol.bedrock.packet.SubChunkPacket;
+import org.cloudburstmc.protocol.bedrock.packet.SubChunkRequestPacket;
+import org.geysermc.geyser.level.chunk.SubChunkColumn;
+import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.translator.protocol.PacketTranslator;
+import org.geysermc.geyser.translator.protocol.Translator;
+import org.geysermc.geyser.util.ChunkUtils;
+import org.geysermc.geyser.util.DimensionUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sent by the client for the sections of chunk columns it wants, if chunks were sent with sub-chunk requests enabled.
+ */
+@Translator(packet = SubChunkRequestPacket.class)
+public class BedrockSubChunkRequestTranslator extends PacketTranslator<SubChunkRequestPacket> {
+    /**
+     * More than the client ever asks for at once, which is at most a few columns' worth of sections
+     */
+    private static final int MAX_REQUESTED_SUB_CHUNKS = 1024;
+
+    @Override
+    public void translate(GeyserSession session, SubChunkRequestPacket packet) {
+        if (!session.getChunkCache().isRequestingSubChunks()) {
+            return;
+        }
+        if (packet.getPositionOffsets().size() > MAX_REQUESTED_SUB_CHUNKS) {
+            session.getGeyser().getLogger().debug("Ignoring request for " + packet.getPositionOffsets().size() + " sub-chunks from " + session.bedrockUsername());
+            return;
+        }
+
+        Vector3i center = packet.getSubChunkPosition();
+        boolean validDimension = packet.getDimension() == DimensionUtils.javaToBedrock(session.getBedrockDimension());
+
+        List<SubChunkData> subChunks = new ArrayList<>(packet.getPositionOffsets().size());
+        List<Vector3i> changedBlocks = new ArrayList<>();
+        for (Vector3i offset : packet.getPositionOffsets()) {
+            SubChunkData data = new SubChunkData();
+            data.setPosition(offset);
+            data.setHeightMapType(HeightMapDataType.NO_DATA);
+            data.setData(Unpooled.EMPTY_BUFFER);
+            subChunks.add(data);
+
+            if (!validDimension) {
+                data.setResult(SubChunkRequestResult.INVALID_DIMENSION);
+                continue;
+            }
+
+            int chunkX = center.getX() + offset.getX();
+            int sectionY = center.getY() + offset.getY();
+            int chunkZ = center.getZ() + offset.getZ();
+            SubChunkColumn column = session.getChunkCache().getSubChunkColumn(chunkX, chunkZ);
+            if (column == null) {
+                data.setResult(SubChunkRequestResult.CHUNK_NOT_FOUND);
+                continue;
+            }
+            if (!column.hasSection(sectionY)) {
+                // Below the world, or above the highest section with blocks
+                data.setResult(sectionY < column.minSectionY() ? SubChunkRequestResult.INDEX_OUT_OF_BOUNDS : SubChunkRequestResult.SUCCESS_ALL_AIR);
+                continue;
+            }
+            if (column.isEmpty(sectionY)) {
+                data.setResult(SubChunkRequestResult.SUCCESS_ALL_AIR);
+                continue;
+            }
+
+            ByteBuf buffer = ByteBufAllocator.DEFAULT.ioBuffer();
+            try {
+                column.write(sectionY, buffer);
+                byte[] payload = new byte[buffer.readableBytes()];
+                buffer.readBytes(payload);
+                data.setData(Unpooled.wrappedBuffer(payload));
+                data.setResult(SubChunkRequestResult.SUCCESS);
+            } finally {
+                buffer.release();
+            }
+            changedBlocks.addAll(column.pollChangedBlocks(chunkX, sectionY, chunkZ));
+        }
+
+        SubChunkPacket subChunkPacket = new SubChunkPacket();
+        subChunkPacket.setDimension(packet.getDimension());
+        subChunkPacket.setCenterPosition(center);
+        subChunkPacket.setSubChunks(subChunks);
+        subChunkPacket.setCacheEnabled(false);
+        session.sendUpstreamPacket(subChunkPacket);
+
+        // Blocks that changed after the column was translated weren't seen by the client, as it didn't have the section yet
+        for (Vector3i position : changedBlocks) {
+            ChunkUtils.updateBlockClientSide(session, session.getGeyser().getWorldManager().blockAt(session, position), position);
+        }
+    }
+}
@@ -45,5 +45,7 @@ public class JavaFinishConfigurationPacketTranslator extends PacketTranslator<Cl
         }
         session.sendUpstreamPacket(playerListPacket);
         session.getEntityCache().removeAllPlayerEntities();
+        // Items may have been translated with the registries of the previous configuration
+        session.getItemDataCache().clear();
     }
 }
@@ -87,6 +87,7 @@ public class JavaLoginTranslator extends PacketTranslator<ClientboundLoginPacket
 
         session.setDimensionType(newDimension);
         session.setWorldName(spawnInfo.getWorldName());
+        session.setHashedSeed(spawnInfo.getHashedSeed());
         session.setLevels(Arrays.stream(packet.getWorldNames()).map(Key::asString).toArray(String[]::new));
         session.setGameMode(spawnInfo.getGameMode());
 
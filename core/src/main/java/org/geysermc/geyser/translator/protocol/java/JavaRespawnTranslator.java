@@ -94,6 +94,7 @@ public class JavaRespawnTranslator extends PacketTranslator<ClientboundRespawnPa
         }
 
         JavaDimension newDimension = session.getRegistryCache().dimensions().byId(spawnInfo.getDimension());
+        session.setHashedSeed(spawnInfo.getHashedSeed());
         if (session.getDimensionType() != newDimension || !spawnInfo.getWorldName().equals(session.getWorldName())) {
             // Switching to a new world (based off the world name change or new dimension); send a fake dimension change
             if (session.getDimensionType().bedrockId() == newDimension.bedrockId()) {
@@ -50,6 +50,11 @@ public class JavaBlockEntityDataTranslator extends PacketTranslator<ClientboundB
 
     @Override
     public void translate(GeyserSession session, ClientboundBlockEntityDataPacket packet) {
+        // This block entity may be in a chunk that is still being translated
+        session.getChunkTranslationQueue().runInOrder(() -> updateBlockEntity(session, packet));
+    }
+
+    private void updateBlockEntity(GeyserSession session, ClientboundBlockEntityDataPacket packet) {
         final BlockEntityType type = packet.getType();
         if (type == null) {
             return;
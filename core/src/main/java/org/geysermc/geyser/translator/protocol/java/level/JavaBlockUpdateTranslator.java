@@ -29,6 +29,7 @@ import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.protocol.bedrock.data.SoundEvent;
 import org.cloudburstmc.protocol.bedrock.packet.LevelSoundEventPacket;
 import org.geysermc.geyser.item.type.Item;
+import org.geysermc.geyser.level.GeyserWorldManager;
 import org.geysermc.geyser.level.WorldManager;
 import org.geysermc.geyser.level.block.type.BlockState;
 import org.geysermc.geyser.session.GeyserSession;
@@ -42,12 +43,19 @@ public class JavaBlockUpdateTranslator extends PacketTranslator<ClientboundBlock
 
     @Override
     public void translate(GeyserSession session, ClientboundBlockUpdatePacket packet) {
+        // This block may be in a chunk that is still being translated
+        session.getChunkTranslationQueue().runInOrder(() -> updateBlock(session, packet));
+    }
+
+    private void updateBlock(GeyserSession session, ClientboundBlockUpdatePacket packet) {
         Vector3i pos = packet.getEntry().getPosition();
         WorldManager worldManager = session.getGeyser().getWorldManager();
         // Platforms where Geyser has direct server access don't allow us to detect actual block changes,
-        // hence why those platforms deal with sounds for block placements differently
+        // hence why those platforms deal with sounds for block placements differently.
+        // The Erosion block mirror does know the previous block, as long as the chunk is cached
         boolean updatePlacement = !worldManager.hasOwnChunkCache() &&
-                !session.getErosionHandler().isActive() && worldManager.getBlockAt(session, pos) != packet.getEntry().getBlock();
+                (!session.getErosionHandler().isActive() || GeyserWorldManager.isMirrored(session, pos.getX(), pos.getZ()))
+                && worldManager.getBlockAt(session, pos) != packet.getEntry().getBlock();
         session.getWorldCache().updateServerCorrectBlockState(pos, packet.getEntry().getBlock());
         if (updatePlacement) {
             this.checkPlaceSound(session, packet);
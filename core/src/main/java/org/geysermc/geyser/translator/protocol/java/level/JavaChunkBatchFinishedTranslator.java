@@ -36,6 +36,11 @@ public class JavaChunkBatchFinishedTranslator extends PacketTranslator<Clientbou
 
     @Override
     public void translate(GeyserSession session, ClientboundChunkBatchFinishedPacket packet) {
+        // Only acknowledge the batch once all of its chunks have been sent, so the server paces itself to our translation speed
+        session.getChunkTranslationQueue().runInOrder(() -> acknowledgeBatch(session, packet));
+    }
+
+    private void acknowledgeBatch(GeyserSession session, ClientboundChunkBatchFinishedPacket packet) {
         // server just sent a batch of LevelChunkWithLightPackets
         // the vanilla client uses a ChunkBatchSizeCalculator to calculate the desiredChunksPerTick,
         // but currently we just send an arbitrary value. server clamps the value between 0.01 and 64.
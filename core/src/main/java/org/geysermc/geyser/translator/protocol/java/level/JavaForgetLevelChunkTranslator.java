@@ -40,6 +40,11 @@ public class JavaForgetLevelChunkTranslator extends PacketTranslator<Clientbound
 
     @Override
     public void translate(GeyserSession session, ClientboundForgetLevelChunkPacket packet) {
+        // Ensure this chunk is not sent after it has been unloaded
+        session.getChunkTranslationQueue().runInOrder(() -> forgetChunk(session, packet));
+    }
+
+    private void forgetChunk(GeyserSession session, ClientboundForgetLevelChunkPacket packet) {
         session.getChunkCache().removeChunk(packet.getX(), packet.getZ());
 
         // Checks if a skull is in an unloaded chunk then removes it
@@ -30,7 +30,10 @@ import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufOutputStream;
 import io.netty.buffer.Unpooled;
 import it.unimi.dsi.fastutil.ints.*;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.cloudburstmc.math.vector.Vector3i;
 import org.cloudburstmc.nbt.NBTOutputStream;
 import org.cloudburstmc.nbt.NbtMap;
@@ -42,12 +45,16 @@ import org.geysermc.geyser.level.BedrockDimension;
 import org.geysermc.geyser.level.block.type.Block;
 import org.geysermc.geyser.level.block.type.BlockState;
 import org.geysermc.geyser.level.chunk.BlockStorage;
+import org.geysermc.geyser.level.chunk.ChunkSectionCache;
 import org.geysermc.geyser.level.chunk.GeyserChunkSection;
+import org.geysermc.geyser.level.chunk.SubChunkColumn;
 import org.geysermc.geyser.level.chunk.bitarray.BitArray;
+import org.geysermc.geyser.level.chunk.bitarray.BitArrayTranscoder;
 import org.geysermc.geyser.level.chunk.bitarray.BitArrayVersion;
 import org.geysermc.geyser.level.chunk.bitarray.SingletonBitArray;
-import org.geysermc.geyser.registry.BlockRegistries;
+import org.geysermc.geyser.registry.type.BlockMappings;
 import org.geysermc.geyser.session.GeyserSession;
+import org.geysermc.geyser.session.cache.ViewDistanceGovernor;
 import org.geysermc.geyser.translator.level.BiomeTranslator;
 import org.geysermc.geyser.translator.level.block.entity.BedrockChunkWantsBlockEntityTag;
 import org.geysermc.geyser.translator.level.block.entity.BlockEntityTranslator;
@@ -68,9 +75,11 @@ import org.geysermc.mcprotocollib.protocol.data.game.level.block.BlockEntityType
 import org.geysermc.mcprotocollib.protocol.packet.ingame.clientbound.level.ClientboundLevelChunkWithLightPacket;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.IntConsumer;
 
 import static org.geysermc.geyser.util.ChunkUtils.*;
 
@@ -80,15 +89,45 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
     @Override
     public void translate(GeyserSession session, ClientboundLevelChunkWithLightPacket packet) {
-        final boolean useExtendedCollisions = !session.getBlockMappings().getExtendedCollisionBoxes().isEmpty();
-
         if (session.isSpawned()) {
             ChunkUtils.updateChunkPosition(session, session.getPlayerEntity().getPosition().toInt());
         }
 
+        ViewDistanceGovernor governor = session.getViewDistanceGovernor();
+        if (governor.isOutsideLimit(packet.getX(), packet.getZ())) {
+            // The Java server will send this chunk again once the view distance is raised
+            return;
+        }
+
         // Ensure that, if the player is using lower world heights, the position is not offset
         int yOffset = session.getChunkCache().getChunkMinY();
         int chunkSize = session.getChunkCache().getChunkHeightY();
+        BedrockDimension bedrockDimension = session.getBedrockDimension();
+
+        // Section translation does not modify the session, so it may be run outside the event loop.
+        // Block entities can have side effects (e.g. custom skulls) and are translated once the sections are delivered.
+        session.getChunkTranslationQueue().submit(
+                () -> {
+                    long start = System.nanoTime();
+                    TranslatedSections sections = translateSections(session, packet, yOffset, chunkSize, bedrockDimension);
+                    if (governor.isEnabled() && session.getEventLoop().inEventLoop()) {
+                        governor.recordChunk(System.nanoTime() - start);
+                    }
+                    return sections;
+                },
+                sections -> {
+                    long start = System.nanoTime();
+                    sendChunk(session, packet, sections);
+                    if (governor.isEnabled()) {
+                        governor.recordChunk(System.nanoTime() - start);
+                    }
+                }
+        );
+    }
+
+    private TranslatedSections translateSections(GeyserSession session, ClientboundLevelChunkWithLightPacket packet, int yOffset, int chunkSize, BedrockDimension bedrockDimension) {
+        final BlockMappings blockMappings = session.getBlockMappings();
+        final boolean useExtendedCollisions = !blockMappings.getExtendedCollisionBoxes().isEmpty();
 
         DataPalette[] javaChunks = new DataPalette[chunkSize];
         DataPalette[] javaBiomes = new DataPalette[chunkSize];
@@ -96,289 +135,334 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
         final BlockEntityInfo[] blockEntities = packet.getBlockEntities();
         final List<NbtMap> bedrockBlockEntities = new ObjectArrayList<>(blockEntities.length);
 
-        BitSet waterloggedPaletteIds = new BitSet();
-        BitSet bedrockOnlyBlockEntityIds = new BitSet();
-
-        BedrockDimension bedrockDimension = session.getBedrockDimension();
         int maxBedrockSectionY = (bedrockDimension.height() >> 4) - 1;
 
-        int sectionCount;
-        byte[] payload;
-        ByteBuf byteBuf = null;
         GeyserChunkSection[] sections = new GeyserChunkSection[javaChunks.length - (yOffset + (bedrockDimension.minY() >> 4))];
 
-        try {
-            ByteBuf in = Unpooled.wrappedBuffer(packet.getChunkData());
-            boolean extendedCollisionNextSection = false;
-            for (int sectionY = 0; sectionY < chunkSize; sectionY++) {
-                ChunkSection javaSection = session.getDownstream().getCodecHelper().readChunkSection(in);
-                javaChunks[sectionY] = javaSection.getChunkData();
-                javaBiomes[sectionY] = javaSection.getBiomeData();
-                boolean extendedCollision = extendedCollisionNextSection;
-                boolean thisExtendedCollisionNextSection = false;
-
-                int bedrockSectionY = sectionY + (yOffset - (bedrockDimension.minY() >> 4));
-                int subChunkIndex = sectionY + yOffset;
-                if (bedrockSectionY < 0 || maxBedrockSectionY < bedrockSectionY) {
-                    // Ignore this chunk section since it goes outside the bounds accepted by the Bedrock client
-                    if (useExtendedCollisions) {
-                        EXTENDED_COLLISIONS_STORAGE.get().clear();
-                    }
-                    extendedCollisionNextSection = false;
-                    continue;
-                }
+        // Sections that are already encoded, either from the shared section cache or after being added to it
+        ChunkSectionCache sectionCache = session.getGeyser().getChunkSectionCache();
+        if (sectionCache != null && !canUseSectionCache(blockMappings, session.getPreferencesCache().showCustomSkulls(), blockEntities)) {
+            sectionCache = null;
+        }
+        byte[][] encodedSections = sectionCache != null ? new byte[sections.length][] : null;
 
-                // No need to encode an empty section...
-                if (javaSection.isBlockCountEmpty()) {
-                    // Unless we need to send extended collisions
-                    if (useExtendedCollisions) {
-                        if (extendedCollision) {
-                            int blocks = EXTENDED_COLLISIONS_STORAGE.get().bottomLayerCollisions() + 1;
-                            BitArray bedrockData = BitArrayVersion.forBitsCeil(Integer.SIZE - Integer.numberOfLeadingZeros(blocks)).createArray(BlockStorage.SIZE);
-                            BlockStorage layer0 = new BlockStorage(bedrockData, new IntArrayList(blocks));
-    
-                            layer0.idFor(session.getBlockMappings().getBedrockAir().getRuntimeId());
-                            for (int yzx = 0; yzx < BlockStorage.SIZE / 16; yzx++) {
-                                if (EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY) != 0) {
-                                    bedrockData.set(indexYZXtoXZY(yzx), layer0.idFor(EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY)));
-                                    EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
-                                }
-                            }
-    
-                            BlockStorage[] layers = new BlockStorage[]{ layer0 };
-                            sections[bedrockSectionY] = new GeyserChunkSection(layers, subChunkIndex);
-                        }
-                        EXTENDED_COLLISIONS_STORAGE.get().clear();
-                        extendedCollisionNextSection = false;
-                    }
-                    continue;
+        ByteBuf in = Unpooled.wrappedBuffer(packet.getChunkData());
+        if (useExtendedCollisions) {
+            // Nothing carries over from the previous chunk
+            EXTENDED_COLLISIONS_STORAGE.get().clear();
+        }
+        for (int sectionY = 0; sectionY < chunkSize; sectionY++) {
+            ChunkSection javaSection = session.getDownstream().getCodecHelper().readChunkSection(in);
+            javaChunks[sectionY] = javaSection.getChunkData();
+            javaBiomes[sectionY] = javaSection.getBiomeData();
+
+            int bedrockSectionY = sectionY + (yOffset - (bedrockDimension.minY() >> 4));
+            int subChunkIndex = sectionY + yOffset;
+            if (bedrockSectionY < 0 || maxBedrockSectionY < bedrockSectionY) {
+                // Ignore this chunk section since it goes outside the bounds accepted by the Bedrock client
+                if (useExtendedCollisions) {
+                    EXTENDED_COLLISIONS_STORAGE.get().clear();
                 }
+                continue;
+            }
 
-                Palette javaPalette = javaSection.getChunkData().getPalette();
-                BitStorage javaData = javaSection.getChunkData().getStorage();
-
-                if (javaPalette instanceof GlobalPalette) {
-                    // As this is the global palette, simply iterate through the whole chunk section once
-                    GeyserChunkSection section = new GeyserChunkSection(session.getBlockMappings().getBedrockAir().getRuntimeId(), subChunkIndex);
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int javaId = javaData.get(yzx);
-                        BlockState state = BlockState.of(javaId);
-                        int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
-                        int xzy = indexYZXtoXZY(yzx);
-                        section.getBlockStorageArray()[0].setFullBlock(xzy, bedrockId);
-
-                        if (BlockRegistries.WATERLOGGED.get().get(javaId)) {
-                            section.getBlockStorageArray()[1].setFullBlock(xzy, session.getBlockMappings().getBedrockWater().getRuntimeId());
-                        }
+            // No need to encode an empty section...
+            if (javaSection.isBlockCountEmpty()) {
+                // Unless we need to send extended collisions
+                if (useExtendedCollisions) {
+                    if (EXTENDED_COLLISIONS_STORAGE.get().nextSection) {
+                        int blocks = EXTENDED_COLLISIONS_STORAGE.get().bottomLayerCollisions() + 1;
+                        BitArray bedrockData = BitArrayVersion.forBitsCeil(Integer.SIZE - Integer.numberOfLeadingZeros(blocks)).createArray(BlockStorage.SIZE);
+                        BlockStorage layer0 = new BlockStorage(bedrockData, new IntArrayList(blocks));
 
-                        // Extended collision blocks
-                        if (useExtendedCollisions) {
+                        layer0.idFor(session.getBlockMappings().getBedrockAir().getRuntimeId());
+                        for (int yzx = 0; yzx < BlockStorage.SIZE / 16; yzx++) {
                             if (EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY) != 0) {
-                                if (javaId == Block.JAVA_AIR_ID) {
-                                    section.getBlockStorageArray()[0].setFullBlock(xzy, EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY));
-                                }
+                                bedrockData.set(indexYZXtoXZY(yzx), layer0.idFor(EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY)));
                                 EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
-                                continue;
-                            }
-                            BlockDefinition aboveBedrockExtendedCollisionDefinition = session.getBlockMappings().getExtendedCollisionBoxes().get(javaId);
-                            if (aboveBedrockExtendedCollisionDefinition != null) {
-                                EXTENDED_COLLISIONS_STORAGE.get().set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
-                                if ((xzy & 0xF) == 15) {
-                                    thisExtendedCollisionNextSection = true;
-                                }
                             }
                         }
 
-                        // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
-                        if (state.block() instanceof BedrockChunkWantsBlockEntityTag blockEntity) {
-                            bedrockBlockEntities.add(blockEntity.createTag(session,
-                                    Vector3i.from((packet.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
-                                    state
-                            ));
-                        }
+                        BlockStorage[] layers = new BlockStorage[]{ layer0 };
+                        sections[bedrockSectionY] = new GeyserChunkSection(layers, subChunkIndex);
                     }
-                    sections[bedrockSectionY] = section;
-                    extendedCollisionNextSection = thisExtendedCollisionNextSection;
-                    continue;
+                    EXTENDED_COLLISIONS_STORAGE.get().clear();
                 }
+                continue;
+            }
 
-                if (javaPalette instanceof SingletonPalette) {
-                    // There's only one block here. Very easy!
-                    int javaId = javaPalette.idToState(0);
-                    int bedrockId = session.getBlockMappings().getBedrockBlockId(javaId);
-                    BlockStorage blockStorage = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(bedrockId));
+            DataPalette javaChunk = javaSection.getChunkData();
 
-                    if (BlockRegistries.WATERLOGGED.get().get(javaId)) {
-                        BlockStorage waterlogged = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(session.getBlockMappings().getBedrockWater().getRuntimeId()));
-                        sections[bedrockSectionY] = new GeyserChunkSection(new BlockStorage[] {blockStorage, waterlogged}, subChunkIndex);
-                    } else {
-                        sections[bedrockSectionY] = new GeyserChunkSection(new BlockStorage[] {blockStorage}, subChunkIndex);
-                    }
-                    if (useExtendedCollisions) {
-                        EXTENDED_COLLISIONS_STORAGE.get().clear();
-                        extendedCollisionNextSection = false;
-                    }
-                    // If a chunk contains all of the same piston or flower pot then god help us
+            ChunkSectionCache.Key cacheKey = null;
+            int blockEntityCount = bedrockBlockEntities.size();
+            if (sectionCache != null && !(javaChunk.getPalette() instanceof SingletonPalette)) {
+                cacheKey = sectionCache.createKey(session.getBlockMappings(), javaChunk, subChunkIndex);
+                byte[] encodedSection = sectionCache.get(cacheKey);
+                if (encodedSection != null) {
+                    encodedSections[bedrockSectionY] = encodedSection;
                     continue;
                 }
+            }
 
-                IntList bedrockPalette = new IntArrayList(javaPalette.size());
-                int airPaletteId = -1;
-                waterloggedPaletteIds.clear();
-                bedrockOnlyBlockEntityIds.clear();
+            int sectionBlockY = (sectionY + yOffset) << 4;
+            GeyserChunkSection section = translateSection(blockMappings, javaChunk, sectionY, subChunkIndex,
+                    useExtendedCollisions ? EXTENDED_COLLISIONS_STORAGE.get() : null, yzx -> {
+                        BlockState state = BlockState.of(javaChunk.get(yzx & 0xF, (yzx >> 8) & 0xF, (yzx >> 4) & 0xF));
+                        bedrockBlockEntities.add(((BedrockChunkWantsBlockEntityTag) state.block()).createTag(session,
+                                Vector3i.from((packet.getX() << 4) + (yzx & 0xF), sectionBlockY + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
+                                state
+                        ));
+                    });
+            sections[bedrockSectionY] = section;
+            // Sections with Bedrock-only block entities are position-dependent
+            if (cacheKey != null && bedrockBlockEntities.size() == blockEntityCount) {
+                encodedSections[bedrockSectionY] = sectionCache.put(cacheKey, section);
+            }
+        }
 
-                // Iterate through palette and convert state IDs to Bedrock, doing some additional checks as we go
-                int extendedCollisionsInPalette = 0;
-                for (int i = 0; i < javaPalette.size(); i++) {
-                    int javaId = javaPalette.idToState(i);
-                    bedrockPalette.add(session.getBlockMappings().getBedrockBlockId(javaId));
+        return new TranslatedSections(yOffset, chunkSize, bedrockDimension, javaChunks, javaBiomes, sections, encodedSections, bedrockBlockEntities);
+    }
 
-                    if (BlockRegistries.WATERLOGGED.get().get(javaId)) {
-                        waterloggedPaletteIds.set(i);
-                    }
+    /**
+     * Translates the blocks of a Java chunk section that isn't empty. This is also what the chunk benchmarks measure.
+     *
+     * @param sectionY the index of the section in the Java chunk
+     * @param extendedCollisions the extended collision boxes carried over from the section below, or null if the block
+     *                           mappings have no extended collision boxes
+     * @param bedrockOnlyBlockEntities receives the YZX index of every block that is only a block entity on Bedrock
+     */
+    public static GeyserChunkSection translateSection(BlockMappings blockMappings, DataPalette javaChunk, int sectionY, int subChunkIndex,
+                                                      @Nullable ExtendedCollisionsStorage extendedCollisions, IntConsumer bedrockOnlyBlockEntities) {
+        Palette javaPalette = javaChunk.getPalette();
+        BitStorage javaData = javaChunk.getStorage();
+        boolean useExtendedCollisions = extendedCollisions != null;
+        boolean extendedCollision = false;
+        if (useExtendedCollisions) {
+            extendedCollision = extendedCollisions.nextSection;
+            extendedCollisions.nextSection = false;
+        }
 
-                    if (javaId == Block.JAVA_AIR_ID) {
-                        airPaletteId = i;
-                    }
+        if (javaPalette instanceof GlobalPalette) {
+            // As this is the global palette, simply iterate through the whole chunk section once
+            GeyserChunkSection section = new GeyserChunkSection(blockMappings.getBedrockAir().getRuntimeId(), subChunkIndex);
+            int[] javaIds = BitArrayTranscoder.unpack(javaData);
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                int javaId = javaIds[yzx];
+                long blockData = blockMappings.getJavaBlockData(javaId);
+                int xzy = indexYZXtoXZY(yzx);
+                section.getBlockStorageArray()[0].setFullBlock(xzy, BlockMappings.bedrockBlockId(blockData));
+
+                if ((blockData & BlockMappings.WATERLOGGED_FLAG) != 0) {
+                    section.getBlockStorageArray()[1].setFullBlock(xzy, blockMappings.getBedrockWater().getRuntimeId());
+                }
 
-                    if (useExtendedCollisions) {
-                        if (session.getBlockMappings().getExtendedCollisionBoxes().get(javaId) != null) {
-                            extendedCollision = true;
-                            extendedCollisionsInPalette++;
+                // Extended collision blocks
+                if (useExtendedCollisions) {
+                    if (extendedCollisions.get(yzx, sectionY) != 0) {
+                        if (javaId == Block.JAVA_AIR_ID) {
+                            section.getBlockStorageArray()[0].setFullBlock(xzy, extendedCollisions.get(yzx, sectionY));
                         }
+                        extendedCollisions.set(yzx, 0, sectionY);
+                        continue;
                     }
-
-                    // Check if block is piston, flower or cauldron to see if we'll need to create additional block entities, as they're only block entities in Bedrock
-                    // TODO this needs a performance check when my head is clearer
-                    BlockState state = BlockState.of(javaId);
-                    if (state.block() instanceof BedrockChunkWantsBlockEntityTag) {
-                        bedrockOnlyBlockEntityIds.set(i);
+                    if ((blockData & BlockMappings.EXTENDED_COLLISION_FLAG) != 0) {
+                        BlockDefinition aboveBedrockExtendedCollisionDefinition = blockMappings.getExtendedCollisionBoxes().get(javaId);
+                        extendedCollisions.set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
+                        if ((xzy & 0xF) == 15) {
+                            extendedCollisions.nextSection = true;
+                        }
                     }
                 }
 
-                // Add Bedrock-exclusive block entities
-                // We only if the palette contained any blocks that are Bedrock-exclusive block entities to avoid iterating through the whole block data
-                // for no reason, as most sections will not contain any pistons or flower pots
-                if (!bedrockOnlyBlockEntityIds.isEmpty()) {
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        if (bedrockOnlyBlockEntityIds.get(paletteId)) {
-                            BlockState state = BlockState.of(javaPalette.idToState(paletteId));
-                            bedrockBlockEntities.add(((BedrockChunkWantsBlockEntityTag) state.block()).createTag(session,
-                                    Vector3i.from((packet.getX() << 4) + (yzx & 0xF), ((sectionY + yOffset) << 4) + ((yzx >> 8) & 0xF), (packet.getZ() << 4) + ((yzx >> 4) & 0xF)),
-                                    state
-                            ));
-                        }
-                    }
+                // Check if block is piston or flower to see if we'll need to create additional block entities, as they're only block entities in Bedrock
+                if ((blockData & BlockMappings.BEDROCK_BLOCK_ENTITY_FLAG) != 0) {
+                    bedrockOnlyBlockEntities.accept(yzx);
                 }
+            }
+            return section;
+        }
 
-                // We need to ensure we use enough bits to represent extended collision blocks in the chunk section
-                int sectionCollisionBlocks = 0;
-                if (useExtendedCollisions) {
-                    int bottomLayerCollisions = extendedCollision ? EXTENDED_COLLISIONS_STORAGE.get().bottomLayerCollisions() : 0;
-                    sectionCollisionBlocks = bottomLayerCollisions + extendedCollisionsInPalette;
+        if (javaPalette instanceof SingletonPalette) {
+            // There's only one block here. Very easy!
+            long blockData = blockMappings.getJavaBlockData(javaPalette.idToState(0));
+            BlockStorage blockStorage = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(BlockMappings.bedrockBlockId(blockData)));
+
+            if (useExtendedCollisions) {
+                extendedCollisions.clear();
+            }
+            // If a chunk contains all of the same piston or flower pot then god help us
+            if ((blockData & BlockMappings.WATERLOGGED_FLAG) != 0) {
+                BlockStorage waterlogged = new BlockStorage(SingletonBitArray.INSTANCE, IntLists.singleton(blockMappings.getBedrockWater().getRuntimeId()));
+                return new GeyserChunkSection(new BlockStorage[] {blockStorage, waterlogged}, subChunkIndex);
+            }
+            return new GeyserChunkSection(new BlockStorage[] {blockStorage}, subChunkIndex);
+        }
+
+        IntList bedrockPalette = new IntArrayList(javaPalette.size());
+        int airPaletteId = -1;
+        BitSet waterloggedPaletteIds = new BitSet();
+        BitSet bedrockOnlyBlockEntityIds = new BitSet();
+        BitSet extendedCollisionPaletteIds = new BitSet();
+
+        // Iterate through palette and convert state IDs to Bedrock, doing some additional checks as we go
+        int extendedCollisionsInPalette = 0;
+        for (int i = 0; i < javaPalette.size(); i++) {
+            int javaId = javaPalette.idToState(i);
+            long blockData = blockMappings.getJavaBlockData(javaId);
+            bedrockPalette.add(BlockMappings.bedrockBlockId(blockData));
+
+            if ((blockData & BlockMappings.WATERLOGGED_FLAG) != 0) {
+                waterloggedPaletteIds.set(i);
+            }
+
+            if (javaId == Block.JAVA_AIR_ID) {
+                airPaletteId = i;
+            }
+
+            if (useExtendedCollisions && (blockData & BlockMappings.EXTENDED_COLLISION_FLAG) != 0) {
+                extendedCollision = true;
+                extendedCollisionsInPalette++;
+                extendedCollisionPaletteIds.set(i);
+            }
+
+            // Check if block is piston, flower or cauldron to see if we'll need to create additional block entities, as they're only block entities in Bedrock
+            if ((blockData & BlockMappings.BEDROCK_BLOCK_ENTITY_FLAG) != 0) {
+                bedrockOnlyBlockEntityIds.set(i);
+            }
+        }
+
+        int[] paletteIds = BitArrayTranscoder.unpack(javaData);
+
+        // Add Bedrock-exclusive block entities
+        // We only if the palette contained any blocks that are Bedrock-exclusive block entities to avoid iterating through the whole block data
+        // for no reason, as most sections will not contain any pistons or flower pots
+        if (!bedrockOnlyBlockEntityIds.isEmpty()) {
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                int paletteId = paletteIds[yzx];
+                if (bedrockOnlyBlockEntityIds.get(paletteId)) {
+                    bedrockOnlyBlockEntities.accept(yzx);
                 }
-                int bedrockDataBits = Integer.SIZE - Integer.numberOfLeadingZeros(javaPalette.size() + sectionCollisionBlocks);
-                BitArray bedrockData = BitArrayVersion.forBitsCeil(bedrockDataBits).createArray(BlockStorage.SIZE);
-                BlockStorage layer0 = new BlockStorage(bedrockData, bedrockPalette);
-                BlockStorage[] layers;
-
-                // Convert data array from YZX to XZY coordinate order
-                if (waterloggedPaletteIds.isEmpty() && !extendedCollision) {
-                    // No blocks are waterlogged, simply convert coordinate order
-                    // This could probably be optimized further...
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
-                    }
+            }
+        }
 
-                    layers = new BlockStorage[]{ layer0 };
-                } else if (!waterloggedPaletteIds.isEmpty() && !extendedCollision) {
-                    // The section contains waterlogged blocks, we need to convert coordinate order AND generate a V1 block storage for
-                    // layer 1 with palette ID 1 indicating water
-                    int[] layer1Data = new int[BlockStorage.SIZE >> 5];
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
-
-                        if (waterloggedPaletteIds.get(paletteId)) {
-                            layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
-                        }
+        // We need to ensure we use enough bits to represent extended collision blocks in the chunk section
+        int sectionCollisionBlocks = 0;
+        if (useExtendedCollisions) {
+            int bottomLayerCollisions = extendedCollision ? extendedCollisions.bottomLayerCollisions() : 0;
+            sectionCollisionBlocks = bottomLayerCollisions + extendedCollisionsInPalette;
+        }
+        int bedrockDataBits = Integer.SIZE - Integer.numberOfLeadingZeros(javaPalette.size() + sectionCollisionBlocks);
+        BitArray bedrockData = BitArrayVersion.forBitsCeil(bedrockDataBits).createArray(BlockStorage.SIZE);
+        BlockStorage layer0 = new BlockStorage(bedrockData, bedrockPalette);
+        BlockStorage[] layers;
+
+        // Convert data array from YZX to XZY coordinate order
+        bedrockData.setAllYZX(paletteIds);
+        if (waterloggedPaletteIds.isEmpty() && !extendedCollision) {
+            // No blocks are waterlogged, the coordinate order conversion is all we need
+            layers = new BlockStorage[]{ layer0 };
+        } else if (!waterloggedPaletteIds.isEmpty() && !extendedCollision) {
+            // The section contains waterlogged blocks, we need to convert coordinate order AND generate a V1 block storage for
+            // layer 1 with palette ID 1 indicating water
+            int[] layer1Data = new int[BlockStorage.SIZE >> 5];
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                int paletteId = paletteIds[yzx];
+                int xzy = indexYZXtoXZY(yzx);
+
+                if (waterloggedPaletteIds.get(paletteId)) {
+                    layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
+                }
+            }
+            
+            // V1 palette
+            IntList layer1Palette = IntList.of(
+                    blockMappings.getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
+                    blockMappings.getBedrockWater().getRuntimeId());
+
+            layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
+        } else if (waterloggedPaletteIds.isEmpty()) {
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                int paletteId = paletteIds[yzx];
+                int xzy = indexYZXtoXZY(yzx);
+
+                if (extendedCollisions.get(yzx, sectionY) != 0) {
+                    if (paletteId == airPaletteId) {
+                        bedrockData.set(xzy, layer0.idFor(extendedCollisions.get(yzx, sectionY)));
                     }
-                    
-                    // V1 palette
-                    IntList layer1Palette = IntList.of(
-                            session.getBlockMappings().getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
-                            session.getBlockMappings().getBedrockWater().getRuntimeId());
-
-                    layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
-                } else if (waterloggedPaletteIds.isEmpty()) {
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
-
-                        if (EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY) != 0) {
-                            if (paletteId == airPaletteId) {
-                                bedrockData.set(xzy, layer0.idFor(EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY)));
-                            }
-                            EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
-                            continue;
-                        }
-                        BlockDefinition aboveBedrockExtendedCollisionDefinition = session.getBlockMappings()
-                                .getExtendedCollisionBoxes().get(javaPalette.idToState(paletteId));
-                        if (aboveBedrockExtendedCollisionDefinition != null) {
-                            EXTENDED_COLLISIONS_STORAGE.get().set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
-                            if ((xzy & 0xF) == 15) {
-                                thisExtendedCollisionNextSection = true;
-                            }
-                        }
+                    extendedCollisions.set(yzx, 0, sectionY);
+                    continue;
+                }
+                if (extendedCollisionPaletteIds.get(paletteId)) {
+                    BlockDefinition aboveBedrockExtendedCollisionDefinition = blockMappings.getExtendedCollisionBoxes()
+                            .get(javaPalette.idToState(paletteId));
+                    extendedCollisions.set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
+                    if ((xzy & 0xF) == 15) {
+                        extendedCollisions.nextSection = true;
                     }
+                }
+            }
 
-                    layers = new BlockStorage[]{ layer0 };
-                } else {
-                    int[] layer1Data = new int[BlockStorage.SIZE >> 5];
-                    for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
-                        int paletteId = javaData.get(yzx);
-                        int xzy = indexYZXtoXZY(yzx);
-                        bedrockData.set(xzy, paletteId);
+            layers = new BlockStorage[]{ layer0 };
+        } else {
+            int[] layer1Data = new int[BlockStorage.SIZE >> 5];
+            for (int yzx = 0; yzx < BlockStorage.SIZE; yzx++) {
+                int paletteId = paletteIds[yzx];
+                int xzy = indexYZXtoXZY(yzx);
 
-                        if (waterloggedPaletteIds.get(paletteId)) {
-                            layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
-                        }
+                if (waterloggedPaletteIds.get(paletteId)) {
+                    layer1Data[xzy >> 5] |= 1 << (xzy & 0x1F);
+                }
 
-                        if (EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY) != 0) {
-                            if (paletteId == airPaletteId) {
-                                bedrockData.set(xzy, layer0.idFor(EXTENDED_COLLISIONS_STORAGE.get().get(yzx, sectionY)));
-                            }
-                            EXTENDED_COLLISIONS_STORAGE.get().set(yzx, 0, sectionY);
-                            continue;
-                        }
-                        BlockDefinition aboveBedrockExtendedCollisionDefinition = session.getBlockMappings().getExtendedCollisionBoxes()
-                                .get(javaPalette.idToState(paletteId));
-                        if (aboveBedrockExtendedCollisionDefinition != null) {
-                            EXTENDED_COLLISIONS_STORAGE.get().set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
-                            if ((xzy & 0xF) == 15) {
-                                thisExtendedCollisionNextSection = true;
-                            }
-                        }
+                if (extendedCollisions.get(yzx, sectionY) != 0) {
+                    if (paletteId == airPaletteId) {
+                        bedrockData.set(xzy, layer0.idFor(extendedCollisions.get(yzx, sectionY)));
+                    }
+                    extendedCollisions.set(yzx, 0, sectionY);
+                    continue;
+                }
+                if (extendedCollisionPaletteIds.get(paletteId)) {
+                    BlockDefinition aboveBedrockExtendedCollisionDefinition = blockMappings.getExtendedCollisionBoxes()
+                            .get(javaPalette.idToState(paletteId));
+                    extendedCollisions.set((yzx + 0x100) & 0xFFF, aboveBedrockExtendedCollisionDefinition.getRuntimeId(), sectionY);
+                    if ((xzy & 0xF) == 15) {
+                        extendedCollisions.nextSection = true;
                     }
+                }
+            }
 
-                    // V1 palette
-                    IntList layer1Palette = IntList.of(
-                            session.getBlockMappings().getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
-                            session.getBlockMappings().getBedrockWater().getRuntimeId());
+            // V1 palette
+            IntList layer1Palette = IntList.of(
+                    blockMappings.getBedrockAir().getRuntimeId(), // Air - see BlockStorage's constructor for more information
+                    blockMappings.getBedrockWater().getRuntimeId());
 
-                    layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
-                }
+            layers = new BlockStorage[]{ layer0, new BlockStorage(BitArrayVersion.V1.createArray(BlockStorage.SIZE, layer1Data), layer1Palette) };
+        }
 
-                sections[bedrockSectionY] = new GeyserChunkSection(layers, subChunkIndex);
-                extendedCollisionNextSection = thisExtendedCollisionNextSection;
-            }
 
-            if (!session.getErosionHandler().isActive()) {
+        return new GeyserChunkSection(layers, subChunkIndex);
+    }
+
+    private void sendChunk(GeyserSession session, ClientboundLevelChunkWithLightPacket packet, TranslatedSections translated) {
+        final int yOffset = translated.yOffset();
+        final int chunkSize = translated.chunkSize();
+        final BedrockDimension bedrockDimension = translated.bedrockDimension();
+        final DataPalette[] javaChunks = translated.javaChunks();
+        final DataPalette[] javaBiomes = translated.javaBiomes();
+        final GeyserChunkSection[] sections = translated.sections();
+        final byte[][] encodedSections = translated.encodedSections();
+        final List<NbtMap> bedrockBlockEntities = translated.bedrockBlockEntities();
+        final BlockEntityInfo[] blockEntities = packet.getBlockEntities();
+        int maxBedrockSectionY = (bedrockDimension.height() >> 4) - 1;
+        final boolean subChunkRequests = session.getChunkCache().isRequestingSubChunks();
+        final LongList blobIds = !subChunkRequests && session.getChunkBlobCache().isEnabled() ? new LongArrayList() : null;
+
+        int sectionCount;
+        byte[] payload;
+        ByteBuf byteBuf = null;
+
+        try {
+            // With the Erosion block mirror, block lookups are answered from the chunk cache where possible
+            if (!session.getErosionHandler().isActive() || session.getGeyser().getConfig().isErosionBlockMirror()) {
                 session.getChunkCache().addToCache(packet.getX(), packet.getZ(), javaChunks);
             }
 
@@ -433,7 +517,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
             // Find highest section
             sectionCount = sections.length - 1;
-            while (sectionCount >= 0 && sections[sectionCount] == null) {
+            while (sectionCount >= 0 && sections[sectionCount] == null && (encodedSections == null || encodedSections[sectionCount] == null)) {
                 sectionCount--;
             }
             sectionCount++;
@@ -441,56 +525,67 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
             // As of 1.18.30, the amount of biomes read is dependent on how high Bedrock thinks the dimension is
             int biomeCount = bedrockDimension.height() >> 4;
 
+            if (subChunkRequests) {
+                // The client requests the sections it needs; they are kept encoded until then, together with their block entities
+                session.getChunkCache().addSubChunkColumn(packet.getX(), packet.getZ(), new SubChunkColumn(bedrockDimension.minY() >> 4,
+                        Arrays.copyOf(sections, sectionCount), encodedSections != null ? Arrays.copyOf(encodedSections, sectionCount) : null,
+                        bedrockBlockEntities));
+            }
+
             // Estimate chunk size
             int size = 0;
-            for (int i = 0; i < sectionCount; i++) {
-                GeyserChunkSection section = sections[i];
-                if (section != null) {
-                    size += section.estimateNetworkSize();
-                } else {
-                    size += EMPTY_CHUNK_SECTION_SIZE;
+            if (!subChunkRequests) {
+                for (int i = 0; i < sectionCount; i++) {
+                    GeyserChunkSection section = sections[i];
+                    if (encodedSections != null && encodedSections[i] != null) {
+                        size += encodedSections[i].length;
+                    } else if (section != null) {
+                        size += section.estimateNetworkSize();
+                    } else {
+                        size += EMPTY_CHUNK_SECTION_SIZE;
+                    }
                 }
+                size += bedrockBlockEntities.size() * 64; // Conservative estimate of 64 bytes per tile entity
             }
             size += ChunkUtils.EMPTY_BIOME_DATA.length * biomeCount;
             size += 1; // Border blocks
-            size += bedrockBlockEntities.size() * 64; // Conservative estimate of 64 bytes per tile entity
 
             // Allocate output buffer
             byteBuf = ByteBufAllocator.DEFAULT.ioBuffer(size);
-            for (int i = 0; i < sectionCount; i++) {
-                GeyserChunkSection section = sections[i];
-                if (section != null) {
-                    section.writeToNetwork(byteBuf);
-                } else {
-                    int subChunkIndex = (i + (bedrockDimension.minY() >> 4));
-                    new GeyserChunkSection(EMPTY_BLOCK_STORAGE, subChunkIndex).writeToNetwork(byteBuf);
+            if (blobIds != null) {
+                // Sections and biomes are referenced by hash so the client can use what it has stored;
+                // the rest is sent once the client reports what it's missing
+                for (int i = 0; i < sectionCount; i++) {
+                    writeSection(sections, encodedSections, i, bedrockDimension, byteBuf);
+                    blobIds.add(session.getChunkBlobCache().addBlob(byteBuf));
+                    byteBuf.clear();
                 }
-            }
+                writeBiomes(session, javaBiomes, yOffset, chunkSize, bedrockDimension, byteBuf);
+                blobIds.add(session.getChunkBlobCache().addBlob(byteBuf));
+                byteBuf.clear();
 
-            int dimensionOffset = bedrockDimension.minY() >> 4;
-            for (int i = 0; i < biomeCount; i++) {
-                int biomeYOffset = dimensionOffset + i;
-                if (biomeYOffset < yOffset) {
-                    // Ignore this biome section since it goes below the height of the Java world
-                    byteBuf.writeBytes(ChunkUtils.EMPTY_BIOME_DATA);
-                    continue;
+                if (!session.getChunkBlobCache().isEnabled()) {
+                    // The blob cache was disabled while writing this chunk, and its blobs were dropped; send it whole
+                    blobIds.clear();
                 }
-                if (biomeYOffset >= (chunkSize + yOffset)) {
-                    // This biome section goes above the height of the Java world
-                    // The byte written here is a header that says to carry on the biome data from the previous chunk
-                    byteBuf.writeByte((127 << 1) | 1);
-                    continue;
+            }
+            if (blobIds == null || blobIds.isEmpty()) {
+                if (!subChunkRequests) {
+                    for (int i = 0; i < sectionCount; i++) {
+                        writeSection(sections, encodedSections, i, bedrockDimension, byteBuf);
+                    }
                 }
-
-                BiomeTranslator.toNewBedrockBiome(session, javaBiomes[i + (dimensionOffset - yOffset)]).writeToNetwork(byteBuf);
+                writeBiomes(session, javaBiomes, yOffset, chunkSize, bedrockDimension, byteBuf);
             }
 
             byteBuf.writeByte(0); // Border blocks - Edu edition only
 
-            // Encode tile entities into buffer
-            NBTOutputStream nbtStream = NbtUtils.createNetworkWriter(new ByteBufOutputStream(byteBuf));
-            for (NbtMap blockEntity : bedrockBlockEntities) {
-                nbtStream.writeTag(blockEntity);
+            if (!subChunkRequests) {
+                // Encode tile entities into buffer
+                NBTOutputStream nbtStream = NbtUtils.createNetworkWriter(new ByteBufOutputStream(byteBuf));
+                for (NbtMap blockEntity : bedrockBlockEntities) {
+                    nbtStream.writeTag(blockEntity);
+                }
             }
             payload = new byte[byteBuf.readableBytes()];
             byteBuf.readBytes(payload);
@@ -504,8 +599,18 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
         }
 
         LevelChunkPacket levelChunkPacket = new LevelChunkPacket();
-        levelChunkPacket.setSubChunksLength(sectionCount);
-        levelChunkPacket.setCachingEnabled(false);
+        if (subChunkRequests) {
+            levelChunkPacket.setRequestSubChunks(true);
+            levelChunkPacket.setSubChunkLimit(sectionCount);
+        } else {
+            levelChunkPacket.setSubChunksLength(sectionCount);
+        }
+        if (blobIds != null && !blobIds.isEmpty()) {
+            levelChunkPacket.setCachingEnabled(true);
+            levelChunkPacket.getBlobIds().addAll(blobIds);
+        } else {
+            levelChunkPacket.setCachingEnabled(false);
+        }
         levelChunkPacket.setChunkX(packet.getX());
         levelChunkPacket.setChunkZ(packet.getZ());
         levelChunkPacket.setData(Unpooled.wrappedBuffer(payload));
@@ -522,9 +627,42 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
         }
     }
 
-    static final class ExtendedCollisionsStorage {
+    /**
+     * Extended collisions depend on neighbouring sections and custom skulls modify sections after translation,
+     * so chunks with either can't use the shared section cache.
+     */
+    static boolean canUseSectionCache(BlockMappings blockMappings, boolean showCustomSkulls, BlockEntityInfo[] blockEntities) {
+        return blockMappings.getExtendedCollisionBoxes().isEmpty() && !(showCustomSkulls && hasCustomSkulls(blockEntities));
+    }
+
+    /**
+     * @return true if any of these block entities may turn into a custom skull block
+     */
+    private static boolean hasCustomSkulls(BlockEntityInfo[] blockEntities) {
+        for (BlockEntityInfo blockEntity : blockEntities) {
+            if (blockEntity.getType() == BlockEntityType.SKULL && blockEntity.getNbt() != null && blockEntity.getNbt().containsKey("profile")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record TranslatedSections(int yOffset, int chunkSize, BedrockDimension bedrockDimension,
+                                      DataPalette[] javaChunks, DataPalette[] javaBiomes,
+                                      GeyserChunkSection[] sections, byte[][] encodedSections,
+                                      List<NbtMap> bedrockBlockEntities) {
+    }
+
+    /**
+     * Extended collision boxes that reach into the section above the block they belong to
+     */
+    public static final class ExtendedCollisionsStorage {
         private int[] data;
         private int sectionY;
+        /**
+         * If the last translated section carried extended collisions into the bottom layer of the next one
+         */
+        private boolean nextSection;
     
         int get(int index, int sY) {
             if (data == null) {
@@ -545,6 +683,7 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
 
         void clear() {
             data = null;
+            nextSection = false;
         }
     
         int bottomLayerCollisions() {
@@ -567,4 +706,38 @@ public class JavaLevelChunkWithLightTranslator extends PacketTranslator<Clientbo
             }
         }
     }
+
+    private static void writeSection(GeyserChunkSection[] sections, byte @Nullable [][] encodedSections, int i, BedrockDimension bedrockDimension, ByteBuf byteBuf) {
+        GeyserChunkSection section = sections[i];
+        if (encodedSections != null && encodedSections[i] != null) {
+            byteBuf.writeBytes(encodedSections[i]);
+        } else if (section != null) {
+            section.writeToNetwork(byteBuf);
+        } else {
+            int subChunkIndex = (i + (bedrockDimension.minY() >> 4));
+            new GeyserChunkSection(EMPTY_BLOCK_STORAGE, subChunkIndex).writeToNetwork(byteBuf);
+        }
+    }
+
+    private static void writeBiomes(GeyserSession session, DataPalette[] javaBiomes, int yOffset, int chunkSize, BedrockDimension bedrockDimension, ByteBuf byteBuf) {
+        // As of 1.18.30, the amount of biomes read is dependent on how high Bedrock thinks the dimension is
+        int biomeCount = bedrockDimension.height() >> 4;
+        int dimensionOffset = bedrockDimension.minY() >> 4;
+        for (int i = 0; i < biomeCount; i++) {
+            int biomeYOffset = dimensionOffset + i;
+            if (biomeYOffset < yOffset) {
+                // Ignore this biome section since it goes below the height of the Java world
+                byteBuf.writeBytes(ChunkUtils.EMPTY_BIOME_DATA);
+                continue;
+            }
+            if (biomeYOffset >= (chunkSize + yOffset)) {
+                // This biome section goes above the height of the Java world
+                // The byte written here is a header that says to carry on the biome data from the previous chunk
+                byteBuf.writeByte((127 << 1) | 1);
+                continue;
+            }
+
+            BiomeTranslator.toNewBedrockBiome(session, javaBiomes[i + (dimensionOffset - yOffset)]).writeToNetwork(byteBuf);
+        }
+    }
 }
@@ -36,6 +36,11 @@ public class JavaSectionBlocksUpdateTranslator extends PacketTranslator<Clientbo
 
     @Override
     public void translate(GeyserSession session, ClientboundSectionBlocksUpdatePacket packet) {
+        // These blocks may be in a chunk that is still being translated
+        session.getChunkTranslationQueue().runInOrder(() -> updateBlocks(session, packet));
+    }
+
+    private void updateBlocks(GeyserSession session, ClientboundSectionBlocksUpdatePacket packet) {
         for (BlockChangeEntry entry : packet.getEntries()) {
             session.getWorldCache().updateServerCorrectBlockState(entry.getPosition(), entry.getBlock());
         }
@@ -76,5 +76,6 @@ public class BlockEntityUtils {
         blockEntityPacket.setBlockPosition(position);
         blockEntityPacket.setData(blockEntity);
         session.sendUpstreamPacket(blockEntityPacket);
+        session.getChunkCache().updateBlockEntity(position, blockEntity);
     }
 }
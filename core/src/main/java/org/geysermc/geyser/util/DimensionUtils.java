@@ -66,9 +66,12 @@ public class DimensionUtils {
 
         Entity player = session.getPlayerEntity();
 
+        // Chunks from the previous dimension must be handled before it is cleared
+        session.getChunkTranslationQueue().flush();
         session.getChunkCache().clear();
         session.getEntityCache().removeAllEntities();
         session.getItemFrameCache().clear();
+        session.getItemDataCache().clear();
         session.getLodestoneCache().clear();
         session.getPistonCache().clear();
         session.getSkullCache().clear();
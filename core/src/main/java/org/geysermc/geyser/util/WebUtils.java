@@ -33,16 +33,31 @@ import javax.naming.directory.Attribute;
 import javax.naming.directory.InitialDirContext;
 import java.io.*;
 import java.net.HttpURLConnection;
+import java.net.URI;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
 public class WebUtils {
+    /**
+     * Shared client for non-blocking requests. Uses HTTP/2 where the server supports it, so concurrent requests
+     * to the same host share one connection.
+     */
+    private static final HttpClient HTTP_CLIENT = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .build();
 
     /**
      * Makes a web request to the given URL and returns the body as a string
@@ -79,6 +94,42 @@ public class WebUtils {
         return GeyserImpl.JSON_MAPPER.readTree(con.getInputStream());
     }
 
+    /**
+     * Makes a non-blocking web request to the given URL
+     *
+     * @param reqURL URL to fetch
+     * @return the response body, or a future completed exceptionally if the server did not respond with 200 OK
+     */
+    public static CompletableFuture<byte[]> getBytesAsync(String reqURL) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(reqURL))
+                .header("User-Agent", getUserAgent())
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        return HTTP_CLIENT.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()).thenApply(response -> {
+            if (response.statusCode() != 200) {
+                throw new CompletionException(new IOException("Unexpected response code " + response.statusCode() + " from " + reqURL));
+            }
+            return response.body();
+        });
+    }
+
+    /**
+     * Makes a non-blocking web request to the given URL and parses the body as JSON
+     *
+     * @param reqURL URL to fetch
+     * @return the parsed body, or a future completed exceptionally if the request failed
+     */
+    public static CompletableFuture<JsonNode> getJsonAsync(String reqURL) {
+        return getBytesAsync(reqURL).thenApply(body -> {
+            try {
+                return GeyserImpl.JSON_MAPPER.readTree(body);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
     /**
      * Downloads a file from the given URL and saves it to disk
      *
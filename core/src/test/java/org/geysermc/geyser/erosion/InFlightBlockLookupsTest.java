@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.erosion;
+
+import io.netty.channel.DefaultEventLoop;
+import io.netty.channel.EventLoop;
+import org.cloudburstmc.math.vector.Vector3i;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+public class InFlightBlockLookupsTest {
+    private static final Vector3i POSITION = Vector3i.from(1, 2, 3);
+
+    @Test
+    public void joiningFromAnotherEventLoopTaskDoesNotDeadlock() throws Exception {
+        BlockingQueue<CompletableFuture<Integer>> sent = new LinkedBlockingQueue<>();
+        InFlightBlockLookups lookups = new InFlightBlockLookups(position -> {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            sent.add(future);
+            return future;
+        });
+
+        EventLoop eventLoop = new DefaultEventLoop();
+        try {
+            // Like two movement packets for the same entity, each translated in its own task
+            CountDownLatch waiting = new CountDownLatch(1);
+            eventLoop.execute(() -> lookups.lookup(POSITION));
+            Future<Integer> joined = eventLoop.submit(() -> {
+                CompletableFuture<Integer> future = lookups.lookup(POSITION);
+                waiting.countDown();
+                return future.join();
+            });
+
+            // The backend can only answer if the lookup was sent without waiting for the event loop
+            CompletableFuture<Integer> request = sent.poll(5, TimeUnit.SECONDS);
+            Assertions.assertNotNull(request, "The lookup was held back behind the waiting task");
+            Assertions.assertTrue(waiting.await(5, TimeUnit.SECONDS));
+            request.complete(42);
+
+            Assertions.assertEquals(42, joined.get(5, TimeUnit.SECONDS));
+            Assertions.assertTrue(sent.isEmpty(), "Both tasks share one lookup");
+        } finally {
+            eventLoop.shutdownGracefully(0, 0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void lookupsInFlightAreShared() {
+        List<CompletableFuture<Integer>> sent = new CopyOnWriteArrayList<>();
+        InFlightBlockLookups lookups = new InFlightBlockLookups(position -> {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            sent.add(future);
+            return future;
+        });
+
+        CompletableFuture<Integer> first = lookups.lookup(POSITION);
+        CompletableFuture<Integer> second = lookups.lookup(POSITION);
+        Assertions.assertSame(first, second);
+        Assertions.assertEquals(1, sent.size());
+
+        sent.get(0).complete(7);
+        Assertions.assertEquals(7, first.join());
+        Assertions.assertEquals(0, lookups.size());
+
+        // Once answered, the next lookup goes to the backend again
+        lookups.lookup(POSITION);
+        Assertions.assertEquals(2, sent.size());
+    }
+
+    @Test
+    public void failedLookupsFallBackToAir() {
+        InFlightBlockLookups lookups = new InFlightBlockLookups(position -> CompletableFuture.failedFuture(new IllegalStateException()));
+
+        Assertions.assertEquals(0, lookups.lookup(POSITION).join());
+        Assertions.assertEquals(0, lookups.size());
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.erosion;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class TransactionTableTest {
+
+    @Test
+    public void completesOutOfOrder() {
+        TransactionTable<String> table = new TransactionTable<>();
+        int first = table.nextTransactionId();
+        int second = table.nextTransactionId();
+        int third = table.nextTransactionId();
+        table.put(first, "first");
+        table.put(second, "second");
+        table.put(third, "third");
+
+        Assertions.assertEquals("third", table.remove(third));
+        Assertions.assertEquals("first", table.remove(first));
+        Assertions.assertEquals("second", table.remove(second));
+        Assertions.assertNull(table.remove(second), "Each transaction is only answered once");
+    }
+
+    @Test
+    public void sharedSlotsDoNotMixUpTransactions() {
+        TransactionTable<String> table = new TransactionTable<>();
+        int first = 1;
+        int sameSlot = first + TransactionTable.SLOTS;
+        table.put(first, "first");
+        table.put(sameSlot, "same slot");
+
+        Assertions.assertNull(table.remove(sameSlot + TransactionTable.SLOTS), "Nothing is waiting on this transaction");
+        Assertions.assertEquals("same slot", table.remove(sameSlot));
+        Assertions.assertEquals("first", table.remove(first));
+
+        // Once the slot is free again, it's used for the next transaction
+        table.put(sameSlot, "reused");
+        Assertions.assertNull(table.remove(first));
+        Assertions.assertEquals("reused", table.remove(sameSlot));
+    }
+
+    @Test
+    public void transactionIdsWrapAroundToOne() {
+        TransactionTable<String> table = new TransactionTable<>(Integer.MAX_VALUE);
+        int last = table.nextTransactionId();
+        int wrapped = table.nextTransactionId();
+        Assertions.assertEquals(Integer.MAX_VALUE, last);
+        Assertions.assertEquals(1, wrapped);
+
+        table.put(last, "last");
+        table.put(wrapped, "wrapped");
+        Assertions.assertEquals("wrapped", table.remove(wrapped));
+        Assertions.assertEquals("last", table.remove(last));
+    }
+
+    @Test
+    public void failedLookupsMatchTheirTransaction() {
+        TransactionTable<String> table = new TransactionTable<>(Integer.MAX_VALUE - 1);
+        for (int i = 0; i < 4; i++) {
+            int transactionId = table.nextTransactionId();
+            table.put(transactionId, "lookup " + i);
+
+            // Mirrors how the backend reports a failed lookup
+            int failedTransactionId = transactionId + 1;
+            Assertions.assertNotEquals(0, failedTransactionId, "Zero is reserved for failed batch lookups");
+            Assertions.assertEquals("lookup " + i, table.remove(TransactionTable.fromFailedTransactionId(failedTransactionId)));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.inventory.updater;
+
+import it.unimi.dsi.fastutil.ints.IntList;
+import org.cloudburstmc.protocol.bedrock.data.definitions.SimpleItemDefinition;
+import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class InventoryUpdaterTest {
+    private static final SimpleItemDefinition STONE = new SimpleItemDefinition("minecraft:stone", 1, false);
+
+    private static ItemData stone(int count) {
+        return ItemData.builder()
+                .definition(STONE)
+                .count(count)
+                .netId(1)
+                .build();
+    }
+
+    private static ItemData[] container() {
+        ItemData[] items = new ItemData[27];
+        Arrays.fill(items, ItemData.AIR);
+        items[0] = stone(1);
+        return items;
+    }
+
+    @Test
+    public void unchangedContainer() {
+        ItemData[] items = container();
+        ItemData[] sameItems = container();
+
+        IntList changedSlots = InventoryUpdater.changedSlots(items, sameItems);
+        assertEquals(IntList.of(), changedSlots);
+    }
+
+    @Test
+    public void fewSlotsChanged() {
+        ItemData[] lastSent = container();
+        ItemData[] items = container();
+        items[0] = stone(2);
+        items[5] = stone(1);
+        lastSent[26] = null; // Slot forgotten after an item stack request
+
+        IntList changedSlots = InventoryUpdater.changedSlots(lastSent, items);
+        assertEquals(IntList.of(0, 5, 26), changedSlots);
+    }
+
+    @Test
+    public void tooManySlotsChanged() {
+        ItemData[] lastSent = container();
+        ItemData[] items = container();
+        for (int i = 0; i < 10; i++) {
+            items[i + 10] = stone(1);
+        }
+
+        assertNull(InventoryUpdater.changedSlots(lastSent, items));
+    }
+
+    @Test
+    public void nothingSentYet() {
+        assertNull(InventoryUpdater.changedSlots(null, container()));
+        assertNull(InventoryUpdater.changedSlots(new ItemData[9], container()));
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level;
+
+import org.geysermc.erosion.util.BlockPositionIterator;
+import org.geysermc.geyser.session.cache.ChunkCache;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.ChunkSection;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class GeyserWorldManagerTest {
+    private static final int STONE = 1;
+    private static final int DIRT = 10;
+
+    @Test
+    public void mirroredLookupsHitCachedChunks() {
+        ChunkCache chunkCache = createChunkCache();
+
+        Assertions.assertArrayEquals(new int[] {STONE}, lookup(chunkCache, 1, 2, 3));
+        Assertions.assertArrayEquals(new int[] {0}, lookup(chunkCache, 1, 20, 3), "Empty sections are air");
+    }
+
+    @Test
+    public void mirroredLookupsSeeBlockUpdates() {
+        ChunkCache chunkCache = createChunkCache();
+        chunkCache.updateBlock(1, 2, 3, DIRT);
+
+        Assertions.assertArrayEquals(new int[] {DIRT}, lookup(chunkCache, 1, 2, 3));
+    }
+
+    @Test
+    public void mirroredLookupsMissUncachedChunks() {
+        ChunkCache chunkCache = createChunkCache();
+
+        Assertions.assertNull(lookup(chunkCache, 16, 2, 3), "Lookups in chunks that aren't cached go to the backend");
+    }
+
+    private static int[] lookup(ChunkCache chunkCache, int x, int y, int z) {
+        return GeyserWorldManager.getMirroredBlocksAt(chunkCache, BlockPositionIterator.fromMinMax(x, y, z, x, y, z));
+    }
+
+    private static ChunkCache createChunkCache() {
+        ChunkCache chunkCache = new ChunkCache();
+        chunkCache.setMinY(0);
+        chunkCache.setHeightY(32);
+
+        ChunkSection section = new ChunkSection();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    section.setBlock(x, y, z, STONE);
+                }
+            }
+        }
+        chunkCache.addToCache(0, 0, new DataPalette[] {section.getChunkData(), null});
+        return chunkCache;
+    }
+}
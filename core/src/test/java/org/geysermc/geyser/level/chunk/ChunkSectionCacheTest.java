@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.ChunkSection;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ChunkSectionCacheTest {
+    private static final int STONE = 1;
+    private static final int DIRT = 10;
+
+    private final BlockMappings mappings = BlockMappings.builder().build();
+
+    @Test
+    public void identicalSectionsShareEntries() {
+        ChunkSectionCache cache = new ChunkSectionCache(1024 * 1024);
+        ChunkSectionCache.Key key = cache.createKey(mappings, createSection().getChunkData(), 4);
+        byte[] encoded = cache.put(key, new GeyserChunkSection(0, 4));
+
+        Assertions.assertSame(encoded, cache.get(cache.createKey(mappings, createSection().getChunkData(), 4)));
+        Assertions.assertEquals(1, cache.stats().hits());
+    }
+
+    @Test
+    public void blockUpdatesMissStaleEntries() {
+        ChunkSectionCache cache = new ChunkSectionCache(1024 * 1024);
+        ChunkSection section = createSection();
+        ChunkSectionCache.Key key = cache.createKey(mappings, section.getChunkData(), 4);
+        byte[] encoded = cache.put(key, new GeyserChunkSection(0, 4));
+
+        // The server sends the chunk again after the block changed
+        section.setBlock(3, 4, 5, DIRT);
+        ChunkSectionCache.Key updatedKey = cache.createKey(mappings, section.getChunkData(), 4);
+        Assertions.assertNotEquals(key, updatedKey);
+        Assertions.assertNull(cache.get(updatedKey), "An updated section must be translated again");
+
+        // Changing it back makes it identical to the cached section again
+        section.setBlock(3, 4, 5, STONE);
+        Assertions.assertSame(encoded, cache.get(cache.createKey(mappings, section.getChunkData(), 4)));
+    }
+
+    @Test
+    public void entriesDependOnPositionAndMappings() {
+        ChunkSectionCache cache = new ChunkSectionCache(1024 * 1024);
+        DataPalette javaData = createSection().getChunkData();
+        ChunkSectionCache.Key key = cache.createKey(mappings, javaData, 4);
+
+        Assertions.assertNotEquals(key, cache.createKey(mappings, javaData, 5), "The sub chunk index is encoded in the section");
+        Assertions.assertNotEquals(key, cache.createKey(BlockMappings.builder().build(), javaData, 4));
+    }
+
+    @Test
+    public void clearRemovesEntries() {
+        ChunkSectionCache cache = new ChunkSectionCache(1024 * 1024);
+        ChunkSectionCache.Key key = cache.createKey(mappings, createSection().getChunkData(), 4);
+        cache.put(key, new GeyserChunkSection(0, 4));
+
+        cache.clear();
+        Assertions.assertNull(cache.get(key));
+    }
+
+    private static ChunkSection createSection() {
+        ChunkSection section = new ChunkSection();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    section.setBlock(x, y, z, y < 8 ? STONE : DIRT);
+                }
+            }
+        }
+        return section;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk;
+
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.ChunkSection;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.DataPalette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.GlobalPalette;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.PaletteType;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.palette.SingletonPalette;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class PackedChunkSectionTest {
+    private static final int SIZE = 4096;
+    private static final int STONE = 1;
+    /**
+     * Counts of distinct block states on both sides of every bits per entry step of the Java palettes:
+     * single value, 4 bits, 5 bits, 8 bits, and the global palette
+     */
+    private static final int[] STATE_COUNTS = {1, 2, 16, 17, 32, 33, 256, 257, SIZE};
+
+    @Test
+    public void convertsSingletonSections() {
+        DataPalette javaSection = new DataPalette(new SingletonPalette(STONE), null, PaletteType.CHUNK);
+        PackedChunkSection section = PackedChunkSection.from(javaSection);
+
+        for (int i = 0; i < SIZE; i++) {
+            Assertions.assertEquals(STONE, section.get(x(i), y(i), z(i)));
+        }
+        Assertions.assertFalse(section.isEmpty());
+    }
+
+    @Test
+    public void convertsEveryPaletteSize() {
+        for (int stateCount : STATE_COUNTS) {
+            ChunkSection javaSection = createSection(stateCount);
+            if (stateCount == SIZE) {
+                Assertions.assertInstanceOf(GlobalPalette.class, javaSection.getChunkData().getPalette());
+            } else if (stateCount <= 16) {
+                Assertions.assertFalse(javaSection.getChunkData().getPalette() instanceof GlobalPalette);
+            }
+
+            assertSameBlocks(javaSection, PackedChunkSection.from(javaSection.getChunkData()), stateCount + " states");
+        }
+    }
+
+    @Test
+    public void growsThroughEveryPaletteSize() {
+        ChunkSection javaSection = new ChunkSection();
+        PackedChunkSection section = PackedChunkSection.singleton(0);
+
+        int nextCount = 0;
+        for (int i = 0; i < SIZE; i++) {
+            // Every entry gets its own state, so the section holds i + 1 states besides air
+            javaSection.setBlock(x(i), y(i), z(i), i + 1);
+            section.set(x(i), y(i), z(i), i + 1);
+
+            if (i + 1 == STATE_COUNTS[nextCount]) {
+                assertSameBlocks(javaSection, section, (i + 1) + " states");
+                nextCount++;
+            }
+        }
+        Assertions.assertEquals(STATE_COUNTS.length, nextCount);
+    }
+
+    @Test
+    public void updatesConvertedSections() {
+        for (int stateCount : STATE_COUNTS) {
+            ChunkSection javaSection = createSection(stateCount);
+            PackedChunkSection section = PackedChunkSection.from(javaSection.getChunkData()).copy();
+
+            // The first and last entries sit at the start and end of the packed longs
+            for (int i : new int[] {0, SIZE - 1}) {
+                javaSection.setBlock(x(i), y(i), z(i), STONE);
+                section.set(x(i), y(i), z(i), STONE);
+            }
+            // A state that isn't in the palette yet, which makes it grow if it is full
+            javaSection.setBlock(1, 2, 3, SIZE + 1);
+            section.set(1, 2, 3, SIZE + 1);
+
+            assertSameBlocks(javaSection, section, stateCount + " states");
+        }
+    }
+
+    @Test
+    public void globalSectionsGrowPastTheirBitsPerEntry() {
+        ChunkSection javaSection = createSection(SIZE);
+        int bitsPerEntry = javaSection.getChunkData().getStorage().getBitsPerEntry();
+        PackedChunkSection section = PackedChunkSection.from(javaSection.getChunkData()).copy();
+
+        int largeState = 1 << bitsPerEntry;
+        section.set(15, 15, 15, largeState);
+
+        Assertions.assertEquals(largeState, section.get(15, 15, 15));
+        for (int i = 0; i < SIZE - 1; i++) {
+            Assertions.assertEquals(javaSection.getBlock(x(i), y(i), z(i)), section.get(x(i), y(i), z(i)), "Entry " + i);
+        }
+    }
+
+    /**
+     * @return a section in which entry i holds state {@code 1 + i % stateCount}
+     */
+    private static ChunkSection createSection(int stateCount) {
+        ChunkSection section = new ChunkSection();
+        for (int i = 0; i < SIZE; i++) {
+            section.setBlock(x(i), y(i), z(i), 1 + i % stateCount);
+        }
+        return section;
+    }
+
+    private static void assertSameBlocks(ChunkSection expected, PackedChunkSection actual, String description) {
+        for (int i = 0; i < SIZE; i++) {
+            Assertions.assertEquals(expected.getBlock(x(i), y(i), z(i)), actual.get(x(i), y(i), z(i)), "Entry " + i + " with " + description);
+        }
+    }
+
+    private static int x(int index) {
+        return index & 0xF;
+    }
+
+    private static int y(int index) {
+        return index >> 8;
+    }
+
+    private static int z(int index) {
+        return (index >> 4) & 0xF;
+    }
+}
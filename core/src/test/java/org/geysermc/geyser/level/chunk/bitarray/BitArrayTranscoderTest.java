@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.level.chunk.bitarray;
+
+import org.geysermc.geyser.level.chunk.BlockStorage;
+import org.geysermc.geyser.util.ChunkUtils;
+import org.geysermc.mcprotocollib.protocol.data.game.chunk.BitStorage;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+public class BitArrayTranscoderTest {
+
+    @Test
+    public void unpackMatchesJavaStorage() {
+        Random random = new Random(0);
+        for (int bits = 4; bits <= 15; bits++) {
+            BitStorage storage = new BitStorage(bits, BlockStorage.SIZE);
+            for (int i = 0; i < BlockStorage.SIZE; i++) {
+                storage.set(i, random.nextInt(1 << bits));
+            }
+
+            int[] unpacked = BitArrayTranscoder.unpack(storage);
+            for (int i = 0; i < BlockStorage.SIZE; i++) {
+                Assertions.assertEquals(storage.get(i), unpacked[i], "Unpacked entry " + i + " differs with " + bits + " bits");
+            }
+        }
+    }
+
+    @Test
+    public void setAllMatchesSingleEntries() {
+        Random random = new Random(0);
+        for (BitArrayVersion version : BitArrayVersion.values()) {
+            if (version == BitArrayVersion.V0) {
+                continue;
+            }
+            int[] values = new int[BlockStorage.SIZE];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(version.getMaxEntryValue() + 1);
+            }
+
+            BitArray expected = version.createArray(BlockStorage.SIZE);
+            for (int yzx = 0; yzx < values.length; yzx++) {
+                expected.set(ChunkUtils.indexYZXtoXZY(yzx), values[yzx]);
+            }
+            BitArray actual = version.createArray(BlockStorage.SIZE);
+            actual.setAllYZX(values);
+
+            Assertions.assertArrayEquals(expected.getWords(), actual.getWords(), "Bulk conversion differs for " + version);
+        }
+    }
+
+    @Test
+    public void setAllRejectsOversizedValues() {
+        int[] values = new int[BlockStorage.SIZE];
+        values[42] = 16;
+        BitArray array = BitArrayVersion.V4.createArray(BlockStorage.SIZE);
+        Assertions.assertThrows(IllegalArgumentException.class, () -> array.setAllYZX(values));
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.network;
+
+import org.geysermc.geyser.api.pack.ResourcePack;
+import org.geysermc.geyser.pack.GeyserResourcePack;
+import org.geysermc.geyser.registry.loader.ResourcePackLoader;
+import org.junit.jupiter.api.Test;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UpstreamPacketHandlerTest {
+    private static final String PACK_UUID = "e5f5c938-a701-11eb-b2a3-047d7bb283ba";
+    private static final int CHUNK_SIZE = GeyserResourcePack.CHUNK_SIZE;
+
+    @Test
+    public void packsAreFoundByUuidAndVersion() throws Exception {
+        URL url = Objects.requireNonNull(getClass().getClassLoader().getResource("empty_pack.mcpack"));
+        ResourcePack pack = ResourcePackLoader.readPack(Path.of(url.toURI()));
+        Map<String, ResourcePack> packs = Map.of(PACK_UUID, pack);
+
+        assertSame(pack, UpstreamPacketHandler.findPack(packs, PACK_UUID, "1.0.6"));
+        assertSame(pack, UpstreamPacketHandler.findPack(packs, PACK_UUID, null));
+        assertNull(UpstreamPacketHandler.findPack(packs, PACK_UUID, "1.0.5"), "Other versions of a pack are rejected");
+        assertNull(UpstreamPacketHandler.findPack(packs, "eebb4ea8-a701-11eb-95ba-047d7bb283ba", "1.0.6"), "Unknown packs are rejected");
+    }
+
+    @Test
+    public void chunksAreCutAtTheEndOfThePack() {
+        long size = 2 * CHUNK_SIZE + CHUNK_SIZE / 2;
+
+        assertEquals(CHUNK_SIZE, UpstreamPacketHandler.chunkLength(size, 0));
+        assertEquals(CHUNK_SIZE, UpstreamPacketHandler.chunkLength(size, 1));
+        assertEquals(CHUNK_SIZE / 2, UpstreamPacketHandler.chunkLength(size, 2));
+        assertEquals(CHUNK_SIZE, UpstreamPacketHandler.chunkLength(2 * CHUNK_SIZE, 1));
+    }
+
+    @Test
+    public void chunksOutsideThePackAreRejected() {
+        long size = 2 * CHUNK_SIZE + CHUNK_SIZE / 2;
+
+        assertEquals(0, UpstreamPacketHandler.chunkLength(size, 3));
+        assertEquals(0, UpstreamPacketHandler.chunkLength(2 * CHUNK_SIZE, 2));
+        assertEquals(0, UpstreamPacketHandler.chunkLength(size, -1));
+        assertEquals(0, UpstreamPacketHandler.chunkLength(0, 0));
+        // Would overflow if the offset was computed as an int
+        assertEquals(0, UpstreamPacketHandler.chunkLength(size, Integer.MAX_VALUE));
+        assertEquals(0, UpstreamPacketHandler.chunkLength(size, Integer.MIN_VALUE));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.pack.path;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GeyserPathPackCodecTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void chunksAreSlicesOfThePack() throws Exception {
+        byte[] content = content(250);
+        GeyserPathPackCodec codec = new GeyserPathPackCodec(Files.write(directory.resolve("pack.mcpack"), content));
+
+        assertArrayEquals(Arrays.copyOfRange(content, 0, 100), ByteBufUtil.getBytes(codec.chunk(0, 100)));
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), ByteBufUtil.getBytes(codec.chunk(100, 100)));
+        assertArrayEquals(Arrays.copyOfRange(content, 200, 250), ByteBufUtil.getBytes(codec.chunk(200, 100)),
+                "The last chunk is cut short at the end of the pack");
+        assertEquals(250, codec.bytesServed());
+    }
+
+    @Test
+    public void chunksOutsideThePackAreEmpty() throws Exception {
+        GeyserPathPackCodec codec = new GeyserPathPackCodec(Files.write(directory.resolve("pack.mcpack"), content(250)));
+
+        for (ByteBuf chunk : new ByteBuf[] {codec.chunk(250, 100), codec.chunk(-100, 100), codec.chunk(Integer.MAX_VALUE + 1L, 100), codec.chunk(0, 0)}) {
+            assertEquals(0, chunk.readableBytes());
+        }
+        assertEquals(0, codec.bytesServed());
+    }
+
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+}
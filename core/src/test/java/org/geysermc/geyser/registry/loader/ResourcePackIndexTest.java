@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.registry.loader;
+
+import org.geysermc.geyser.api.pack.ResourcePackManifest;
+import org.geysermc.geyser.pack.GeyserResourcePack;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResourcePackIndexTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    public void indexedPacksKeepTheirUuidAndVersion() throws Exception {
+        Path path = copyPack("pack.mcpack");
+        ResourcePackIndex index = ResourcePackIndex.load(indexFile());
+        GeyserResourcePack pack = ResourcePackLoader.readPack(path, index);
+        index.save();
+
+        ResourcePackIndex reloaded = ResourcePackIndex.load(indexFile());
+        assertNotNull(reloaded.get(path, attributes(path)), "Unchanged packs are taken from the index");
+        GeyserResourcePack indexedPack = ResourcePackLoader.readPack(path, reloaded);
+
+        ResourcePackManifest.Header header = indexedPack.manifest().header();
+        assertEquals(pack.manifest().header().uuid(), header.uuid());
+        assertEquals("1.0.6", header.version().toString());
+        assertArrayEquals(pack.codec().sha256(), indexedPack.codec().sha256());
+        assertEquals(pack.codec().size(), indexedPack.codec().size());
+    }
+
+    @Test
+    public void changedPacksAreReadAgain() throws Exception {
+        Path path = copyPack("pack.mcpack");
+        ResourcePackIndex index = ResourcePackIndex.load(indexFile());
+        ResourcePackLoader.readPack(path, index);
+        index.save();
+
+        Files.setLastModifiedTime(path, FileTime.fromMillis(attributes(path).lastModifiedTime().toMillis() + 1000));
+        assertNull(ResourcePackIndex.load(indexFile()).get(path, attributes(path)));
+    }
+
+    @Test
+    public void packsThatAreGoneAreDropped() throws Exception {
+        Path kept = copyPack("kept.mcpack");
+        Path removed = copyPack("removed.mcpack");
+        ResourcePackIndex index = ResourcePackIndex.load(indexFile());
+        ResourcePackLoader.readPack(kept, index);
+        ResourcePackLoader.readPack(removed, index);
+        index.save();
+
+        // Only the first pack is loaded again
+        index = ResourcePackIndex.load(indexFile());
+        ResourcePackLoader.readPack(kept, index);
+        index.save();
+
+        index = ResourcePackIndex.load(indexFile());
+        assertNotNull(index.get(kept, attributes(kept)));
+        assertNull(index.get(removed, attributes(removed)));
+    }
+
+    private Path indexFile() {
+        return directory.resolve("cache").resolve("packs.json");
+    }
+
+    private Path copyPack(String name) throws URISyntaxException, IOException {
+        URL url = Objects.requireNonNull(getClass().getClassLoader().getResource("empty_pack.mcpack"));
+        return Files.copy(Path.of(url.toURI()), directory.resolve(name));
+    }
+
+    private static BasicFileAttributes attributes(Path path) throws IOException {
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.scoreboard;
+
+import net.kyori.adventure.text.Component;
+import org.cloudburstmc.protocol.bedrock.data.ScoreInfo;
+import org.geysermc.geyser.translator.text.MessageTranslator;
+import org.geysermc.mcprotocollib.protocol.data.game.scoreboard.ScoreboardPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class ScoreboardTest {
+    private Objective objective;
+    private final List<ScoreInfo> addScores = new ArrayList<>();
+    private final List<ScoreInfo> removeScores = new ArrayList<>();
+
+    @BeforeAll
+    public static void init() {
+        MessageTranslator.init();
+    }
+
+    @BeforeEach
+    public void setUp() {
+        // Collecting score changes doesn't use the session
+        Scoreboard scoreboard = new Scoreboard(null, null);
+        objective = new Objective(scoreboard, "objective", ScoreboardPosition.SIDEBAR, "Objective", 0);
+        objective.setScore("a", 1, null, null);
+        objective.setScore("b", 2, null, null);
+        objective.setScore("c", 3, null, null);
+        update();
+
+        Assertions.assertEquals(Map.of("a", 1, "b", 2, "c", 3), scores(addScores));
+        Assertions.assertTrue(removeScores.isEmpty(), "A new objective is sent whole");
+    }
+
+    @Test
+    public void addsRemovesAndRenamesInOneUpdate() {
+        ScoreInfo oldB = objective.getScores().get("b").getCachedInfo();
+        ScoreInfo oldC = objective.getScores().get("c").getCachedInfo();
+
+        objective.setScore("d", 4, null, null);
+        objective.removeScore("b");
+        objective.setScore("c", 3, Component.text("Renamed"), null);
+        update();
+
+        Assertions.assertEquals(Map.of("d", 4, name("Renamed"), 3), scores(addScores), "Only changed scores are sent");
+        // Updated scores are removed first to work around MCPE-143063
+        Assertions.assertEquals(List.of(oldB.getScoreboardId(), oldC.getScoreboardId()), ids(removeScores));
+        Assertions.assertEquals(oldC.getScoreboardId(), objective.getScores().get("c").getCachedInfo().getScoreboardId(),
+                "A renamed score keeps its ID");
+        Assertions.assertEquals(List.of("a", "c", "d"), objective.getScores().keySet().stream().sorted().toList());
+    }
+
+    @Test
+    public void scoresAddedAndRemovedInOneUpdateAreNeverSent() {
+        objective.setScore("d", 4, null, null);
+        objective.removeScore("d");
+        update();
+
+        Assertions.assertTrue(addScores.isEmpty());
+        Assertions.assertTrue(removeScores.isEmpty());
+        Assertions.assertFalse(objective.getScores().containsKey("d"));
+    }
+
+    @Test
+    public void scoresRemovedAndSetAgainInOneUpdateAreUpdated() {
+        ScoreInfo oldA = objective.getScores().get("a").getCachedInfo();
+
+        objective.removeScore("a");
+        objective.setScore("a", 5, null, null);
+        update();
+
+        Assertions.assertEquals(Map.of("a", 5), scores(addScores));
+        Assertions.assertEquals(List.of(oldA.getScoreboardId()), ids(removeScores));
+        Assertions.assertTrue(objective.getScores().containsKey("a"));
+    }
+
+    @Test
+    public void renamingTwiceInOneUpdateSendsTheLastName() {
+        objective.setScore("a", 1, Component.text("First"), null);
+        objective.setScore("a", 1, Component.text("Second"), null);
+        update();
+
+        Assertions.assertEquals(Map.of(name("Second"), 1), scores(addScores));
+        Assertions.assertEquals(1, removeScores.size());
+    }
+
+    /**
+     * Collects the score changes of one scoreboard update, like {@link Scoreboard#onUpdate()} does
+     */
+    private void update() {
+        addScores.clear();
+        removeScores.clear();
+        Scoreboard.collectScoreChanges(objective, addScores, removeScores);
+        objective.setUpdateType(UpdateType.NOTHING);
+    }
+
+    private static Map<String, Integer> scores(List<ScoreInfo> infos) {
+        return infos.stream().collect(Collectors.toMap(ScoreInfo::getName, ScoreInfo::getScore));
+    }
+
+    private static List<Long> ids(List<ScoreInfo> infos) {
+        return infos.stream().map(ScoreInfo::getScoreboardId).sorted().toList();
+    }
+
+    private static String name(String displayName) {
+        return MessageTranslator.convertMessage(Component.text(displayName));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.session.cache;
+
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.cloudburstmc.protocol.bedrock.data.definitions.SimpleItemDefinition;
+import org.cloudburstmc.protocol.bedrock.data.inventory.ItemData;
+import org.geysermc.mcprotocollib.protocol.data.game.item.component.DataComponentType;
+import org.geysermc.mcprotocollib.protocol.data.game.item.component.DataComponents;
+import org.geysermc.mcprotocollib.protocol.data.game.item.component.LodestoneTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ItemDataCacheTest {
+    private static final SimpleItemDefinition STONE = new SimpleItemDefinition("minecraft:stone", 1, false);
+
+    private boolean advancedTooltips;
+    private int translations;
+    private ItemDataCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        advancedTooltips = false;
+        translations = 0;
+        cache = new ItemDataCache(() -> advancedTooltips, this::translate);
+    }
+
+    private ItemData translate(int javaId, int count, @Nullable DataComponents components) {
+        translations++;
+        return ItemData.builder()
+                .definition(STONE)
+                .count(count)
+                .damage(components == null ? 0 : components.getOrDefault(DataComponentType.DAMAGE, 0))
+                .build();
+    }
+
+    private static DataComponents damaged(int damage) {
+        DataComponents components = new DataComponents(new HashMap<>());
+        components.put(DataComponentType.DAMAGE, damage);
+        return components;
+    }
+
+    @Test
+    public void unchangedItemsAreOnlyTranslatedOnce() {
+        ItemData first = cache.translate(1, 1, damaged(1));
+        ItemData second = cache.translate(1, 1, damaged(1));
+
+        assertSame(first, second);
+        assertEquals(1, translations);
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void leastRecentlyUsedItemsAreEvicted() {
+        for (int count = 0; count < ItemDataCache.MAX_ENTRIES; count++) {
+            cache.translate(1, count, null);
+        }
+        cache.translate(1, 0, null); // Now the most recently used
+        cache.translate(1, ItemDataCache.MAX_ENTRIES, null);
+        assertEquals(ItemDataCache.MAX_ENTRIES + 1, translations);
+
+        cache.translate(1, 0, null);
+        assertEquals(ItemDataCache.MAX_ENTRIES + 1, translations, "Recently used items are kept");
+        cache.translate(1, 1, null);
+        assertEquals(ItemDataCache.MAX_ENTRIES + 2, translations, "The least recently used item is evicted");
+    }
+
+    @Test
+    public void changedComponentsAreTranslatedAgain() {
+        DataComponents components = damaged(1);
+        cache.translate(1, 1, components);
+
+        components.put(DataComponentType.DAMAGE, 2);
+        assertEquals(2, cache.translate(1, 1, components).getDamage());
+        assertEquals(2, translations);
+
+        // The cached key isn't affected by the change
+        assertEquals(1, cache.translate(1, 1, damaged(1)).getDamage());
+        assertEquals(2, translations);
+    }
+
+    @Test
+    public void advancedTooltipsArePartOfTheKey() {
+        cache.translate(1, 1, null);
+        advancedTooltips = true;
+        cache.translate(1, 1, null);
+        assertEquals(2, translations);
+
+        advancedTooltips = false;
+        cache.translate(1, 1, null);
+        assertEquals(2, translations);
+    }
+
+    @Test
+    public void lodestoneCompassesAreNotCached() {
+        DataComponents components = new DataComponents(new HashMap<>());
+        components.put(DataComponentType.LODESTONE_TRACKER, new LodestoneTracker(null, true));
+
+        cache.translate(1, 1, components);
+        cache.translate(1, 1, components);
+        assertEquals(2, translations, "Each translation hands out a new tracking ID");
+    }
+
+    @Test
+    public void clearForgetsItems() {
+        cache.translate(1, 1, null);
+        cache.clear();
+        cache.translate(1, 1, null);
+        assertEquals(2, translations);
+    }
+}
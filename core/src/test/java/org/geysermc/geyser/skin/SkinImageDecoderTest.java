@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.IndexColorModel;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+public class SkinImageDecoderTest {
+
+    @Test
+    public void decodesRgba() throws IOException {
+        BufferedImage image = new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+        fill(image, new Random(0), true);
+        assertMatchesImageIO(image);
+    }
+
+    @Test
+    public void decodesLegacyRgb() throws IOException {
+        BufferedImage image = new BufferedImage(64, 32, BufferedImage.TYPE_INT_RGB);
+        fill(image, new Random(1), false);
+        assertMatchesImageIO(image);
+    }
+
+    @Test
+    public void decodesLargeSkins() throws IOException {
+        // Doesn't fit the buffer that is kept for each thread
+        BufferedImage image = new BufferedImage(128, 128, BufferedImage.TYPE_INT_ARGB);
+        fill(image, new Random(4), true);
+        assertMatchesImageIO(image);
+        // Smaller skins still decode after it
+        decodesRgba();
+    }
+
+    @Test
+    public void decodesPalette() throws IOException {
+        Random random = new Random(2);
+        for (int bits : new int[] {4, 8}) {
+            int size = 1 << bits;
+            byte[] red = new byte[size];
+            byte[] green = new byte[size];
+            byte[] blue = new byte[size];
+            byte[] alpha = new byte[size];
+            random.nextBytes(red);
+            random.nextBytes(green);
+            random.nextBytes(blue);
+            random.nextBytes(alpha);
+            IndexColorModel colorModel = new IndexColorModel(bits, size, red, green, blue, alpha);
+            int type = bits == 8 ? BufferedImage.TYPE_BYTE_INDEXED : BufferedImage.TYPE_BYTE_BINARY;
+            BufferedImage image = new BufferedImage(64, 64, type, colorModel);
+            for (int y = 0; y < 64; y++) {
+                for (int x = 0; x < 64; x++) {
+                    image.getRaster().setSample(x, y, 0, random.nextInt(size));
+                }
+            }
+            assertMatchesImageIO(image);
+        }
+    }
+
+    @Test
+    public void padsSmallCapes() throws IOException {
+        BufferedImage image = new BufferedImage(22, 17, BufferedImage.TYPE_INT_ARGB);
+        fill(image, new Random(3), true);
+
+        SkinProvider.ImageData cape = SkinImageDecoder.decodeCape(write(image));
+        Assertions.assertNotNull(cape);
+        Assertions.assertEquals(64, cape.width());
+        Assertions.assertEquals(32, cape.height());
+
+        byte[] expected = new byte[64 * 32 * 4];
+        byte[] source = toRgba(image);
+        for (int y = 0; y < image.getHeight(); y++) {
+            System.arraycopy(source, y * image.getWidth() * 4, expected, y * 64 * 4, image.getWidth() * 4);
+        }
+        Assertions.assertArrayEquals(expected, cape.data());
+    }
+
+    @Test
+    public void leavesLargeImagesToImageIO() throws IOException {
+        Assertions.assertNull(SkinImageDecoder.decodeSkin(write(new BufferedImage(256, 256, BufferedImage.TYPE_INT_ARGB))));
+        Assertions.assertNull(SkinImageDecoder.decodeSkin(write(new BufferedImage(128, 256, BufferedImage.TYPE_INT_ARGB))));
+        Assertions.assertNull(SkinImageDecoder.decodeCape(write(new BufferedImage(128, 64, BufferedImage.TYPE_INT_ARGB))));
+        Assertions.assertNull(SkinImageDecoder.decodeCape(write(new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB))));
+        Assertions.assertNull(SkinImageDecoder.decode(new byte[] {1, 2, 3}));
+    }
+
+    private static void assertMatchesImageIO(BufferedImage image) throws IOException {
+        byte[] png = write(image);
+        SkinProvider.ImageData decoded = SkinImageDecoder.decodeSkin(png);
+        Assertions.assertNotNull(decoded);
+
+        BufferedImage expected = ImageIO.read(new ByteArrayInputStream(png));
+        Assertions.assertEquals(expected.getWidth(), decoded.width());
+        Assertions.assertEquals(expected.getHeight(), decoded.height());
+        Assertions.assertArrayEquals(toRgba(expected), decoded.data());
+    }
+
+    private static void fill(BufferedImage image, Random random, boolean alpha) {
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                // Mix gradients with noise so the encoder picks different filters per row
+                int argb = random.nextBoolean() ? random.nextInt() : (x * 4) << 16 | (y * 4) << 8 | (x + y);
+                image.setRGB(x, y, alpha ? argb : argb | 0xFF000000);
+            }
+        }
+    }
+
+    private static byte[] write(BufferedImage image) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static byte[] toRgba(BufferedImage image) {
+        byte[] data = new byte[image.getWidth() * image.getHeight() * 4];
+        int index = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int argb = image.getRGB(x, y);
+                data[index++] = (byte) (argb >> 16);
+                data[index++] = (byte) (argb >> 8);
+                data[index++] = (byte) argb;
+                data[index++] = (byte) (argb >> 24);
+            }
+        }
+        return data;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.skin;
+
+import org.cloudburstmc.protocol.bedrock.data.skin.SerializedSkin;
+import org.geysermc.geyser.api.skin.Cape;
+import org.geysermc.geyser.api.skin.Skin;
+import org.geysermc.geyser.api.skin.SkinGeometry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class SkinStoreTest {
+    private static final Cape NO_CAPE = new Cape("", "no-cape", new byte[0]);
+
+    private static byte[] image(int value, int size) {
+        byte[] data = new byte[size];
+        Arrays.fill(data, (byte) value);
+        return data;
+    }
+
+    @Test
+    public void retainAndRelease() {
+        SkinStore store = new SkinStore(0);
+        byte[] image = store.retainImage(image(1, 64));
+        assertSame(image, store.retainImage(image));
+        assertEquals(2, store.stats().imageReferences());
+
+        store.releaseImage(image);
+        assertEquals(1, store.stats().uniqueImages());
+        assertEquals(1, store.stats().imageReferences());
+
+        store.releaseImage(image);
+        assertEquals(0, store.stats().uniqueImages());
+        assertEquals(0, store.stats().storedBytes());
+
+        // Releasing more often than retaining must not affect an image that is stored again
+        store.releaseImage(image);
+        byte[] retainedAgain = store.retainImage(image(1, 64));
+        store.releaseImage(image);
+        assertEquals(1, store.stats().imageReferences());
+        store.releaseImage(retainedAgain);
+    }
+
+    @Test
+    public void deduplicate() {
+        SkinStore store = new SkinStore(0);
+        byte[] first = store.retainImage(image(1, 64));
+        byte[] copy = image(1, 64);
+        assertSame(first, store.retainImage(copy));
+        assertNotSame(first, store.retainImage(image(2, 64)));
+
+        SkinStore.Stats stats = store.stats();
+        assertEquals(2, stats.uniqueImages());
+        assertEquals(3, stats.imageReferences());
+        assertEquals(128, stats.storedBytes());
+        assertEquals(64, stats.deduplicatedBytes());
+
+        SkinGeometry geometry = store.retainGeometry(new SkinGeometry("geometry.test", "{}"));
+        assertSame(geometry, store.retainGeometry(new SkinGeometry("geometry.test", "{}")));
+        assertEquals(1, store.stats().uniqueGeometries());
+    }
+
+    @Test
+    public void trimOldestUnreferencedFirst() {
+        SkinStore store = new SkinStore(100);
+        byte[] first = store.retainImage(image(1, 40));
+        byte[] second = store.retainImage(image(2, 40));
+        byte[] third = store.retainImage(image(3, 40));
+
+        store.releaseImage(first);
+        store.releaseImage(second);
+        // Still within the budget, so a skin that comes back is not stored twice
+        assertSame(first, store.retainImage(image(1, 40)));
+        store.releaseImage(first);
+
+        store.releaseImage(third);
+        // The second image has been unreferenced the longest now
+        assertEquals(2, store.stats().uniqueImages());
+        assertNotSame(second, store.retainImage(image(2, 40)));
+        assertSame(first, store.retainImage(image(1, 40)));
+    }
+
+    @Test
+    public void serializedSkinsDroppedWithImages() {
+        SkinStore store = new SkinStore(0);
+        byte[] image = store.retainImage(image(1, 64));
+        Skin skin = new Skin("test", image);
+
+        SerializedSkin serializedSkin = store.serialize("test", skin, NO_CAPE, SkinGeometry.WIDE);
+        assertSame(serializedSkin, store.serialize("test", new Skin("test", image(1, 64)), NO_CAPE, SkinGeometry.WIDE));
+        assertEquals(1, store.stats().serializedSkins());
+
+        store.releaseImage(image);
+        assertEquals(0, store.stats().serializedSkins());
+
+        // Images that aren't stored are not cached either
+        store.serialize("test", skin, NO_CAPE, SkinGeometry.WIDE);
+        assertEquals(0, store.stats().serializedSkins());
+    }
+}
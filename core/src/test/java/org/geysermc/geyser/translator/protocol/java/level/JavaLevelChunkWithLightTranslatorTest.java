@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024 GeyserMC. http://geysermc.org
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ *
+ * @author GeyserMC
+ * @link https://github.com/GeyserMC/Geyser
+ */
+
+package org.geysermc.geyser.translator.protocol.java.level;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import org.cloudburstmc.nbt.NbtMap;
+import org.geysermc.geyser.registry.type.BlockMappings;
+import org.geysermc.geyser.registry.type.GeyserBedrockBlock;
+import org.geysermc.mcprotocollib.protocol.data.game.level.block.BlockEntityInfo;
+import org.geysermc.mcprotocollib.protocol.data.game.level.block.BlockEntityType;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class JavaLevelChunkWithLightTranslatorTest {
+    private static final BlockEntityInfo[] NO_BLOCK_ENTITIES = new BlockEntityInfo[0];
+
+    @Test
+    public void plainChunksUseSectionCache() {
+        BlockEntityInfo[] blockEntities = {
+                new BlockEntityInfo(0, 64, 0, BlockEntityType.CHEST, NbtMap.EMPTY),
+                // A skull without a profile is a plain player head
+                new BlockEntityInfo(1, 64, 0, BlockEntityType.SKULL, NbtMap.EMPTY)
+        };
+
+        Assertions.assertTrue(JavaLevelChunkWithLightTranslator.canUseSectionCache(vanillaMappings(), true, NO_BLOCK_ENTITIES));
+        Assertions.assertTrue(JavaLevelChunkWithLightTranslator.canUseSectionCache(vanillaMappings(), true, blockEntities));
+    }
+
+    @Test
+    public void extendedCollisionsBypassSectionCache() {
+        Int2ObjectMap<GeyserBedrockBlock> extendedCollisionBoxes = new Int2ObjectOpenHashMap<>();
+        extendedCollisionBoxes.put(1, new GeyserBedrockBlock(NbtMap.EMPTY, 2));
+        BlockMappings mappings = BlockMappings.builder().extendedCollisionBoxes(extendedCollisionBoxes).build();
+
+        Assertions.assertFalse(JavaLevelChunkWithLightTranslator.canUseSectionCache(mappings, false, NO_BLOCK_ENTITIES));
+    }
+
+    @Test
+    public void customSkullsBypassSectionCache() {
+        NbtMap profile = NbtMap.builder().putString("name", "Steve").build();
+        BlockEntityInfo[] blockEntities = {
+                new BlockEntityInfo(0, 64, 0, BlockEntityType.SKULL, NbtMap.builder().putCompound("profile", profile).build())
+        };
+
+        Assertions.assertFalse(JavaLevelChunkWithLightTranslator.canUseSectionCache(vanillaMappings(), true, blockEntities));
+        Assertions.assertTrue(JavaLevelChunkWithLightTranslator.canUseSectionCache(vanillaMappings(), false, blockEntities),
+                "Custom skulls don't change sections when the player has hidden them");
+    }
+
+    private static BlockMappings vanillaMappings() {
+        return BlockMappings.builder().extendedCollisionBoxes(Int2ObjectMaps.emptyMap()).build();
+    }
+}
@@ -86,6 +86,7 @@ include(":standalone")
 include(":velocity")
 include(":common")
 include(":core")
+include(":benchmarks")
 
 project(":standalone").projectDir = file("bootstrap/standalone")
 project(":velocity").projectDir = file("bootstrap/velocity")
\ No newline at end of file